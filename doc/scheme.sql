@@ -9,6 +9,96 @@ CREATE INDEX IF NOT EXISTS idx_article_embedding_ivfflat
     ON article_embeddings
     USING ivfflat (embedding vector_cosine_ops)
     WITH (lists = 1000);
+-- 向量变更追踪：写入时由触发器刷新 updated_at，删除记入 article_embedding_deletions，供内存 HNSW 索引从快照位置追平
+ALTER TABLE article_embeddings ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+CREATE INDEX IF NOT EXISTS idx_article_embeddings_updated_at ON article_embeddings (updated_at);
+CREATE TABLE IF NOT EXISTS article_embedding_deletions (
+    id         BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_article_embedding_deletions_deleted_at ON article_embedding_deletions (deleted_at);
+CREATE OR REPLACE FUNCTION touch_article_embedding() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE FUNCTION record_article_embedding_deletion() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO article_embedding_deletions (id, deleted_at) VALUES (OLD.id, clock_timestamp())
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+DROP TRIGGER IF EXISTS trg_article_embeddings_touch ON article_embeddings;
+CREATE TRIGGER trg_article_embeddings_touch BEFORE INSERT OR UPDATE ON article_embeddings
+    FOR EACH ROW EXECUTE FUNCTION touch_article_embedding();
+DROP TRIGGER IF EXISTS trg_article_embeddings_deleted ON article_embeddings;
+CREATE TRIGGER trg_article_embeddings_deleted AFTER DELETE ON article_embeddings
+    FOR EACH ROW EXECUTE FUNCTION record_article_embedding_deletion();
 ALTER TABLE articles ADD COLUMN tsv TSVECTOR;
 -- 为tsv字段创建GIN索引
-CREATE INDEX idx_articles_tsv ON articles USING GIN(tsv);
\ No newline at end of file
+CREATE INDEX idx_articles_tsv ON articles USING GIN(tsv);
+-- 用户向量增量维护：前向衰减累加向量、累计权重、衰减锚点与压缩标记
+ALTER TABLE user_embeddings ADD COLUMN IF NOT EXISTS decayed_sum VECTOR(1024);
+ALTER TABLE user_embeddings ADD COLUMN IF NOT EXISTS total_weight DOUBLE PRECISION;
+ALTER TABLE user_embeddings ADD COLUMN IF NOT EXISTS decay_anchor TIMESTAMP WITH TIME ZONE;
+ALTER TABLE user_embeddings ADD COLUMN IF NOT EXISTS compaction_pending BOOLEAN DEFAULT TRUE;
+-- 物品近邻预计算表：每个物品一行，保存 Top-N 相似物品 ID 与得分（按得分降序）
+CREATE TABLE IF NOT EXISTS item_neighbors (
+    item_id      BIGINT PRIMARY KEY,
+    neighbor_ids BIGINT[] NOT NULL,
+    scores       REAL[]   NOT NULL,
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_item_neighbors_updated_at ON item_neighbors (updated_at);
+-- 用户兴趣画像：各属性维度的前向衰减累加得分（jsonb），version 用于乐观锁与下游缓存
+CREATE TABLE IF NOT EXISTS user_interest_profiles (
+    user_id         INTEGER PRIMARY KEY,
+    version         BIGINT  NOT NULL DEFAULT 1,
+    decay_anchor    TIMESTAMP WITH TIME ZONE NOT NULL,
+    scores          JSONB   NOT NULL DEFAULT '{}'::jsonb,
+    rebuild_pending BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+-- 相似用户预计算表：每个用户一行，保存 Top-K 相似用户 ID 与余弦相似度（按得分降序）
+CREATE TABLE IF NOT EXISTS user_neighbors (
+    user_id      INTEGER PRIMARY KEY,
+    neighbor_ids INTEGER[] NOT NULL,
+    scores       REAL[]    NOT NULL,
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_user_neighbors_updated_at ON user_neighbors (updated_at);
+
+-- 文章游标分页：按 (pub_date desc, id desc) 定位下一页
+CREATE INDEX IF NOT EXISTS idx_articles_pub_date_id ON articles (pub_date DESC, id DESC);
+-- 文章标签规范化表：每个（文章, 标签）一行，标签统一小写
+CREATE TABLE IF NOT EXISTS article_tags (
+    article_id BIGINT NOT NULL,
+    tag        TEXT   NOT NULL,
+    PRIMARY KEY (article_id, tag)
+);
+CREATE INDEX IF NOT EXISTS idx_article_tags_tag ON article_tags (tag);
+-- 按订阅源、按天（UTC）预聚合的标签与分类计数，文章入库时按（订阅源, 天）重算，供 insights 聚合
+CREATE TABLE IF NOT EXISTS feed_daily_tag_stats (
+    feed_id INTEGER NOT NULL,
+    day     DATE    NOT NULL,
+    tag     TEXT    NOT NULL,
+    cnt     INTEGER NOT NULL,
+    PRIMARY KEY (feed_id, day, tag)
+);
+CREATE INDEX IF NOT EXISTS idx_feed_daily_tag_stats_day ON feed_daily_tag_stats (day, feed_id);
+CREATE TABLE IF NOT EXISTS feed_daily_category_stats (
+    feed_id  INTEGER     NOT NULL,
+    day      DATE        NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    cnt      INTEGER     NOT NULL,
+    PRIMARY KEY (feed_id, day, category)
+);
+CREATE INDEX IF NOT EXISTS idx_feed_daily_category_stats_day ON feed_daily_category_stats (day, feed_id);
+-- 标签/分类统计的修复游标：id 不超过 last_article_id 的文章均已刷新，后台从游标之后补刷并推进
+CREATE TABLE IF NOT EXISTS article_stats_cursor (
+    name            VARCHAR(50) PRIMARY KEY,
+    last_article_id BIGINT      NOT NULL,
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -5,12 +5,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.bitmagic.ifeed.api.response.ArticleDetailResponse;
 import org.bitmagic.ifeed.api.response.ArticleSummaryResponse;
+import org.bitmagic.ifeed.api.response.CursorPageResponse;
 import org.bitmagic.ifeed.api.response.UserSubscriptionInsightResponse;
 import org.bitmagic.ifeed.api.util.IdentifierUtils;
 import org.bitmagic.ifeed.application.recommendation.RecRequest;
 import org.bitmagic.ifeed.application.recommendation.RecResponse;
 import org.bitmagic.ifeed.application.recommendation.RecommendationService;
 import org.bitmagic.ifeed.config.security.UserPrincipal;
+import org.bitmagic.ifeed.domain.record.ArticleCursor;
+import org.bitmagic.ifeed.domain.record.ArticleScroll;
 import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
 import org.bitmagic.ifeed.domain.repository.FeedRepository;
 import org.bitmagic.ifeed.domain.repository.MixFeedRepository;
@@ -43,6 +46,7 @@ public class ArticleController {
     };
     private static final String SOURCE_OWNER = "owner";
     private static final String SOURCE_GLOBAL = "global";
+    private static final int MAX_SCROLL_SIZE = 100;
 
     private final ArticleService articleService;
     private final UserCollectionService userCollectionService;
@@ -96,6 +100,49 @@ public class ArticleController {
         return ResponseEntity.ok(articlePage.map(this::toSummaryResponse));
     }
 
+    /**
+     * 无限滚动列表：游标分页，深翻页耗时不随页数增长；总数仅在 withTotal=true 时返回，为缓存的近似值。
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<ArticleSummaryResponse>> scrollArticles(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String feedId,
+            @RequestParam(required = false, name = "tags") String tags,
+            @RequestParam(required = false, name = "category") String category,
+            @RequestParam(required = false, defaultValue = SOURCE_OWNER) String source,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
+        ensureAuthenticated(principal);
+        var normalizedTags = parseTags(tags);
+        var normalizedCategory = normalizeCategory(category);
+        var includeGlobal = SOURCE_GLOBAL.equals(normalizeSource(source));
+        var position = ArticleCursor.decode(cursor);
+        var safeSize = Math.min(Math.max(size == null ? 20 : size, 1), MAX_SCROLL_SIZE);
+
+        UUID feedUuid = parseFeedId(feedId);
+        ArticleScroll scroll;
+        Long total = null;
+        if (feedUuid != null && feedRepository.findByUid(feedUuid).isEmpty()) {
+            if (mixFeedRepository.findByUid(feedUuid).isEmpty()) {
+                throw new ApiException(HttpStatus.NOT_FOUND, "Feed or MixFeed not found");
+            }
+            scroll = mixFeedService.scrollFilteredArticles(feedUuid, principal.getId(), position, safeSize);
+        } else {
+            scroll = articleService.scrollArticles(principal.getId(),
+                    feedUuid, normalizedTags, normalizedCategory, includeGlobal, position, safeSize);
+            if (withTotal) {
+                total = articleService.estimateArticleCount(principal.getId(),
+                        feedUuid, normalizedTags, normalizedCategory, includeGlobal);
+            }
+        }
+
+        return ResponseEntity.ok(new CursorPageResponse<>(
+                scroll.items().stream().map(this::toSummaryResponse).toList(),
+                scroll.hasMore() ? scroll.next().encode() : null,
+                scroll.hasMore(),
+                total));
+    }
+
     @GetMapping("/recommendations")
     public ResponseEntity<Page<RecResponse>> rec(@AuthenticationPrincipal UserPrincipal principal,
             @RequestParam(defaultValue = "0") Integer page,
@@ -1,9 +1,11 @@
 package org.bitmagic.ifeed.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.api.response.CursorPageResponse;
 import org.bitmagic.ifeed.api.response.SearchResultResponse;
 import org.bitmagic.ifeed.exception.ApiException;
 import org.bitmagic.ifeed.config.security.UserPrincipal;
+import org.bitmagic.ifeed.domain.record.ArticleCursor;
 import org.bitmagic.ifeed.domain.service.ArticleService;
 import org.bitmagic.ifeed.application.search.SearchRetrievalService;
 import org.springframework.data.domain.Page;
@@ -29,6 +31,7 @@ public class SearchController {
     private static final String TYPE_SEMANTIC = "semantic";
     private static final String SOURCE_OWNER = "owner";
     private static final String SOURCE_GLOBAL = "global";
+    private static final int MAX_SCROLL_SIZE = 100;
 
     private final ArticleService articleService;
     private final SearchRetrievalService searchRetrievalService;
@@ -80,6 +83,37 @@ public class SearchController {
         return ResponseEntity.ok(articlePage);
     }
 
+    /**
+     * 关键词搜索的游标分页版本，按发布时间倒序返回。
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<SearchResultResponse>> scroll(@AuthenticationPrincipal UserPrincipal principal,
+                                                                           @RequestParam String query,
+                                                                           @RequestParam(required = false, defaultValue = SOURCE_OWNER) String source,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false, defaultValue = "20") Integer size) {
+        ensureAuthenticated(principal);
+        var normalizedSource = source == null ? SOURCE_OWNER : source.trim().toLowerCase(Locale.ROOT);
+        if (!SOURCE_OWNER.equals(normalizedSource) && !SOURCE_GLOBAL.equals(normalizedSource)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Unsupported source type");
+        }
+        var safeSize = Math.min(Math.max(size == null ? 20 : size, 1), MAX_SCROLL_SIZE);
+        var scroll = articleService.scrollSearchArticles(principal.getId(), query,
+                SOURCE_GLOBAL.equals(normalizedSource), ArticleCursor.decode(cursor), safeSize);
+        var items = scroll.items().stream()
+                .map(article -> new SearchResultResponse(
+                        article.id().toString(),
+                        article.title(),
+                        article.summary(),
+                        article.thumbnail(),
+                        article.feedTitle(),
+                        formatRelativeTime(article.publishedAt()),
+                        null))
+                .toList();
+        return ResponseEntity.ok(new CursorPageResponse<>(items,
+                scroll.hasMore() ? scroll.next().encode() : null, scroll.hasMore(), null));
+    }
+
     private void ensureAuthenticated(UserPrincipal principal) {
         if (principal == null) {
             throw new ApiException(HttpStatus.UNAUTHORIZED, "Unauthorized");
@@ -63,10 +63,10 @@ public class SubscriptionController {
 
     @GetMapping
     public ResponseEntity<List<SubscriptionResponse>> list(@AuthenticationPrincipal UserPrincipal principal) {
-        UserBehaviorDocument userBehaviorDocument = userBehaviorRepository.findById(principal.getId().toString())
-                .orElse(null);
-        Map<String, Instant> feedReadTimes = Objects.nonNull(userBehaviorDocument)
-                ? userBehaviorDocument.getReadFeedHistory().stream().collect(Collectors
+        List<UserBehaviorDocument.FeedRef> readFeedHistory = userBehaviorRepository
+                .findReadFeedHistory(principal.getId().toString());
+        Map<String, Instant> feedReadTimes = Objects.nonNull(readFeedHistory)
+                ? readFeedHistory.stream().collect(Collectors
                         .toMap(UserBehaviorDocument.FeedRef::getFeedId, UserBehaviorDocument.FeedRef::getTimestamp))
                 : new HashMap<>();
 
@@ -0,0 +1,12 @@
+package org.bitmagic.ifeed.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 游标分页响应：{@code nextCursor} 原样传回即可获取下一页，{@code approximateTotal} 仅在请求时返回。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPageResponse<T>(List<T> items, String nextCursor, boolean hasMore, Long approximateTotal) {
+}
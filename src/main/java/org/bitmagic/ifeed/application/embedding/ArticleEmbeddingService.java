@@ -1,12 +1,16 @@
 package org.bitmagic.ifeed.application.embedding;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.config.properties.AiProviderProperties;
+import org.bitmagic.ifeed.domain.event.ArticleEmbeddedEvent;
 import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.repository.ArticleEmbeddingRepository;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.domain.repository.FeedRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,23 +31,41 @@ public class ArticleEmbeddingService {
 
     private final AiProviderProperties aiProviderProperties;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
     @Transactional
     public void buildArticleEmbedding(Article article) {
         if (aiProviderProperties.isEnabled()) {
-            repository.upsert(
-                    article.getFeed().getId(),
-                    title(article.getFeed().getId()),
-                    article.getId(),
-                    article.getTitle(),
-                    article.getCategory(),
-                    article.getTags(),
-                    article.getSummary(),
-                    article.getContent(),
-                    article.getLink(),
-                    article.getPublishedAt()
-            );
+            String feedTitle = title(article.getFeed().getId());
+            // 向量化与写入在 upsert 内完成，耗时记录为 ai.embedding.call{outcome}
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                repository.upsert(
+                        article.getFeed().getId(),
+                        feedTitle,
+                        article.getId(),
+                        article.getTitle(),
+                        article.getCategory(),
+                        article.getTags(),
+                        article.getSummary(),
+                        article.getContent(),
+                        article.getLink(),
+                        article.getPublishedAt()
+                );
+                outcome = "success";
+            } finally {
+                sample.stop(Timer.builder("ai.embedding.call")
+                        .description("Article embedding and upsert latency")
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
             article.setEmbeddingGenerated(true);
             articleRepository.save(article);
+            eventPublisher.publishEvent(new ArticleEmbeddedEvent(article.getId(), article.getFeed().getId(), article.getPublishedAt()));
         }
     }
 
@@ -2,15 +2,17 @@ package org.bitmagic.ifeed.application.embedding;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.domain.event.UserEmbeddingUpdatedEvent;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
-import org.bitmagic.ifeed.domain.repository.UserRepository;
+import org.bitmagic.ifeed.domain.repository.UserVectorRepository;
 import org.bitmagic.ifeed.domain.spec.ArticleSpecs;
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -22,32 +24,35 @@ public class EmbeddingScheduler {
 
     private final UserEmbeddingService userEmbeddingService;
 
-    private final UserRepository userRepository;
+    private final UserVectorRepository userVectorRepository;
 
     private final ArticleRepository articleRepository;
 
-    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * 用户向量由交互事件实时增量更新，这里只对有增量的用户做全量重建（压缩）
+     */
     @Scheduled(initialDelayString = "${app.embedding.user.initial-delay:PT10S}",
             fixedDelayString = "${app.embedding.user.fixed-delay:PT30M}")
     public void userEmbedding() {
-        log.info("begin gen user embedding");
+        log.info("begin compact user embedding");
         try {
-            userRepository.findAll().forEach(user -> {
-                log.info("init user embedding :{}", user.getUsername());
+            List<Integer> userIds = userVectorRepository.findUserIdsPendingCompaction();
+            userIds.forEach(userId -> {
+                log.debug("compact user embedding :{}", userId);
                 try {
-                    userEmbeddingService.rebuildUserEmbedding(user.getId()).ifPresent(userEmbedding -> {
-                        evictU2I2ICache(user.getId());
-                        evictU2ICache(user.getId());
-                    });
+                    userEmbeddingService.rebuildUserEmbedding(userId).ifPresent(userEmbedding ->
+                            eventPublisher.publishEvent(new UserEmbeddingUpdatedEvent(userId)));
                 } catch (RuntimeException e) {
-                    log.warn("init user embedding", e);
+                    log.warn("compact user embedding", e);
                 }
             });
+            log.info("compacted {} user embeddings", userIds.size());
         } catch (RuntimeException e) {
             log.warn("user embedding", e);
         }
-        log.info("end gen user embedding");
+        log.info("end compact user embedding");
     }
 
 
@@ -71,19 +76,4 @@ public class EmbeddingScheduler {
         }
         log.info("end init article embedding");
     }
-
-
-    public void evictU2I2ICache(Integer userId) {
-        var cache = cacheManager.getCache("U2I2I");
-        if (cache != null) {
-            cache.evict(userId);
-        }
-    }
-
-    public void evictU2ICache(Integer userId) {
-        var cache = cacheManager.getCache("U2I");
-        if (cache != null) {
-            cache.evict(userId);
-        }
-    }
 }
@@ -0,0 +1,59 @@
+package org.bitmagic.ifeed.application.embedding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.config.properties.RecommendationProperties;
+import org.bitmagic.ifeed.domain.event.UserEmbeddingUpdatedEvent;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 监听用户交互事件，实时增量更新用户向量，更新后发布 {@link UserEmbeddingUpdatedEvent} 失效对应的个性化召回缓存。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEmbeddingEventListener {
+
+    private final UserEmbeddingService userEmbeddingService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RecommendationProperties recommendationProperties;
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        try {
+            boolean updated;
+            try {
+                updated = apply(event);
+            } catch (DataIntegrityViolationException e) {
+                // 同一用户的首条向量被并发插入，此时行已存在，重试会走行锁路径
+                updated = apply(event);
+            }
+            if (updated) {
+                eventPublisher.publishEvent(new UserEmbeddingUpdatedEvent(event.userId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("incremental user embedding failed for user {}", event.userId(), e);
+        }
+    }
+
+    private boolean apply(UserInteractionEvent event) {
+        return switch (event.action()) {
+            case READ -> userEmbeddingService.applyInteraction(event.userId(), event.articleId(),
+                    recommendationProperties.getReadWeight(), event.timestamp()).isPresent();
+            case COLLECT -> userEmbeddingService.applyInteraction(event.userId(), event.articleId(),
+                    recommendationProperties.getCollectWeight(), event.timestamp()).isPresent();
+            case UNCOLLECT -> {
+                userEmbeddingService.markCompactionPending(event.userId());
+                yield false;
+            }
+        };
+    }
+}
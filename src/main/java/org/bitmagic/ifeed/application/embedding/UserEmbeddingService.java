@@ -25,6 +25,10 @@ import java.util.stream.Collectors;
 /**
  * 用户画像向量构建服务
  * 基于用户近期交互序列和时间衰减权重，生成用户的向量表示
+ * <p>
+ * 交互发生时通过 {@link #applyInteraction} 以前向衰减方式增量累加；
+ * {@link #rebuildUserEmbedding} 仅作为定时压缩，校正增量误差。
+ * 各写入路径都先对用户向量行加锁再读改写，同一用户的并发交互依次合入，互不覆盖。
  */
 @Slf4j
 @Service
@@ -34,6 +38,10 @@ public class UserEmbeddingService {
     private static final int EMBEDDING_DIMENSION = 1024;
     private static final int MAX_PROFILE_ITEMS = 20;
     private static final String PROFILE_SEPARATOR = " | ";
+    /**
+     * 前向衰减指数上限，超过后将累加向量整体缩放并重置锚点，避免 float 溢出
+     */
+    private static final double MAX_DECAY_EXPONENT = 64.0;
 
     private final SequenceStore sequenceStore;
     private final ArticleEmbeddingRepository articleEmbeddingRepository;
@@ -63,7 +71,7 @@ public class UserEmbeddingService {
 
         try {
             // 2. 检查是否需要重建
-            Optional<UserVectorStore> existingOpt = userVectorRepository.findById(userId);
+            Optional<UserVectorStore> existingOpt = userVectorRepository.findByIdForUpdate(userId);
 
             // 3. 获取用户交互数据
             int behaviorLimit = Math.max(1, recommendationProperties.getRecentBehaviorLimit());
@@ -83,7 +91,7 @@ public class UserEmbeddingService {
                     .max(Comparator.naturalOrder())
                     .orElse(Instant.EPOCH);
 
-            if (existingOpt.isPresent()) {
+            if (existingOpt.isPresent() && !Boolean.TRUE.equals(existingOpt.get().getCompactionPending())) {
                 Instant existingUpdatedAt = existingOpt.get().getUpdatedAt();
                 if (existingUpdatedAt != null && !existingUpdatedAt.isBefore(latestInteractionTime)) {
                     log.debug("User {} embedding is up-to-date, skip rebuild", userId);
@@ -142,6 +150,10 @@ public class UserEmbeddingService {
                     .build());
 
             embedding.setEmbedding(normalizedVector);
+            embedding.setDecayedSum(aggregationResult.aggregatedVector);
+            embedding.setTotalWeight(aggregationResult.totalWeight);
+            embedding.setDecayAnchor(now);
+            embedding.setCompactionPending(false);
             embedding.setContent(profileText);
             embedding.setUpdatedAt(now);
 
@@ -157,6 +169,128 @@ public class UserEmbeddingService {
         }
     }
 
+    /**
+     * 增量合入一次交互
+     * 累加项按 2^((t - anchor) / halfLife) 放大后叠加到累加向量，等价于对历史整体衰减，
+     * 累加向量本身不做归一化，只在写出 embedding 时归一化
+     *
+     * @param userId    用户ID
+     * @param articleId 文章ID
+     * @param weight    交互基础权重
+     * @param timestamp 交互时间
+     * @return 更新后的用户向量，文章尚无向量等情况返回 empty
+     */
+    @Transactional
+    public Optional<UserVectorStore> applyInteraction(Integer userId, Long articleId, double weight, Instant timestamp) {
+        if (!aiProviderProperties.isEnabled() || userId == null || articleId == null || weight <= 0.0) {
+            return Optional.empty();
+        }
+
+        Optional<float[]> source = articleEmbeddingRepository.findById(articleId)
+                .map(ArticleEmbeddingRecord::embedding)
+                .map(this::ensureDimension);
+        if (source.isEmpty()) {
+            log.debug("No embedding for article {}, skip incremental update of user {}", articleId, userId);
+            return Optional.empty();
+        }
+
+        Instant eventTime = timestamp != null ? timestamp : Instant.now();
+        UserVectorStore embedding = userVectorRepository.findByIdForUpdate(userId)
+                .orElseGet(() -> UserVectorStore.builder()
+                        .userId(userId)
+                        .build());
+        ensureAccumulator(embedding, eventTime);
+
+        double exponent = forwardDecayExponent(embedding.getDecayAnchor(), eventTime);
+        if (exponent > MAX_DECAY_EXPONENT) {
+            rebaseAccumulator(embedding, exponent, eventTime);
+            exponent = 0.0;
+        }
+
+        double scaledWeight = weight * Math.pow(2.0, exponent);
+        float[] sum = embedding.getDecayedSum();
+        float[] vector = source.get();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += (float) (vector[i] * scaledWeight);
+        }
+        embedding.setTotalWeight(embedding.getTotalWeight() + scaledWeight);
+
+        float[] normalized = normalizeVector(sum);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        embedding.setEmbedding(normalized);
+        embedding.setCompactionPending(true);
+        if (embedding.getContent() == null) {
+            embedding.setContent(recommendationProperties.getDefaultProfile());
+        }
+        embedding.setUpdatedAt(Instant.now());
+
+        return Optional.of(userVectorRepository.save(embedding));
+    }
+
+    /**
+     * 标记用户需要压缩（如取消收藏这类无法增量扣减的行为）
+     *
+     * @param userId 用户ID
+     */
+    @Transactional
+    public void markCompactionPending(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        userVectorRepository.findByIdForUpdate(userId).ifPresent(embedding -> {
+            embedding.setCompactionPending(true);
+            userVectorRepository.save(embedding);
+        });
+    }
+
+    /**
+     * 初始化累加器，旧数据只有归一化向量时以其作为单位权重的初始值
+     */
+    private void ensureAccumulator(UserVectorStore embedding, Instant eventTime) {
+        if (embedding.getDecayedSum() != null && embedding.getTotalWeight() != null
+                && embedding.getDecayAnchor() != null) {
+            embedding.setDecayedSum(ensureDimension(embedding.getDecayedSum()));
+            return;
+        }
+        float[] seed = ensureDimension(embedding.getEmbedding());
+        if (seed != null) {
+            embedding.setDecayedSum(seed);
+            embedding.setTotalWeight(1.0);
+            embedding.setDecayAnchor(embedding.getUpdatedAt() != null ? embedding.getUpdatedAt() : eventTime);
+        } else {
+            embedding.setDecayedSum(new float[EMBEDDING_DIMENSION]);
+            embedding.setTotalWeight(0.0);
+            embedding.setDecayAnchor(eventTime);
+        }
+    }
+
+    /**
+     * 将累加器整体缩放 2^-exponent 并把锚点移动到 eventTime
+     */
+    private void rebaseAccumulator(UserVectorStore embedding, double exponent, Instant eventTime) {
+        double factor = Math.pow(2.0, -exponent);
+        float[] sum = embedding.getDecayedSum();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = (float) (sum[i] * factor);
+        }
+        embedding.setTotalWeight(embedding.getTotalWeight() * factor);
+        embedding.setDecayAnchor(eventTime);
+    }
+
+    /**
+     * 前向衰减指数：(eventTime - anchor) / halfLife
+     */
+    private double forwardDecayExponent(Instant anchor, Instant eventTime) {
+        Duration halfLife = recommendationProperties.getDecayHalfLife();
+        if (anchor == null || halfLife == null || halfLife.isZero() || halfLife.isNegative()) {
+            return 0.0;
+        }
+        double halfLifeSeconds = Math.max(1.0, halfLife.getSeconds());
+        return Duration.between(anchor, eventTime).getSeconds() / halfLifeSeconds;
+    }
+
     /**
      * 查询文章详情
      * 处理 Long 到 Integer 的安全转换
@@ -12,7 +12,6 @@ import org.bitmagic.ifeed.domain.spec.ArticleSpecs;
 import org.bitmagic.ifeed.domain.spec.MixFeedSpecs;
 import org.bitmagic.ifeed.infrastructure.util.TaskUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -43,11 +42,9 @@ public class FeedIngestionScheduler {
 
     private final RssFetcherProperties properties;
 
-    private final CacheManager cacheManager;
-
     @Autowired
     public FeedIngestionScheduler(FeedIngestionService ingestionService, MixFeedRepository mixFeedRepository, ArticleRepository articleRepository,
-                                  RssFetcherProperties properties, CacheManager cacheManager) {
+                                  RssFetcherProperties properties) {
         this.ingestionService = ingestionService;
         AtomicInteger counter = new AtomicInteger(0);
         this.executor = Executors.newFixedThreadPool(properties.getThreadPoolSize(), (runnable) -> {
@@ -58,7 +55,6 @@ public class FeedIngestionScheduler {
         this.properties = properties;
         this.mixFeedRepository = mixFeedRepository;
         this.articleRepository = articleRepository;
-        this.cacheManager = cacheManager;
     }
 
     @Scheduled(initialDelayString = "${app.rss.fetcher.initial-delay:PT10S}",
@@ -101,7 +97,6 @@ public class FeedIngestionScheduler {
             log.warn("Feed ingestion interrupted", e);
             Thread.currentThread().interrupt();
         }
-        evictItemCache();
         long duration = (System.currentTimeMillis() - start) / 1000;
         log.info("Feed refresh completed: {} success, {} failed, {}s",
                 fetchSuccess.get(), feedIds.size() - fetchSuccess.get(), duration);
@@ -165,11 +160,4 @@ public class FeedIngestionScheduler {
         }
         log.info("Feed ingestion thread pool stopped");
     }
-
-    public void evictItemCache() {
-        var cache = cacheManager.getCache("ITEMS");
-        if (cache != null) {
-            cache.clear();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -13,6 +13,7 @@ import org.bitmagic.ifeed.domain.model.value.FeedFetchStatus;
 import org.bitmagic.ifeed.domain.repository.FeedRepository;
 import org.bitmagic.ifeed.domain.service.ArticleService;
 import org.bitmagic.ifeed.infrastructure.feed.FeedFetcher;
+import org.bitmagic.ifeed.infrastructure.feed.FeedIngestionMetrics;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -33,6 +34,7 @@ public class FeedIngestionService {
     private final FeedFetcher feedFetcher;
     private final ArticleCollector articleCollector;
     private final FeedInfoService feedInfoService;
+    private final FeedIngestionMetrics metrics;
 
     @Transactional(readOnly = true)
     public List<UUID> getFeedIds(Predicate<Feed> predicate) {
@@ -98,7 +100,7 @@ public class FeedIngestionService {
             return null;
         }
         var latest = resolveLatestPublishedAt(articles);
-        articleService.saveAllAndFlush(articles);
+        metrics.recordStage(FeedIngestionMetrics.STAGE_PERSIST, () -> articleService.saveAllAndFlush(articles));
         return latest;
     }
 
@@ -9,6 +9,7 @@ import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.model.Feed;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.infrastructure.ai.AiContentService;
+import org.bitmagic.ifeed.infrastructure.feed.FeedIngestionMetrics;
 import org.bitmagic.ifeed.infrastructure.util.ContentCleaner;
 import org.bitmagic.ifeed.infrastructure.util.JSON;
 import org.jsoup.Jsoup;
@@ -28,6 +29,7 @@ public class DefaultEntryProcessor implements EntryProcessor {
 
     private final ArticleRepository articleRepository;
     private final AiContentService aiContentService;
+    private final FeedIngestionMetrics metrics;
 
     @Override
     public Optional<Article> process(Feed feed, SyndEntry entry) {
@@ -42,9 +44,10 @@ public class DefaultEntryProcessor implements EntryProcessor {
 
         var rawContent = resolveContent(entry);
         var thumbnail = resolveThumbnail(entry, rawContent);
-        var cleaned = ContentCleaner.clean(rawContent);
+        var cleaned = metrics.recordStage(FeedIngestionMetrics.STAGE_CLEAN, () -> ContentCleaner.clean(rawContent));
         var textContent = StringUtils.hasText(cleaned.textContent()) ? cleaned.textContent() : entry.getTitle();
-        var aiContent = aiContentService.analyze(entry.getTitle(), textContent);
+        var aiContent = metrics.recordStage(FeedIngestionMetrics.STAGE_ANALYZE,
+                () -> aiContentService.analyze(entry.getTitle(), textContent));
 
         var article = Article.builder()
                 .feed(feed)
@@ -15,7 +15,6 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -30,22 +29,28 @@ public class RecallRecommendationService implements RecommendationService {
     private final RecallEngine recallEngine;
     private final ReRankerService reRankerService;
     private final ArticleService articleService;
-    private final Map<Integer, List<ItemCandidate>> user2Items = new ConcurrentHashMap<>();
+    private final RecommendationSessionCache sessionCache;
 
     @Override
     public Page<RecResponse> recommend(RecRequest request, int page, int size) {
         long start = System.currentTimeMillis();
         int safePage = Math.max(page, 0);
         int safeSize = size <= 0 ? 10 : size;
-        List<ItemCandidate> cachedItems = user2Items.get(request.userId());
-        if (safePage == 0 || cachedItems == null) {
+        RecommendationSessionCache.SessionKey sessionKey = RecommendationSessionCache.SessionKey.of(request);
+        List<ItemCandidate> cachedItems = (safePage == 0 ? sessionCache.getFresh(sessionKey) : sessionCache.get(sessionKey))
+                .orElse(null);
+        if (cachedItems == null) {
             RecallRequest recallRequest = new RecallRequest(request.userId(), request.scene(), safeSize * 6, Collections.emptyMap(), false, Instant.now());
             RecallResponse recalled = recallEngine.recall(recallRequest);
             cachedItems = reRankerService.reranker(recalled.userContext(), recalled.items());
+            // 展示率按首页统计；会话失效后直接请求后续页时，展示的并不是首页切片，不回传
+            if (safePage == 0) {
+                recallEngine.recordServed(recalled, cachedItems.subList(0, Math.min(safeSize, cachedItems.size())));
+            }
             cachedItems.forEach(item -> {
                 log.debug("{} score: {}",item.itemId(), item.score());
             });
-            user2Items.put(request.userId(), cachedItems);
+            sessionCache.put(sessionKey, cachedItems);
         }
         Map<Long, ItemCandidate> id2Source = cachedItems.stream().collect(Collectors.toMap(ItemCandidate::itemId, Function.identity()));
         log.info("recall:{}ms", System.currentTimeMillis() - start);
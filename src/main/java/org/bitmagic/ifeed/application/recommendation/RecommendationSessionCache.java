@@ -0,0 +1,125 @@
+package org.bitmagic.ifeed.application.recommendation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.model.ItemCandidate;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 推荐会话缓存：保存一次召回+重排后的候选列表，供同一会话翻页复用。
+ * <p>
+ * 按候选数量加权限制总容量，写入后按 TTL 过期。首页默认每次重新召回并刷新会话，翻页使用会话中的列表以保证分页稳定；
+ * 开启 {@code reuse-first-page} 后首页也复用会话，直到用户产生新交互。命中率等指标通过 Micrometer 暴露为 {@code cache.*{cache=recommendation-sessions}}。
+ *
+ * @author yangrd
+ * @date 2025/12/22
+ **/
+@Slf4j
+@Component
+public class RecommendationSessionCache {
+
+    private static final String CACHE_NAME = "recommendation-sessions";
+
+    private final Cache<SessionKey, Session> sessions;
+
+    /**
+     * 用户最近一次交互时间，早于该时间创建的会话不再用于首页。
+     */
+    private final Cache<Integer, Instant> lastInteractions;
+
+    private final boolean reuseFirstPage;
+
+    public RecommendationSessionCache(MeterRegistry meterRegistry,
+                                      @Value("${app.recommendation.session.ttl:PT10M}") Duration ttl,
+                                      @Value("${app.recommendation.session.max-candidates:100000}") long maxCandidates,
+                                      @Value("${app.recommendation.session.reuse-first-page:false}") boolean reuseFirstPage) {
+        this.reuseFirstPage = reuseFirstPage;
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maxCandidates)
+                .weigher((SessionKey key, Session session) -> Math.max(1, session.items().size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lastInteractions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(Math.max(1_000L, maxCandidates / 10))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, CACHE_NAME);
+    }
+
+    /**
+     * 首页读取：未开启首页复用时总是未命中；否则会话存在且在最近一次交互之后创建才视为命中。
+     */
+    public Optional<List<ItemCandidate>> getFresh(SessionKey key) {
+        if (!reuseFirstPage) {
+            return Optional.empty();
+        }
+        Session session = sessions.getIfPresent(key);
+        if (session == null) {
+            return Optional.empty();
+        }
+        Instant lastInteraction = lastInteractions.getIfPresent(key.userId());
+        if (lastInteraction != null && !session.createdAt().isAfter(lastInteraction)) {
+            sessions.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(session.items());
+    }
+
+    /**
+     * 翻页读取：忽略交互失效，保证同一会话内分页结果稳定。
+     */
+    public Optional<List<ItemCandidate>> get(SessionKey key) {
+        return Optional.ofNullable(sessions.getIfPresent(key)).map(Session::items);
+    }
+
+    public void put(SessionKey key, List<ItemCandidate> items) {
+        sessions.put(key, new Session(List.copyOf(items), Instant.now()));
+    }
+
+    @EventListener
+    public void onUserInteraction(UserInteractionEvent event) {
+        lastInteractions.asMap().merge(event.userId(), event.timestamp(),
+                (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * 会话键：用户 + 场景 + 请求上下文。
+     */
+    public record SessionKey(Integer userId, String scene, Map<String, Object> context) {
+
+        public SessionKey {
+            Objects.requireNonNull(userId, "userId");
+            context = sanitize(context);
+        }
+
+        public static SessionKey of(RecRequest request) {
+            Map<String, Object> context = new HashMap<>();
+            Optional.ofNullable(request.context()).ifPresent(context::putAll);
+            Optional.ofNullable(request.filters()).ifPresent(context::putAll);
+            return new SessionKey(request.userId(), request.scene(), context);
+        }
+
+        private static Map<String, Object> sanitize(Map<String, Object> context) {
+            if (context == null || context.isEmpty()) {
+                return Map.of();
+            }
+            Map<String, Object> copy = new HashMap<>(context);
+            copy.values().removeIf(Objects::isNull);
+            return Map.copyOf(copy);
+        }
+    }
+
+    private record Session(List<ItemCandidate> items, Instant createdAt) {
+    }
+}
@@ -0,0 +1,265 @@
+package org.bitmagic.ifeed.application.recommendation.recall.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.model.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 自适应召回计划器：在 {@link DefaultRecallPlanner} 的均分配额基础上，按各策略近期的实际表现重新分配配额。
+ * <p>
+ * 按（场景, 用户分群）统计每个策略最近 N 次召回的耗时、进入融合结果的比例、只由该策略贡献的比例以及进入首页的比例，
+ * 产出高、耗时低的策略获得更多配额；边际产出低于阈值的策略直接跳过，并以小概率保留探索调用，使统计能够恢复。
+ * 样本不足时沿用默认配额。每次决策写入 {@link RecallPlan#decisions()}，各分群的统计可通过 {@link #snapshot()} 查看。
+ */
+@Slf4j
+public class AdaptiveRecallPlanner implements RecallPlanner {
+
+    private static final int QUOTA = 0;
+    private static final int LATENCY = 1;
+    private static final int SURVIVED = 2;
+    private static final int UNIQUE = 3;
+
+    private final RecallPlanner delegate;
+    private final Settings settings;
+    private final Map<StatsKey, StrategyStats> stats = new ConcurrentHashMap<>();
+
+    public AdaptiveRecallPlanner(RecallPlanner delegate, Settings settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+    }
+
+    @Override
+    public RecallPlan plan(RecallRequest request, Collection<StrategyId> availableStrategies) {
+        return plan(request, null, availableStrategies);
+    }
+
+    @Override
+    public RecallPlan plan(RecallRequest request, UserContext context, Collection<StrategyId> availableStrategies) {
+        RecallPlan base = delegate.plan(request, availableStrategies);
+        if (base.quotas().isEmpty()) {
+            return base;
+        }
+        String segment = segmentOf(request.scene(), context);
+        int total = base.quotas().values().stream().mapToInt(Integer::intValue).sum();
+
+        Map<StrategyId, Double> values = new EnumMap<>(StrategyId.class);
+        Map<StrategyId, String> decisions = new EnumMap<>(StrategyId.class);
+        List<StrategyId> warming = new ArrayList<>();
+        List<StrategyId> exploring = new ArrayList<>();
+        for (StrategyId id : base.quotas().keySet()) {
+            StrategyStats current = statsOf(segment, id);
+            if (current.recall.count() < settings.minSamples()) {
+                warming.add(id);
+                decisions.put(id, "warm-up(" + current.recall.count() + ")");
+                continue;
+            }
+            Yield yield = current.observedYield();
+            if (yield.marginal() < settings.skipThreshold()) {
+                if (ThreadLocalRandom.current().nextDouble() >= settings.explorationRate()) {
+                    decisions.put(id, "skip " + yield);
+                    continue;
+                }
+                exploring.add(id);
+                decisions.put(id, "explore " + yield);
+                continue;
+            }
+            values.put(id, yield.value(settings));
+            decisions.put(id, yield.toString());
+        }
+        if (values.isEmpty() && warming.isEmpty() && exploring.isEmpty()) {
+            // 所有策略都被判定为低产出时不做跳过，退回默认配额
+            return new RecallPlan(base.quotas(), base.fusionConfig(), Map.of());
+        }
+
+        double prior = values.values().stream().mapToDouble(Double::doubleValue).average().orElse(1d);
+        warming.forEach(id -> values.put(id, prior));
+        double sum = values.values().stream().mapToDouble(Double::doubleValue).sum();
+        int minQuota = Math.max(1, settings.minQuota());
+        int maxQuota = Math.max(minQuota, (int) Math.round(total * settings.maxShare()));
+
+        Map<StrategyId, Integer> quotas = new EnumMap<>(StrategyId.class);
+        values.forEach((id, value) -> {
+            int quota = sum <= 0 ? minQuota : (int) Math.round(total * value / sum);
+            quotas.put(id, Math.min(maxQuota, Math.max(minQuota, quota)));
+        });
+        exploring.forEach(id -> quotas.put(id, minQuota));
+        quotas.forEach((id, quota) -> decisions.computeIfPresent(id, (key, reason) -> "quota=" + quota + " " + reason));
+        decisions.forEach((id, reason) -> statsOf(segment, id).lastDecision = reason);
+        log.debug("Recall plan for segment {}: {}", segment, decisions);
+        return new RecallPlan(quotas, base.fusionConfig(), decisions);
+    }
+
+    @Override
+    public void recordOutcome(RecallOutcome outcome) {
+        String segment = segmentOf(outcome.request().scene(), outcome.context());
+        Map<StrategyId, int[]> counts = countSources(outcome.fused());
+        outcome.plan().quotas().forEach((id, quota) -> {
+            if (quota <= 0) {
+                return;
+            }
+            int[] count = counts.getOrDefault(id, new int[2]);
+            double latencyMs = outcome.latencies().getOrDefault(id, Duration.ZERO).toNanos() / 1_000_000d;
+            statsOf(segment, id).recall.add(quota, latencyMs, count[0], count[1]);
+        });
+    }
+
+    @Override
+    public void recordServed(RecallResponse response, List<ItemCandidate> served) {
+        if (response.userContext() == null) {
+            return;
+        }
+        String segment = segmentOf(response.userContext().scene(), response.userContext());
+        Map<StrategyId, int[]> counts = countSources(served);
+        response.channelResults().keySet().forEach(id ->
+                statsOf(segment, id).served.add(counts.getOrDefault(id, new int[2])[0]));
+    }
+
+    /**
+     * 当前各分群、各策略的滑动窗口统计及最近一次决策。
+     */
+    public Map<String, Map<StrategyId, StrategySnapshot>> snapshot() {
+        Map<String, Map<StrategyId, StrategySnapshot>> result = new TreeMap<>();
+        stats.forEach((key, value) -> result
+                .computeIfAbsent(key.segment(), segment -> new EnumMap<>(StrategyId.class))
+                .put(key.strategy(), value.snapshot()));
+        return result;
+    }
+
+    /**
+     * 按交互数量把用户分为冷启动、轻度、活跃三档，与场景组合成统计分群。
+     */
+    private String segmentOf(String scene, UserContext context) {
+        int interactions = context == null ? 0 : context.interactions().size();
+        String tier = interactions == 0 ? "cold"
+                : interactions < settings.activeInteractions() ? "casual" : "active";
+        return scene + ":" + tier;
+    }
+
+    private StrategyStats statsOf(String segment, StrategyId id) {
+        return stats.computeIfAbsent(new StatsKey(segment, id), key -> new StrategyStats(settings.window()));
+    }
+
+    /**
+     * 统计每个策略在候选列表中出现的次数 [命中, 独占]，来源取融合写入的 {@code _sources}。
+     */
+    private static Map<StrategyId, int[]> countSources(List<ItemCandidate> candidates) {
+        Map<StrategyId, int[]> counts = new EnumMap<>(StrategyId.class);
+        for (ItemCandidate candidate : candidates) {
+            List<StrategyId> sources = sourcesOf(candidate);
+            for (StrategyId source : sources) {
+                int[] count = counts.computeIfAbsent(source, key -> new int[2]);
+                count[0]++;
+                if (sources.size() == 1) {
+                    count[1]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static List<StrategyId> sourcesOf(ItemCandidate candidate) {
+        if (candidate.attributes().get("_sources") instanceof Collection<?> names && !names.isEmpty()) {
+            List<StrategyId> sources = new ArrayList<>(names.size());
+            for (Object name : names) {
+                try {
+                    sources.add(StrategyId.valueOf(String.valueOf(name)));
+                } catch (IllegalArgumentException ignored) {
+                    // 未知来源不计入统计
+                }
+            }
+            return sources;
+        }
+        return candidate.source() == StrategyId.MIX ? List.of() : List.of(candidate.source());
+    }
+
+    /**
+     * 自适应计划参数。
+     *
+     * @param window             每个（分群, 策略）保留的最近观测次数
+     * @param minSamples         开始自适应前需要的最少观测次数
+     * @param latencyScale       时延惩罚尺度，耗时等于该值时价值减半
+     * @param uniqueWeight       独占贡献率的权重
+     * @param servedWeight       首页展示率的权重
+     * @param skipThreshold      独占率与展示率之和低于该值的策略被跳过
+     * @param explorationRate    被跳过的策略仍以最小配额执行的概率
+     * @param minQuota           参与召回的策略的最小配额
+     * @param maxShare           单个策略最多占用的配额比例
+     * @param activeInteractions 达到该交互数的用户视为活跃用户
+     */
+    public record Settings(int window,
+                           int minSamples,
+                           Duration latencyScale,
+                           double uniqueWeight,
+                           double servedWeight,
+                           double skipThreshold,
+                           double explorationRate,
+                           int minQuota,
+                           double maxShare,
+                           int activeInteractions) {
+    }
+
+    public record StrategySnapshot(int samples,
+                                   double meanQuota,
+                                   double meanLatencyMs,
+                                   double survivalRate,
+                                   double uniqueRate,
+                                   double servedRate,
+                                   String lastDecision) {
+    }
+
+    private record StatsKey(String segment, StrategyId strategy) {
+    }
+
+    private record Yield(double survival, double unique, double served, double latencyMs) {
+
+        double marginal() {
+            return unique + served;
+        }
+
+        double value(Settings settings) {
+            double latencyScaleMs = Math.max(1d, settings.latencyScale().toMillis());
+            return (survival + settings.uniqueWeight() * unique + settings.servedWeight() * served)
+                    / (1d + latencyMs / latencyScaleMs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "survival=%.3f unique=%.3f served=%.3f latency=%.0fms",
+                    survival, unique, served, latencyMs);
+        }
+    }
+
+    private static final class StrategyStats {
+
+        private final RollingWindow recall;
+        private final RollingWindow served;
+        private volatile String lastDecision;
+
+        private StrategyStats(int window) {
+            this.recall = new RollingWindow(window, 4);
+            this.served = new RollingWindow(window, 1);
+        }
+
+        /**
+         * 各比例均以平均配额为分母，即每申请一个候选带来的产出。
+         */
+        private Yield observedYield() {
+            double quota = Math.max(1d, recall.mean(QUOTA));
+            double survival = recall.mean(SURVIVED) / quota;
+            double unique = recall.mean(UNIQUE) / quota;
+            // 尚无展示反馈时以进入融合结果的比例近似
+            double servedRate = served.count() == 0 ? survival : served.mean(0) / quota;
+            return new Yield(survival, unique, servedRate, recall.mean(LATENCY));
+        }
+
+        private StrategySnapshot snapshot() {
+            Yield yield = observedYield();
+            return new StrategySnapshot(recall.count(), recall.mean(QUOTA), yield.latencyMs(),
+                    yield.survival(), yield.unique(), yield.served(), lastDecision);
+        }
+    }
+}
@@ -10,7 +10,6 @@ import org.bitmagic.ifeed.infrastructure.FreshnessCalculatorUtils;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 默认召回融合逻辑
@@ -19,6 +18,8 @@ import java.util.stream.Collectors;
  * - 不依赖各通道分数可比性，只看排名位置
  * - 多通道命中的 item 获得加成
  * - 支持通道权重、新鲜度加权、多样化约束
+ *
+ * 中间结果以物品槽位上的原始类型数组保存，只为最终返回的 topK 个物品构建 {@link ItemCandidate}、attributes 与 reason。
  */
 public class DefaultRecallFusion implements RecallFusion {
 
@@ -63,40 +64,46 @@ public class DefaultRecallFusion implements RecallFusion {
         }
 
         // 1. RRF 融合
-        List<ItemCandidate> fused = reciprocalRankFusion(channelResults, context);
+        FusionTable table = reciprocalRankFusion(channelResults, context);
 
-        if (fused.isEmpty()) {
+        if (table.size == 0) {
             return List.of();
         }
 
         // 2. 应用新鲜度加权
-        List<ItemCandidate> adjusted = applyFreshness(fused, context);
+        double[] scores = applyFreshness(table, context);
 
         // 3. 按最终得分排序
-        List<ItemCandidate> sorted = new ArrayList<>(adjusted);
-        sorted.sort(Comparator.comparingDouble(ItemCandidate::score).reversed());
+        int[] sorted = sortByScore(scores, table.size);
 
         // 4. 应用多样化约束
-        List<ItemCandidate> diversified = context.config().hasDiversity()
-                ? applyDiversity(sorted, context)
-                : sorted;
-
-        // 5. 截取最终结果
-        int limit = Math.min(context.config().topK(), diversified.size());
-        return diversified.subList(0, limit);
+        int limit = Math.min(context.config().topK(), sorted.length);
+        int[] selected = context.config().hasDiversity()
+                ? applyDiversity(table, sorted, context)
+                : Arrays.copyOf(sorted, Math.max(0, limit));
+
+        // 5. 只为最终结果构建候选对象
+        List<ItemCandidate> result = new ArrayList<>(selected.length);
+        for (int slot : selected) {
+            result.add(table.materialize(slot, scores[slot]));
+        }
+        return result;
     }
 
     /**
      * RRF（Reciprocal Rank Fusion）融合
+     * <p>
+     * 每个物品占用一个槽位，得分、最高分候选、来源位图与 reason 链表都存放在按槽位索引的并行数组中。
      */
-    private List<ItemCandidate> reciprocalRankFusion(
+    private FusionTable reciprocalRankFusion(
             Map<StrategyId, List<ItemCandidate>> channelResults,
             FusionContext context) {
 
-        Map<Long, Double> rrfScores = new HashMap<>();
-        Map<Long, ItemCandidate> candidateMap = new HashMap<>();
-        Map<Long, Set<StrategyId>> sourcesMap = new HashMap<>();
-        Map<Long, List<String>> reasonsMap = new HashMap<>();
+        int capacity = 0;
+        for (List<ItemCandidate> items : channelResults.values()) {
+            capacity += items == null ? 0 : items.size();
+        }
+        FusionTable table = new FusionTable(capacity);
 
         for (Map.Entry<StrategyId, List<ItemCandidate>> entry : channelResults.entrySet()) {
             StrategyId channel = entry.getKey();
@@ -107,158 +114,140 @@ public class DefaultRecallFusion implements RecallFusion {
             }
 
             double channelWeight = context.config().weightOf(channel);
+            int channelBit = 1 << channel.ordinal();
 
             for (int rank = 0; rank < items.size(); rank++) {
                 ItemCandidate item = items.get(rank);
-                long itemId = item.itemId();
+                int slot = table.slotOf(item.itemId());
 
                 // RRF 公式
-                double positionScore = channelWeight / (rrfK + rank + 1);
-                rrfScores.merge(itemId, positionScore, Double::sum);
+                table.rrf[slot] += channelWeight / (rrfK + rank + 1);
 
                 // 保留最高分的候选项版本
-                ItemCandidate existing = candidateMap.get(itemId);
+                ItemCandidate existing = table.best[slot];
                 if (existing == null || item.score() > existing.score()) {
-                    candidateMap.put(itemId, item);
+                    table.best[slot] = item;
                 }
 
                 // 记录来源通道
-                sourcesMap.computeIfAbsent(itemId, id -> new HashSet<>()).add(channel);
+                table.sources[slot] |= channelBit;
 
                 // 收集 reason
                 if (item.reason() != null && !item.reason().isBlank()) {
-                    reasonsMap.computeIfAbsent(itemId, id -> new ArrayList<>()).add(item.reason());
+                    table.addReason(slot, item.reason());
                 }
             }
         }
 
-        if (rrfScores.isEmpty()) {
-            return List.of();
-        }
-
-        // 按 RRF 分数排序
-        List<Map.Entry<Long, Double>> sorted = new ArrayList<>(rrfScores.entrySet());
-        sorted.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
-
-        // 构建结果
-        List<ItemCandidate> result = new ArrayList<>();
-        for (Map.Entry<Long, Double> entry : sorted) {
-            long itemId = entry.getKey();
-            double rrfScore = entry.getValue();
-            ItemCandidate original = candidateMap.get(itemId);
-            Set<StrategyId> sources = sourcesMap.get(itemId);
-            List<String> reasons = reasonsMap.get(itemId);
-
-            // 构建新的 attributes
-            Map<String, Object> attrs = new HashMap<>(original.attributes());
-            if (sources != null && !sources.isEmpty()) {
-                attrs.put("_sources", sources.stream().map(Enum::name).toList());
-                attrs.put("_sourceCount", sources.size());
-            }
-            attrs.put("_originalScore", original.score());
-
-            // 合并 reason
-            String mergedReason = mergeReasons(reasons, sources);
-
-            result.add(new ItemCandidate(
-                    itemId,
-                    rrfScore,
-                    sources != null && sources.size() > 1 ? StrategyId.MIX : original.source(),
-                    mergedReason,
-                    attrs
-            ));
-        }
-
-        return result;
+        return table;
     }
 
     /**
-     * 合并多来源的 reason
+     * 应用新鲜度加权，返回按槽位索引的最终得分
      */
-    private String mergeReasons(List<String> reasons, Set<StrategyId> sources) {
-        if (reasons == null || reasons.isEmpty()) {
-            if (sources != null && sources.size() > 1) {
-                return "多通道召回: " + sources.stream().map(Enum::name).collect(Collectors.joining(", "));
-            }
-            return null;
-        }
-
-        if (reasons.size() == 1) {
-            return reasons.get(0);
-        }
-
-        // 去重并合并
-        return reasons.stream()
-                .distinct()
-                .collect(Collectors.joining("; "));
-    }
-
-    /**
-     * 应用新鲜度加权
-     */
-    private List<ItemCandidate> applyFreshness(List<ItemCandidate> candidates, FusionContext context) {
-        if (candidates.isEmpty() || freshnessWeight <= 0.0d) {
-            return candidates;
+    private double[] applyFreshness(FusionTable table, FusionContext context) {
+        double[] rrf = table.rrf;
+        if (freshnessWeight <= 0.0d) {
+            return rrf;
         }
 
-        Set<Long> ids = candidates.stream()
-                .map(ItemCandidate::itemId)
-                .collect(Collectors.toSet());
-
-        if (ids.isEmpty()) {
-            return candidates;
-        }
+        long[] itemIds = table.itemIds;
+        int size = table.size;
+        Map<Long, Instant> publishTimes = freshnessProvider.publishedAt(new AbstractList<>() {
+            @Override
+            public Long get(int index) {
+                return itemIds[index];
+            }
 
-        Map<Long, Instant> publishTimes = freshnessProvider.publishedAt(ids);
+            @Override
+            public int size() {
+                return size;
+            }
+        });
         Instant referenceTime = resolveReferenceTime(context);
 
         // 归一化 RRF 分数
-        double maxRrf = candidates.stream().mapToDouble(ItemCandidate::score).max().orElse(1.0d);
-        double minRrf = candidates.stream().mapToDouble(ItemCandidate::score).min().orElse(0.0d);
+        double maxRrf = Double.NEGATIVE_INFINITY;
+        double minRrf = Double.POSITIVE_INFINITY;
+        for (int slot = 0; slot < size; slot++) {
+            maxRrf = Math.max(maxRrf, rrf[slot]);
+            minRrf = Math.min(minRrf, rrf[slot]);
+        }
         double rrfRange = maxRrf - minRrf;
 
-        List<ItemCandidate> adjusted = new ArrayList<>(candidates.size());
-
-        for (ItemCandidate candidate : candidates) {
+        double[] adjusted = new double[size];
+        for (int slot = 0; slot < size; slot++) {
             double normalizedRrf = (rrfRange > 1e-9)
-                    ? (candidate.score() - minRrf) / rrfRange
+                    ? (rrf[slot] - minRrf) / rrfRange
                     : 1.0d;
 
-            Instant publishedAt = publishTimes.get(candidate.itemId());
+            Instant publishedAt = publishTimes.isEmpty() ? null : publishTimes.get(itemIds[slot]);
             double freshnessScore = (publishedAt == null)
                     ? defaultFreshnessScore
                     : clamp(computeFreshnessScore(publishedAt, referenceTime), 0.0d, 1.0d);
 
-            double combined = normalizedRrf * (1.0d - freshnessWeight) + freshnessScore * freshnessWeight;
-            adjusted.add(candidate.withScore(combined));
+            adjusted[slot] = normalizedRrf * (1.0d - freshnessWeight) + freshnessScore * freshnessWeight;
         }
 
         return adjusted;
     }
 
+    /**
+     * 槽位按得分降序排列（归并排序，稳定：同分时先出现的物品在前）
+     */
+    private static int[] sortByScore(double[] scores, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int lo = 0; lo < size - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), size);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    buffer[k++] = scores[order[j]] > scores[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, lo, order, lo, hi - lo);
+            }
+        }
+        return order;
+    }
+
     /**
      * 多样化过滤
      */
-    private List<ItemCandidate> applyDiversity(List<ItemCandidate> candidates, FusionContext context) {
+    private int[] applyDiversity(FusionTable table, int[] sorted, FusionContext context) {
         DiversityConfig config = context.config().diversityConfig();
+        int max = Math.max(0, Math.min(context.config().topK(), sorted.length));
         if (config == null || !config.enabled()) {
-            return candidates;
+            return Arrays.copyOf(sorted, max);
         }
 
         Map<String, Integer> counts = new HashMap<>();
-        List<ItemCandidate> accepted = new ArrayList<>();
-        List<ItemCandidate> overflow = new ArrayList<>();
-        int max = context.config().topK();
+        int[] accepted = new int[max];
+        int acceptedCount = 0;
+        int[] overflow = new int[sorted.length];
+        int overflowCount = 0;
 
-        for (ItemCandidate candidate : candidates) {
-            if (accepted.size() >= max) {
+        for (int slot : sorted) {
+            if (acceptedCount >= max) {
                 break;
             }
 
-            Object attrValue = candidate.attributes().get(config.attributeKey());
+            Object attrValue = table.attribute(slot, config.attributeKey());
 
             if (attrValue == null) {
-                accepted.add(candidate);
+                accepted[acceptedCount++] = slot;
                 continue;
             }
 
@@ -266,24 +255,21 @@ public class DefaultRecallFusion implements RecallFusion {
             int current = counts.getOrDefault(bucket, 0);
 
             if (current >= config.maxPerAttribute()) {
-                overflow.add(candidate);
+                overflow[overflowCount++] = slot;
                 continue;
             }
 
             counts.put(bucket, current + 1);
-            accepted.add(candidate);
+            accepted[acceptedCount++] = slot;
         }
 
-        if (config.fillOverflow() && accepted.size() < max) {
-            for (ItemCandidate candidate : overflow) {
-                if (accepted.size() >= max) {
-                    break;
-                }
-                accepted.add(candidate);
+        if (config.fillOverflow()) {
+            for (int i = 0; i < overflowCount && acceptedCount < max; i++) {
+                accepted[acceptedCount++] = overflow[i];
             }
         }
 
-        return accepted;
+        return acceptedCount == max ? accepted : Arrays.copyOf(accepted, acceptedCount);
     }
 
     private Instant resolveReferenceTime(FusionContext context) {
@@ -310,4 +296,122 @@ public class DefaultRecallFusion implements RecallFusion {
         }
         return Math.max(min, Math.min(max, value));
     }
-}
\ No newline at end of file
+
+    /**
+     * 融合中间状态：按槽位索引的并行数组，容量为各通道候选数之和，融合过程中不再扩容。
+     */
+    private static final class FusionTable {
+
+        private static final StrategyId[] STRATEGIES = StrategyId.values();
+
+        private final LongSlotMap index;
+        private final long[] itemIds;
+        private final double[] rrf;
+        private final ItemCandidate[] best;
+        private final int[] sources;
+        private final int[] reasonHead;
+        private final int[] reasonTail;
+        private final String[] reasonValues;
+        private final int[] reasonNext;
+        private int reasonCount;
+        private int size;
+
+        private FusionTable(int capacity) {
+            this.index = new LongSlotMap(capacity);
+            this.itemIds = new long[capacity];
+            this.rrf = new double[capacity];
+            this.best = new ItemCandidate[capacity];
+            this.sources = new int[capacity];
+            this.reasonHead = new int[capacity];
+            this.reasonTail = new int[capacity];
+            this.reasonValues = new String[capacity];
+            this.reasonNext = new int[capacity];
+            Arrays.fill(reasonHead, -1);
+        }
+
+        private int slotOf(long itemId) {
+            int slot = index.slotOf(itemId);
+            if (slot == size) {
+                itemIds[slot] = itemId;
+                size++;
+            }
+            return slot;
+        }
+
+        private void addReason(int slot, String reason) {
+            int node = reasonCount++;
+            reasonValues[node] = reason;
+            reasonNext[node] = -1;
+            if (reasonHead[slot] < 0) {
+                reasonHead[slot] = node;
+            } else {
+                reasonNext[reasonTail[slot]] = node;
+            }
+            reasonTail[slot] = node;
+        }
+
+        /**
+         * 与 {@link #materialize} 生成的 attributes 保持一致，但不创建候选对象。
+         */
+        private Object attribute(int slot, String key) {
+            return switch (key) {
+                case "_sources" -> sourceNames(slot);
+                case "_sourceCount" -> Integer.bitCount(sources[slot]);
+                case "_originalScore" -> best[slot].score();
+                default -> best[slot].attributes().get(key);
+            };
+        }
+
+        private ItemCandidate materialize(int slot, double score) {
+            ItemCandidate original = best[slot];
+            int sourceCount = Integer.bitCount(sources[slot]);
+
+            // 构建新的 attributes
+            Map<String, Object> attrs = new HashMap<>(original.attributes());
+            List<String> sourceNames = sourceNames(slot);
+            attrs.put("_sources", sourceNames);
+            attrs.put("_sourceCount", sourceCount);
+            attrs.put("_originalScore", original.score());
+
+            return new ItemCandidate(
+                    itemIds[slot],
+                    score,
+                    sourceCount > 1 ? StrategyId.MIX : original.source(),
+                    mergeReasons(slot, sourceNames),
+                    attrs
+            );
+        }
+
+        private List<String> sourceNames(int slot) {
+            List<String> names = new ArrayList<>(Integer.bitCount(sources[slot]));
+            for (int mask = sources[slot]; mask != 0; mask &= mask - 1) {
+                names.add(STRATEGIES[Integer.numberOfTrailingZeros(mask)].name());
+            }
+            return names;
+        }
+
+        /**
+         * 合并多来源的 reason
+         */
+        private String mergeReasons(int slot, List<String> sourceNames) {
+            int node = reasonHead[slot];
+            if (node < 0) {
+                if (sourceNames.size() > 1) {
+                    return "多通道召回: " + String.join(", ", sourceNames);
+                }
+                return null;
+            }
+
+            if (reasonNext[node] < 0) {
+                return reasonValues[node];
+            }
+
+            // 去重并合并
+            Set<String> distinct = new LinkedHashSet<>();
+            for (; node >= 0; node = reasonNext[node]) {
+                distinct.add(reasonValues[node]);
+            }
+            return String.join("; ", distinct);
+        }
+    }
+}
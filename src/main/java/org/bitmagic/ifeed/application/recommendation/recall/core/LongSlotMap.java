@@ -0,0 +1,78 @@
+package org.bitmagic.ifeed.application.recommendation.recall.core;
+
+import java.util.Arrays;
+
+/**
+ * long → 稠密下标的开放寻址哈希表（线性探测），用于融合阶段把物品 ID 映射到并行数组的槽位，避免装箱。
+ * <p>
+ * 槽位按首次出现的顺序从 0 递增分配，不支持删除。非线程安全，每次融合新建一个实例。
+ */
+final class LongSlotMap {
+
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    LongSlotMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 返回 key 的槽位，不存在时分配下一个槽位（等于插入前的 {@link #size()}）。
+     */
+    int slotOf(long key) {
+        int index = mix(key) & mask;
+        while (true) {
+            int slot = slots[index];
+            if (slot == EMPTY) {
+                slots[index] = size;
+                keys[index] = key;
+                if (++size * 2 > slots.length) {
+                    rehash();
+                }
+                return size - 1;
+            }
+            if (keys[index] == key) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        allocate(oldSlots.length << 1);
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == EMPTY) {
+                continue;
+            }
+            int index = mix(oldKeys[i]) & mask;
+            while (slots[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = oldSlots[i];
+            keys[index] = oldKeys[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,5 +1,8 @@
 package org.bitmagic.ifeed.application.recommendation.recall.core;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.application.recommendation.recall.model.*;
@@ -10,12 +13,19 @@ import java.time.Duration;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * 多路召回调度引擎，负责并发执行各策略并完成结果融合。
+ * <p>
+ * 每个策略在 {@link RecallBudget} 给定的时延预算内执行，超时或失败的通道被丢弃并记录在响应中，
+ * 融合只使用按时成功返回的通道；超时的调用会被取消（中断执行中的任务），不再占用召回线程。
+ * 可对冲的策略在执行超过对冲延迟后会并发发起第二次调用，取先成功者并取消另一次。
+ * 各策略耗时与召回数量记录为 {@code recall.strategy.latency} / {@code recall.strategy.yield}，整体耗时记录为 {@code recall.latency}。
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -27,6 +37,8 @@ public class RecallEngine {
     private final UserContextFactory contextFactory;
     private final Executor executor;
     private final ArticleRepository articleRepository;
+    private final RecallBudget budget;
+    private final MeterRegistry meterRegistry;
     private final AdaptiveScoreMapper adaptiveScoreMapper = new AdaptiveScoreMapper();
 
     public RecallResponse recall(RecallRequest request) {
@@ -34,27 +46,27 @@ public class RecallEngine {
 
         // 构建用户上下文并生成召回计划
         UserContext context = contextFactory.create(request);
-        RecallPlan plan = planner.plan(request, registry.available(request.scene()));
+        RecallPlan plan = planner.plan(request, context, registry.available(request.scene()));
         Map<StrategyId, CompletableFuture<List<ItemCandidate>>> futures = new EnumMap<>(StrategyId.class);
+        Map<StrategyId, String> dropped = new ConcurrentHashMap<>();
+        Map<StrategyId, Duration> latencies = new ConcurrentHashMap<>();
 
         plan.quotas().forEach((id, quota) -> {
             if (quota <= 0) {
                 return;
             }
-            // 各策略并发执行，异常时降级为空结果
-            futures.put(id, CompletableFuture.supplyAsync(() -> {
-                        long start0 = System.currentTimeMillis();
-                        List<ItemCandidate> list = registry.get(id).recall(context, quota);
-                        log.info("{} time: {}ms quota:{} size:{}", id, System.currentTimeMillis() - start0, quota, list.size());
-                        return list;
-                    }, executor)
-                    .exceptionally(ex -> {
-                        log.warn("Recall strategy {} failed: {}", id, ex.getMessage());
-                        return List.of();
-                    }));
+            // 各策略并发执行，失败的通道在等待结果时丢弃
+            futures.put(id, budget.shouldHedge(id)
+                    ? executeHedged(id, context, quota, latencies)
+                    : execute(id, context, quota, latencies));
         });
+        // 所有策略共享同一起点，各自按预算等待，总等待时间不超过最大预算
         Map<StrategyId, List<ItemCandidate>> channelResults = new EnumMap<>(StrategyId.class);
-        futures.forEach((id, future) -> channelResults.put(id, future.join()));
+        futures.forEach((id, future) -> await(id, future, start, dropped, latencies)
+                .ifPresent(list -> channelResults.put(id, list)));
+        if (!dropped.isEmpty()) {
+            log.info("Recall strategies dropped: {}", dropped);
+        }
 
 //        channelResults.replaceAll((strategyId, list) -> {
 //            if (log.isDebugEnabled()) {
@@ -68,7 +80,199 @@ public class RecallEngine {
         // 将各通道结果交给融合层进行重排、多样化
         List<ItemCandidate> fused = fusion.fuse(channelResults, new FusionContext(request, plan.fusionConfig()));
         Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        recordMetrics(request.scene(), futures.keySet(), channelResults, dropped, latencies, latency);
+        planner.recordOutcome(new RecallOutcome(request, context, plan, channelResults, latencies, fused));
 
-        return new RecallResponse(fused, channelResults, context, latency, Map.of());
+        Map<String, Object> debugInfo = request.debug() && !plan.decisions().isEmpty()
+                ? Map.of("planDecisions", plan.decisions())
+                : Map.of();
+        return new RecallResponse(fused, channelResults, context, latency, dropped, debugInfo);
+    }
+
+    /**
+     * 回传重排后实际展示的首页候选，供计划器统计各策略的展示率。
+     */
+    public void recordServed(RecallResponse response, List<ItemCandidate> served) {
+        planner.recordServed(response, served);
+    }
+
+    /**
+     * 按策略记录耗时（ok/timeout/error）与召回数量，超时通道的耗时按预算计。
+     */
+    private void recordMetrics(String scene,
+                               Iterable<StrategyId> planned,
+                               Map<StrategyId, List<ItemCandidate>> channelResults,
+                               Map<StrategyId, String> dropped,
+                               Map<StrategyId, Duration> latencies,
+                               Duration total) {
+        String sceneTag = Objects.requireNonNullElse(scene, "default");
+        for (StrategyId id : planned) {
+            List<ItemCandidate> list = channelResults.get(id);
+            // 先看丢弃原因，再按是否有结果判定成功
+            String reason = dropped.get(id);
+            String outcome = reason == null ? (list != null ? "ok" : "error")
+                    : reason.startsWith("timeout") ? "timeout" : "error";
+            Duration elapsed = latencies.get(id);
+            if (elapsed != null) {
+                Timer.builder("recall.strategy.latency")
+                        .description("Recall latency per strategy")
+                        .tag("strategy", id.name())
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(elapsed);
+            }
+            DistributionSummary.builder("recall.strategy.yield")
+                    .description("Candidates returned per strategy")
+                    .baseUnit("items")
+                    .tag("strategy", id.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(list == null ? 0 : list.size());
+        }
+        Timer.builder("recall.latency")
+                .description("End-to-end recall latency")
+                .tag("scene", sceneTag)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(total);
+    }
+
+    /**
+     * 在召回线程池上执行一次策略调用；返回的 future 被取消时，排队中的任务不再执行，执行中的任务被中断。
+     * 失败的调用同样记录耗时，计划器据此把失败计为有时延、无产出；耗时在完成 future 之前写入，等待方醒来时一定可见。
+     */
+    private CompletableFuture<List<ItemCandidate>> execute(StrategyId id, UserContext context, int quota,
+                                                           Map<StrategyId, Duration> latencies) {
+        CompletableFuture<List<ItemCandidate>> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            long start0 = System.nanoTime();
+            List<ItemCandidate> list;
+            try {
+                list = registry.get(id).recall(context, quota);
+            } catch (Throwable ex) {
+                recordLatency(id, start0, result, latencies);
+                result.completeExceptionally(ex);
+                return;
+            }
+            recordLatency(id, start0, result, latencies);
+            log.info("{} time: {}ms quota:{} size:{}", id, (System.nanoTime() - start0) / 1_000_000, quota, list.size());
+            result.complete(list);
+        }, null);
+        result.whenComplete((list, ex) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * 已被取消（超时或对冲落败）的调用不再写入耗时，避免覆盖等待方记录的预算或胜出调用的耗时。
+     */
+    private static void recordLatency(StrategyId id, long startNanos,
+                                      CompletableFuture<List<ItemCandidate>> result,
+                                      Map<StrategyId, Duration> latencies) {
+        if (!result.isDone()) {
+            latencies.put(id, Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * 对冲执行：主调用超过对冲延迟仍未完成时发起第二次调用，先成功者生效并取消另一次，两次都失败才视为失败；
+     * 结果被取消（超时）时两次调用一并取消。每次调用的耗时先记在各自的表中，只有决定结果的那次写入 latencies。
+     */
+    private CompletableFuture<List<ItemCandidate>> executeHedged(StrategyId id, UserContext context, int quota,
+                                                                 Map<StrategyId, Duration> latencies) {
+        CompletableFuture<List<ItemCandidate>> result = new CompletableFuture<>();
+        List<CompletableFuture<List<ItemCandidate>>> attempts = new CopyOnWriteArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger(1);
+        result.whenComplete((list, ex) -> {
+            if (result.isCancelled()) {
+                attempts.forEach(attempt -> attempt.cancel(true));
+            }
+        });
+        launch(id, context, quota, attempts, inFlight, result, latencies);
+
+        Executor delayed = CompletableFuture.delayedExecutor(budget.hedgeDelay().toNanos(), TimeUnit.NANOSECONDS, executor);
+        CompletableFuture.runAsync(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            log.debug("Hedging slow recall strategy {}", id);
+            launch(id, context, quota, attempts, inFlight, result, latencies);
+        }, delayed);
+        return result;
+    }
+
+    private void launch(StrategyId id, UserContext context, int quota,
+                        List<CompletableFuture<List<ItemCandidate>>> attempts,
+                        AtomicInteger inFlight,
+                        CompletableFuture<List<ItemCandidate>> result,
+                        Map<StrategyId, Duration> latencies) {
+        Map<StrategyId, Duration> elapsed = new ConcurrentHashMap<>(1);
+        CompletableFuture<List<ItemCandidate>> attempt = execute(id, context, quota, elapsed);
+        attempts.add(attempt);
+        attempt.whenComplete((list, ex) -> {
+            // 写入耗时与完成结果在同一把锁内，并发完成的另一次调用不会覆盖胜出者的耗时
+            synchronized (result) {
+                if (result.isDone() || (ex != null && inFlight.decrementAndGet() > 0)) {
+                    return;
+                }
+                Duration duration = elapsed.get(id);
+                if (duration != null) {
+                    latencies.put(id, duration);
+                }
+                if (ex == null) {
+                    result.complete(list);
+                } else {
+                    result.completeExceptionally(ex);
+                }
+            }
+            if (ex == null) {
+                attempts.forEach(other -> other.cancel(true));
+            }
+        });
+        // 登记前结果已确定（超时取消或另一次已成功）时，本次调用不再需要
+        if (result.isDone()) {
+            attempt.cancel(true);
+        }
+    }
+
+    private Optional<List<ItemCandidate>> await(StrategyId id,
+                                                CompletableFuture<List<ItemCandidate>> future,
+                                                long startNanos,
+                                                Map<StrategyId, String> dropped,
+                                                Map<StrategyId, Duration> latencies) {
+        Duration limit = budget.budgetOf(id);
+        try {
+            if (limit == null) {
+                return Optional.of(future.get());
+            }
+            long remaining = startNanos + limit.toNanos() - System.nanoTime();
+            return Optional.of(future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException ex) {
+            // 取消超时的调用，释放召回线程，耗时按预算计
+            future.cancel(true);
+            dropped.put(id, "timeout after " + limit.toMillis() + "ms");
+            latencies.put(id, limit);
+            return Optional.empty();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            dropped.put(id, "interrupted");
+            return Optional.empty();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            log.warn("Recall strategy {} failed: {}", id, cause.getMessage());
+            dropped.put(id, "error: " + cause.getMessage());
+            return Optional.empty();
+        }
     }
 }
@@ -1,10 +1,9 @@
 package org.bitmagic.ifeed.application.recommendation.recall.core;
 
-import org.bitmagic.ifeed.application.recommendation.recall.model.RecallPlan;
-import org.bitmagic.ifeed.application.recommendation.recall.model.RecallRequest;
-import org.bitmagic.ifeed.application.recommendation.recall.model.StrategyId;
+import org.bitmagic.ifeed.application.recommendation.recall.model.*;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * 根据请求与可用策略确定各通道的召回配额及融合配置。
@@ -12,4 +11,23 @@ import java.util.Collection;
 public interface RecallPlanner {
 
     RecallPlan plan(RecallRequest request, Collection<StrategyId> availableStrategies);
+
+    /**
+     * 结合用户上下文生成计划，默认忽略上下文。
+     */
+    default RecallPlan plan(RecallRequest request, UserContext context, Collection<StrategyId> availableStrategies) {
+        return plan(request, availableStrategies);
+    }
+
+    /**
+     * 召回完成后回传各通道的时延与融合结果。
+     */
+    default void recordOutcome(RecallOutcome outcome) {
+    }
+
+    /**
+     * 重排后实际展示给用户的首页候选。
+     */
+    default void recordServed(RecallResponse response, List<ItemCandidate> served) {
+    }
 }
@@ -0,0 +1,38 @@
+package org.bitmagic.ifeed.application.recommendation.recall.core;
+
+/**
+ * 定长滑动窗口：保留最近 capacity 次观测的若干指标，并维护各指标的累加和，均值查询为 O(1)。
+ */
+final class RollingWindow {
+
+    private final double[][] samples;
+    private final double[] sums;
+    private int next;
+    private int count;
+
+    RollingWindow(int capacity, int metrics) {
+        this.samples = new double[Math.max(1, capacity)][metrics];
+        this.sums = new double[metrics];
+    }
+
+    synchronized void add(double... values) {
+        double[] slot = samples[next];
+        for (int i = 0; i < sums.length; i++) {
+            if (count == samples.length) {
+                sums[i] -= slot[i];
+            }
+            slot[i] = values[i];
+            sums[i] += values[i];
+        }
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    synchronized double mean(int metric) {
+        return count == 0 ? 0d : sums[metric] / count;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+}
@@ -0,0 +1,40 @@
+package org.bitmagic.ifeed.application.recommendation.recall.model;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 召回通道的时延预算：每个策略在预算内未返回则被丢弃，融合只使用按时完成的通道。
+ *
+ * @param defaultBudget 未单独配置的策略使用的预算，为空或非正数表示不限时
+ * @param budgets       按策略覆盖的预算
+ * @param hedgeDelay    对冲延迟，策略执行超过该时长仍未返回时并发发起第二次调用，取先完成者；为空表示不对冲
+ * @param hedged        允许对冲的策略（应为幂等、只读的通道）
+ */
+public record RecallBudget(Duration defaultBudget,
+                           Map<StrategyId, Duration> budgets,
+                           Duration hedgeDelay,
+                           Set<StrategyId> hedged) {
+
+    public RecallBudget {
+        budgets = budgets == null ? Map.of() : Map.copyOf(budgets);
+        hedged = hedged == null ? Set.of() : Set.copyOf(hedged);
+    }
+
+    public static RecallBudget unlimited() {
+        return new RecallBudget(null, Map.of(), null, Set.of());
+    }
+
+    /**
+     * 策略的预算，返回 null 表示不限时。
+     */
+    public Duration budgetOf(StrategyId id) {
+        Duration budget = budgets.getOrDefault(id, defaultBudget);
+        return budget == null || budget.isZero() || budget.isNegative() ? null : budget;
+    }
+
+    public boolean shouldHedge(StrategyId id) {
+        return hedgeDelay != null && hedgeDelay.isPositive() && hedged.contains(id);
+    }
+}
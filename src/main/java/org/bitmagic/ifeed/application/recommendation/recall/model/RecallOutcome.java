@@ -0,0 +1,17 @@
+package org.bitmagic.ifeed.application.recommendation.recall.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次召回执行的结果摘要，回传给计划器用于统计各策略的时延与产出。
+ * latencies 为各通道实际耗时，超时通道记为其预算。
+ */
+public record RecallOutcome(RecallRequest request,
+                            UserContext context,
+                            RecallPlan plan,
+                            Map<StrategyId, List<ItemCandidate>> channelResults,
+                            Map<StrategyId, Duration> latencies,
+                            List<ItemCandidate> fused) {
+}
@@ -3,13 +3,19 @@ package org.bitmagic.ifeed.application.recommendation.recall.model;
 import java.util.Map;
 
 /**
- * 各召回通道的配额计划以及对应的融合配置。
+ * 各召回通道的配额计划以及对应的融合配置，decisions 记录计划器对各通道的分配依据（可为空）。
  */
 public record RecallPlan(Map<StrategyId, Integer> quotas,
-                         FusionConfig fusionConfig) {
+                         FusionConfig fusionConfig,
+                         Map<StrategyId, String> decisions) {
 
     public RecallPlan {
         quotas = Map.copyOf(quotas);
+        decisions = decisions == null ? Map.of() : Map.copyOf(decisions);
+    }
+
+    public RecallPlan(Map<StrategyId, Integer> quotas, FusionConfig fusionConfig) {
+        this(quotas, fusionConfig, Map.of());
     }
 
     public int quota(StrategyId id) {
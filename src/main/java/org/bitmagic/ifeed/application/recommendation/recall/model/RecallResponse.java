@@ -7,22 +7,25 @@ import java.util.Objects;
 
 /**
  * 召回引擎返回值，包含融合后的候选集合以及各通道的原始结果。
+ * droppedStrategies 记录超时或失败而未参与融合的通道及原因。
  */
 public record RecallResponse(List<ItemCandidate> items,
                              Map<StrategyId, List<ItemCandidate>> channelResults,
                              UserContext userContext,
                              Duration latency,
+                             Map<StrategyId, String> droppedStrategies,
                              Map<String, Object> debugInfo) {
 
     public RecallResponse {
         items = List.copyOf(items);
         channelResults = Map.copyOf(channelResults);
         latency = latency == null ? Duration.ZERO : latency;
+        droppedStrategies = droppedStrategies == null ? Map.of() : Map.copyOf(droppedStrategies);
         debugInfo = debugInfo == null ? Map.of() : Map.copyOf(debugInfo);
     }
 
     public static RecallResponse empty() {
-        return new RecallResponse(List.of(), Map.of(), null, Duration.ZERO, Map.of());
+        return new RecallResponse(List.of(), Map.of(), null, Duration.ZERO, Map.of(), Map.of());
     }
 
     public RecallResponse withDebug(Map<String, Object> extra) {
@@ -31,6 +34,6 @@ public record RecallResponse(List<ItemCandidate> items,
         }
         Map<String, Object> merged = new java.util.HashMap<>(debugInfo);
         merged.putAll(extra);
-        return new RecallResponse(items, channelResults, userContext, latency, Map.copyOf(merged));
+        return new RecallResponse(items, channelResults, userContext, latency, droppedStrategies, Map.copyOf(merged));
     }
 }
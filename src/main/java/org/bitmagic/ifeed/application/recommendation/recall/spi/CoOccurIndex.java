@@ -1,6 +1,9 @@
 package org.bitmagic.ifeed.application.recommendation.recall.spi;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 物品与物品的共现关系索引（共购、共看等）。
@@ -8,4 +11,18 @@ import java.util.List;
 public interface CoOccurIndex {
 
     List<ScoredId> topRelated(Long itemId, int k);
+
+    /**
+     * 批量查询多个种子物品的相关物品，结果按种子的输入顺序排列，不含种子自身。
+     * 默认逐个调用 {@link #topRelated}，实现方应合并为一次批量查询。
+     */
+    default Map<Long, List<ScoredId>> topRelatedAll(Collection<Long> itemIds, int k) {
+        Map<Long, List<ScoredId>> results = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            if (itemId != null && !results.containsKey(itemId)) {
+                results.put(itemId, topRelated(itemId, k));
+            }
+        }
+        return results;
+    }
 }
@@ -1,7 +1,10 @@
 package org.bitmagic.ifeed.application.recommendation.recall.spi;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户交互序列存储接口，用于获取近期浏览或点击。
@@ -10,6 +13,20 @@ public interface SequenceStore {
 
     List<UserInteraction> recentInteractions(Integer userId, int limit);
 
+    /**
+     * 批量读取多个用户的近期交互，没有交互的用户不出现在结果中。默认逐个查询，实现方可合并为批量读取。
+     */
+    default Map<Integer, List<UserInteraction>> recentInteractions(Collection<Integer> userIds, int limit) {
+        Map<Integer, List<UserInteraction>> results = new HashMap<>();
+        for (Integer userId : userIds) {
+            List<UserInteraction> interactions = recentInteractions(userId, limit);
+            if (!interactions.isEmpty()) {
+                results.put(userId, interactions);
+            }
+        }
+        return results;
+    }
+
     record UserInteraction(long itemId,
                            String itemTitle,
                            double durationSeconds,
@@ -9,6 +9,14 @@ public interface UserPreferenceService {
 
     List<AttributePreference> topAttributes(Integer userId, int limit);
 
+    /**
+     * 用户画像版本号，画像每次变化都会递增，调用方可据此缓存基于画像的召回结果；
+     * 返回负数表示实现不支持版本，不应缓存。
+     */
+    default long profileVersion(Integer userId) {
+        return -1L;
+    }
+
     record AttributePreference(String attributeKey, String attributeValue, double weight) {
     }
 }
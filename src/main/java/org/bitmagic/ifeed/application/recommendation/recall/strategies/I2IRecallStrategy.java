@@ -60,19 +60,24 @@ public class I2IRecallStrategy implements RecallStrategy {
                 .limit(seedLimit)
                 .toList();
 
+        Map<Long, Double> seedWeights = new LinkedHashMap<>();
         for (int index = 0; index < seeds.size(); index++) {
             SequenceStore.UserInteraction seed = seeds.get(index);
             double baseWeight = seed.weight() > 0 ? seed.weight() : 1.0;
-            double seedWeight = baseWeight * Math.exp(-(double) index / Math.max(1, seedLimit));
-            // 按种子权重累加候选得分，过滤已点击历史
-            for (ScoredId neighbor : coOccurIndex.topRelated(seed.itemId(), perSeedLimit)) {
+            seedWeights.putIfAbsent(seed.itemId(), baseWeight * Math.exp(-(double) index / Math.max(1, seedLimit)));
+        }
+
+        // 所有种子的近邻一次批量查询，按种子权重累加候选得分，过滤已点击历史
+        coOccurIndex.topRelatedAll(seedWeights.keySet(), perSeedLimit).forEach((seedId, neighbors) -> {
+            double seedWeight = seedWeights.getOrDefault(seedId, 0d);
+            for (ScoredId neighbor : neighbors) {
                 long candidateId = neighbor.id();
                 if (history.contains(candidateId)) {
                     continue;
                 }
                 scores.merge(candidateId, neighbor.score() * seedWeight, Double::sum);
             }
-        }
+        });
 
         return scores.entrySet().stream()
                 .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
@@ -35,7 +35,10 @@ public class RandomI2IStrategy implements RecallStrategy {
     @Override
     public List<ItemCandidate> recall(UserContext context, int limit) {
         List<ScoredId> ls = itemProvider.ls(context, ItemProvider.ScoredLsType.RANDOM, limit);
-        int i = RandomUtils.secure().randomInt() % ls.size();
+        if (ls.isEmpty()) {
+            return List.of();
+        }
+        int i = RandomUtils.secure().randomInt(0, ls.size());
         return coOccurIndex.topRelated(ls.get(i).id(), limit).stream().map(this::toCandidate).toList();
     }
 
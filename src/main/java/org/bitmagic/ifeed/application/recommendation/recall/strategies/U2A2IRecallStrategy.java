@@ -1,5 +1,9 @@
 package org.bitmagic.ifeed.application.recommendation.recall.strategies;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.application.recommendation.recall.core.RecallStrategy;
 import org.bitmagic.ifeed.application.recommendation.recall.model.ItemCandidate;
@@ -12,6 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -26,12 +31,26 @@ public class U2A2IRecallStrategy implements RecallStrategy {
     private final InvertedIndex invertedIndex;
     private final int attributeLimit;
 
+    /**
+     * 按（用户、画像版本、条数）缓存召回结果，画像变化后版本递增自然失效。
+     */
+    private final Cache<ResultKey, List<ItemCandidate>> results;
+
     public U2A2IRecallStrategy(UserPreferenceService preferenceService,
                                InvertedIndex invertedIndex,
-                               @Value("${recall.u2a2i.attribute-limit:30}") int attributeLimit) {
+                               @Value("${recall.u2a2i.attribute-limit:30}") int attributeLimit,
+                               @Value("${recall.u2a2i.cache-ttl:PT30M}") Duration cacheTtl,
+                               @Value("${recall.u2a2i.cache-size:10000}") long cacheSize,
+                               MeterRegistry meterRegistry) {
         this.preferenceService = preferenceService;
         this.invertedIndex = invertedIndex;
         this.attributeLimit = Math.max(1, attributeLimit); // 至少为1
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "u2a2i-results");
     }
 
     @Override
@@ -45,6 +64,23 @@ public class U2A2IRecallStrategy implements RecallStrategy {
             return List.of();
         }
 
+        long version = preferenceService.profileVersion(context.userId());
+        if (version < 0) {
+            return recallByAttributes(context, limit);
+        }
+        ResultKey key = new ResultKey(context.userId(), version, limit);
+        List<ItemCandidate> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<ItemCandidate> recalled = recallByAttributes(context, limit);
+        if (!recalled.isEmpty()) {
+            results.put(key, recalled);
+        }
+        return recalled;
+    }
+
+    private List<ItemCandidate> recallByAttributes(UserContext context, int limit) {
         List<UserPreferenceService.AttributePreference> attributes =
                 preferenceService.topAttributes(context.userId(), attributeLimit);
 
@@ -64,4 +100,7 @@ public class U2A2IRecallStrategy implements RecallStrategy {
             return List.of();
         }
     }
+
+    private record ResultKey(Integer userId, long version, int limit) {
+    }
 }
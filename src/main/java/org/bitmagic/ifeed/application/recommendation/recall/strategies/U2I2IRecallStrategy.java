@@ -14,6 +14,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,17 +65,19 @@ public class U2I2IRecallStrategy implements RecallStrategy {
 
         Set<Long> history = Set.copyOf(context.recentItemIds());
         Map<Long, Double> merged = new HashMap<>();
-        for (ScoredId seed : seeds) {
-            double seedWeight = seed.score();
-            // 避免推荐已看内容，种子得分作为相似扩展的权重
-            for (ScoredId neighbor : coOccurIndex.topRelated(seed.id(), perSeedLimit)) {
+        Map<Long, Double> seedWeights = new LinkedHashMap<>();
+        seeds.forEach(seed -> seedWeights.putIfAbsent(seed.id(), seed.score()));
+        // 所有种子的近邻一次批量查询；避免推荐已看内容，种子得分作为相似扩展的权重
+        coOccurIndex.topRelatedAll(seedWeights.keySet(), perSeedLimit).forEach((seedId, neighbors) -> {
+            double seedWeight = seedWeights.getOrDefault(seedId, 0d);
+            for (ScoredId neighbor : neighbors) {
                 long candidateId = neighbor.id();
-                if (history.contains(candidateId) || neighbor.id() == seed.id()) {
+                if (history.contains(candidateId) || candidateId == seedId) {
                     continue;
                 }
                 merged.merge(candidateId, neighbor.score() * seedWeight, Double::sum);
             }
-        }
+        });
 
         return merged.entrySet().stream()
                 .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
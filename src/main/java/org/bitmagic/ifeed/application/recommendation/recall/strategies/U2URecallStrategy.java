@@ -18,7 +18,7 @@ import java.util.Set;
 /**
  * 用户到用户（U2U）召回：先找到相似用户，再聚合其高频物品。
  */
-//@Component
+@Component
 @ConditionalOnBean(UserNeighborFinder.class)
 public class U2URecallStrategy implements RecallStrategy {
 
@@ -1,5 +1,6 @@
 package org.bitmagic.ifeed.application.search;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.config.properties.SearchRetrievalProperties;
 import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
@@ -34,12 +35,13 @@ public class SearchRetrievalService {
     private final SearchRetrievalProperties properties;
     private final RetrievalPipeline retrievalPipeline;
 
-    public SearchRetrievalService(VectorStoreTurbo vectorStore, UserSubscriptionRepository userSubscriptionRepository, ArticleService articleService, TextSearchRetrievalHandler textSearchRetrievalHandler, SearchRetrievalProperties properties) {
+    public SearchRetrievalService(VectorStoreTurbo vectorStore, UserSubscriptionRepository userSubscriptionRepository, ArticleService articleService, TextSearchRetrievalHandler textSearchRetrievalHandler, SearchRetrievalProperties properties, MeterRegistry meterRegistry) {
         this.userSubscriptionRepository = userSubscriptionRepository;
         this.articleService = articleService;
         this.properties = properties;
-        this.retrievalPipeline = new MultiChannelRetrievalPipeline(properties.getFreshnessTimeWeight(), properties.getFreshnessLambda()).
-                addHandler(textSearchRetrievalHandler, properties.getBm25Weight())
+        this.retrievalPipeline = new MultiChannelRetrievalPipeline(properties.getFreshnessTimeWeight(), properties.getFreshnessLambda())
+                .metrics(meterRegistry, "search")
+                .addHandler(textSearchRetrievalHandler, properties.getBm25Weight())
                 .addHandler(new VectorRetrievalHandler(vectorStore, userSubscriptionRepository), properties.getVectorWeight());
     }
 
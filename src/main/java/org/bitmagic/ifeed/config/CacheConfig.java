@@ -1,29 +1,94 @@
 package org.bitmagic.ifeed.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.config.properties.CacheProperties;
 import org.bitmagic.ifeed.config.properties.RssFetcherProperties;
+import org.bitmagic.ifeed.domain.repository.UserRepository;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.*;
+
 /**
+ * 每个缓存独立配置容量与过期策略：字节类缓存按负载大小加权限制，热点读缓存可配置后台刷新。
+ *
  * @author yangrd
  * @date 2025/10/31
  **/
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    static final List<String> CACHE_NAMES = List.of(RssFetcherProperties.Cache.CACHE_NAME, "U2I", "U2I2I", "USERS", "ITEMS", "ARTICLE-COUNTS");
+
     @Bean
-    public CacheManager cacheManager(RssFetcherProperties properties) {
-        CaffeineCacheManager manager = new CaffeineCacheManager(RssFetcherProperties.Cache.CACHE_NAME, "USER-SESSIONS", "rss-feed-cache", "U2I", "U2I2I", "USERS", "ITEMS");
-        manager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(properties.getCache().getMaximumSize())
-                .expireAfterWrite(properties.getCache().getExpireAfterWrite())
-                .recordStats());  // Enable stats
+    public CacheManager cacheManager(CacheProperties properties, UserRepository userRepository) {
+        // 支持 refresh-after-write 的缓存需要提供加载器
+        Map<String, CacheLoader<Object, Object>> loaders = Map.of(
+                "USERS", key -> userRepository.findById((Integer) key).orElse(null));
+
+        Set<String> names = new LinkedHashSet<>(CACHE_NAMES);
+        names.addAll(properties.getSpecs().keySet());
+
+        CaffeineCacheManager manager = new CaffeineCacheManager();
         manager.setAllowNullValues(true);
+        manager.setCacheNames(names);
+        for (String name : names) {
+            Caffeine<Object, Object> builder = builder(properties.getDefaults(), properties.specOf(name));
+            CacheLoader<Object, Object> loader = loaders.get(name);
+            if (properties.specOf(name).getRefreshAfterWrite() != null) {
+                if (loader != null) {
+                    manager.registerCustomCache(name, builder.refreshAfterWrite(properties.specOf(name).getRefreshAfterWrite())
+                            .build(loader));
+                    continue;
+                }
+                log.warn("Cache {} has no loader, refresh-after-write is ignored", name);
+            }
+            manager.registerCustomCache(name, builder.build());
+        }
         return manager;
     }
+
+    private static Caffeine<Object, Object> builder(CacheProperties.Spec defaults, CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(CacheConfig::weigh);
+        } else {
+            Long maximumSize = Optional.ofNullable(spec.getMaximumSize()).orElse(defaults.getMaximumSize());
+            if (maximumSize != null) {
+                builder.maximumSize(maximumSize);
+            }
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        } else if (spec.getExpireAfterAccess() == null && defaults.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(defaults.getExpireAfterWrite());
+        }
+        return builder;
+    }
+
+    static int weigh(Object key, Object value) {
+        long weight;
+        if (value instanceof byte[] bytes) {
+            weight = bytes.length;
+        } else if (value instanceof CharSequence text) {
+            weight = text.length();
+        } else if (value instanceof Collection<?> collection) {
+            weight = collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            weight = map.size();
+        } else {
+            weight = 1;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, weight));
+    }
 }
@@ -1,5 +1,7 @@
 package org.bitmagic.ifeed.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bitmagic.ifeed.application.recommendation.recall.core.AdaptiveRecallPlanner;
 import org.bitmagic.ifeed.application.recommendation.recall.core.DefaultRecallFusion;
 import org.bitmagic.ifeed.application.recommendation.recall.core.DefaultRecallPlanner;
 import org.bitmagic.ifeed.application.recommendation.recall.core.DefaultUserContextFactory;
@@ -11,6 +13,8 @@ import org.bitmagic.ifeed.application.recommendation.recall.core.StrategyRegistr
 import org.bitmagic.ifeed.application.recommendation.recall.core.UserContextFactory;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.ItemFreshnessProvider;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.SequenceStore;
+import org.bitmagic.ifeed.config.properties.RecallEngineProperties;
+import org.bitmagic.ifeed.config.properties.RecallPlannerProperties;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -35,8 +39,11 @@ public class RecallConfiguration {
     }
 
     @Bean
-    public RecallPlanner recallPlanner() {
-        return new DefaultRecallPlanner();
+    public RecallPlanner recallPlanner(RecallPlannerProperties plannerProperties) {
+        DefaultRecallPlanner planner = new DefaultRecallPlanner();
+        return plannerProperties.isAdaptive()
+                ? new AdaptiveRecallPlanner(planner, plannerProperties.toSettings())
+                : planner;
     }
 
     @Bean
@@ -69,8 +76,11 @@ public class RecallConfiguration {
                                      RecallPlanner planner,
                                      RecallFusion fusion,
                                      UserContextFactory contextFactory,
-                                     @Qualifier("recallExecutor") Executor executor, ArticleRepository articleRepository) {
+                                     @Qualifier("recallExecutor") Executor executor, ArticleRepository articleRepository,
+                                     RecallEngineProperties engineProperties,
+                                     MeterRegistry meterRegistry) {
         // 构建多路召回引擎，对外提供统一服务
-        return new RecallEngine(registry, planner, fusion, contextFactory, executor,articleRepository);
+        return new RecallEngine(registry, planner, fusion, contextFactory, executor, articleRepository,
+                engineProperties.toBudget(), meterRegistry);
     }
 }
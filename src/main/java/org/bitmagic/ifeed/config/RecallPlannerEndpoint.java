@@ -0,0 +1,28 @@
+package org.bitmagic.ifeed.config;
+
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.application.recommendation.recall.core.AdaptiveRecallPlanner;
+import org.bitmagic.ifeed.application.recommendation.recall.core.RecallPlanner;
+import org.bitmagic.ifeed.application.recommendation.recall.model.StrategyId;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes the adaptive recall planner's per-segment strategy statistics and latest decisions at
+ * {@code /actuator/recallplanner}.
+ */
+@Component
+@Endpoint(id = "recallplanner")
+@RequiredArgsConstructor
+public class RecallPlannerEndpoint {
+
+    private final RecallPlanner recallPlanner;
+
+    @ReadOperation
+    public Map<String, Map<StrategyId, AdaptiveRecallPlanner.StrategySnapshot>> strategies() {
+        return recallPlanner instanceof AdaptiveRecallPlanner adaptive ? adaptive.snapshot() : Map.of();
+    }
+}
@@ -0,0 +1,74 @@
+package org.bitmagic.ifeed.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * Settings used for any field a cache spec leaves unset.
+     */
+    private Spec defaults = Spec.of(1000L, Duration.ofMinutes(30));
+
+    /**
+     * Per-cache settings keyed by cache name.
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * How often regions marked stale by domain events are refreshed in the background.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Hottest entries recomputed per stale region; colder entries are invalidated and reload on demand.
+     */
+    private int refreshLimit = 500;
+
+    public Spec specOf(String cacheName) {
+        return specs.getOrDefault(cacheName, new Spec());
+    }
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * Maximum number of entries. Ignored when maximum-weight is set.
+         */
+        private Long maximumSize;
+
+        /**
+         * Maximum total weight; entries are weighed by payload size (bytes for byte arrays, characters for
+         * strings, element count for collections and maps, 1 otherwise).
+         */
+        private Long maximumWeight;
+
+        private Duration expireAfterWrite;
+
+        /**
+         * Expire entries not read for this long. Takes precedence over the default expire-after-write.
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * Reload entries in the background once they are this old; only applies to caches with a loader.
+         */
+        private Duration refreshAfterWrite;
+
+        static Spec of(Long maximumSize, Duration expireAfterWrite) {
+            Spec spec = new Spec();
+            spec.setMaximumSize(maximumSize);
+            spec.setExpireAfterWrite(expireAfterWrite);
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.bitmagic.ifeed.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bitmagic.ifeed.application.recommendation.recall.model.RecallBudget;
+import org.bitmagic.ifeed.application.recommendation.recall.model.StrategyId;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.engine")
+public class RecallEngineProperties {
+
+    /**
+     * Latency budget for every recall strategy unless overridden in {@link #timeouts}. Zero disables the deadline.
+     */
+    private Duration defaultTimeout = Duration.ofMillis(800);
+
+    /**
+     * Per-strategy latency budgets, e.g. {@code recall.engine.timeouts.U2I=300ms}.
+     */
+    private Map<StrategyId, Duration> timeouts = new EnumMap<>(StrategyId.class);
+
+    /**
+     * Launch a duplicate call when a hedged strategy has not answered after this delay. Zero disables hedging.
+     */
+    private Duration hedgeDelay = Duration.ZERO;
+
+    /**
+     * Strategies that are safe to hedge (idempotent, read-only).
+     */
+    private Set<StrategyId> hedgeStrategies = EnumSet.noneOf(StrategyId.class);
+
+    public RecallBudget toBudget() {
+        return new RecallBudget(defaultTimeout, timeouts, hedgeDelay, hedgeStrategies);
+    }
+}
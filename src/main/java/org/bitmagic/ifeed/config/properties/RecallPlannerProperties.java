@@ -0,0 +1,74 @@
+package org.bitmagic.ifeed.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bitmagic.ifeed.application.recommendation.recall.core.AdaptiveRecallPlanner;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.planner")
+public class RecallPlannerProperties {
+
+    /**
+     * Reallocate quotas from observed strategy yield and latency. When disabled every strategy gets an equal share.
+     */
+    private boolean adaptive = true;
+
+    /**
+     * Number of recent recalls kept per (scene, user segment, strategy).
+     */
+    private int window = 200;
+
+    /**
+     * Observations required before a strategy's quota is adjusted.
+     */
+    private int minSamples = 30;
+
+    /**
+     * Latency at which a strategy's value is halved.
+     */
+    private Duration latencyScale = Duration.ofMillis(200);
+
+    /**
+     * Weight of the share of candidates only this strategy contributed to the fused list.
+     */
+    private double uniqueWeight = 1.0;
+
+    /**
+     * Weight of the share of candidates that reached the first served page.
+     */
+    private double servedWeight = 1.0;
+
+    /**
+     * Strategies whose unique plus served rate per requested candidate falls below this value are skipped.
+     */
+    private double skipThreshold = 0.01;
+
+    /**
+     * Probability that a skipped strategy still runs with the minimum quota so its statistics can recover.
+     */
+    private double explorationRate = 0.05;
+
+    /**
+     * Smallest quota given to a strategy that runs.
+     */
+    private int minQuota = 5;
+
+    /**
+     * Largest share of the total recall quota a single strategy may receive.
+     */
+    private double maxShare = 0.5;
+
+    /**
+     * Users with at least this many recent interactions form the "active" segment.
+     */
+    private int activeInteractions = 20;
+
+    public AdaptiveRecallPlanner.Settings toSettings() {
+        return new AdaptiveRecallPlanner.Settings(window, minSamples, latencyScale, uniqueWeight, servedWeight,
+                skipThreshold, explorationRate, minQuota, maxShare, activeInteractions);
+    }
+}
@@ -19,12 +19,11 @@ public class RssFetcherProperties {
     private int maxItems = 500;
     private int maxRetries = 2;
     private List<String> rsshubList = new ArrayList<String>();
-    private Cache cache = new Cache();
 
-    @Data
+    /**
+     * 抓取结果缓存名称，容量与过期时间见 {@code app.cache.specs.rss-raw-cache}。
+     */
     public static class Cache {
         public static final String CACHE_NAME = "rss-raw-cache";
-        private Duration expireAfterWrite = Duration.ofMinutes(30);
-        private long maximumSize = 1000;
     }
 }
@@ -0,0 +1,84 @@
+package org.bitmagic.ifeed.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.user-behavior")
+public class UserBehaviorProperties {
+
+    /**
+     * Maximum read-history entries kept per user; older reads are trimmed on write.
+     */
+    private int readHistoryLimit = 1000;
+
+    /**
+     * Maximum feed read timestamps kept per user.
+     */
+    private int readFeedHistoryLimit = 500;
+
+    /**
+     * Maximum collections kept per user; the oldest collection is dropped once the cap is reached.
+     */
+    private int collectionLimit = 10000;
+
+    /**
+     * Maximum users whose article read times are cached for repeat-read detection.
+     */
+    private long readAtCacheSize = 10_000;
+
+    /**
+     * How long a user's cached read times are kept after the last access.
+     */
+    private Duration readAtCacheTtl = Duration.ofMinutes(30);
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Buffers read-history writes in memory and flushes them to MongoDB in batches.
+     */
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /**
+         * Whether article reads are enqueued instead of written synchronously.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between flushes; reads of the same user within one interval are coalesced.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum users written per bulk request.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Pending entries above which enqueueing blocks, applying backpressure while MongoDB is slow.
+         */
+        private int maxPendingEntries = 50_000;
+
+        /**
+         * How long an enqueue may block on a full buffer before the read is written synchronously.
+         */
+        private Duration offerTimeout = Duration.ofMillis(50);
+
+        /**
+         * Local append log replayed on startup so buffered reads survive a crash; empty disables it.
+         */
+        private Path logPath = Path.of("data", "user-behavior", "read-history.log");
+
+        /**
+         * Delay between flushes of the append log to the OS; reads appended within one interval are lost on a crash.
+         */
+        private Duration logFlushInterval = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,74 @@
+package org.bitmagic.ifeed.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bitmagic.ifeed.domain.repository.UserSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 令牌 → 登录用户的本地缓存，认证过滤器命中时不再查询 user_sessions。
+ * <p>
+ * 有效令牌按 TTL 缓存，无效令牌按较短的 negative-ttl 缓存，避免伪造或过期令牌反复查库；
+ * 登出和重新登录时显式失效。多实例部署时，其它实例最多在 TTL 内仍认可已登出的令牌。
+ * 命中率通过 Micrometer 暴露为 {@code cache.*{cache=session-tokens}}。
+ */
+@Component
+public class SessionTokenCache {
+
+    private static final String CACHE_NAME = "session-tokens";
+
+    private final UserSessionRepository userSessionRepository;
+    private final Cache<String, CachedSession> sessions;
+
+    public SessionTokenCache(UserSessionRepository userSessionRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.auth.session-cache.ttl:PT5M}") Duration ttl,
+                             @Value("${app.auth.session-cache.negative-ttl:PT30S}") Duration negativeTtl,
+                             @Value("${app.auth.session-cache.max-size:100000}") long maxSize) {
+        this.userSessionRepository = userSessionRepository;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.writing((String token, CachedSession session) ->
+                        session.principal() == null ? negativeTtl : ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, CACHE_NAME);
+    }
+
+    public Optional<UserPrincipal> resolve(String token) {
+        CachedSession session = sessions.get(token, key -> new CachedSession(userSessionRepository.findByToken(key)
+                .map(userSession -> new UserPrincipal(userSession.getUser()))
+                .orElse(null)));
+        return Optional.ofNullable(session.principal());
+    }
+
+    /**
+     * 令牌失效。处于事务中时在提交后再失效一次，避免并发请求在删除提交前把旧会话重新读入缓存。
+     */
+    public void invalidate(String token) {
+        sessions.invalidate(token);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessions.invalidate(token);
+                }
+            });
+        }
+    }
+
+    /**
+     * principal 为 null 表示令牌无效。
+     */
+    private record CachedSession(UserPrincipal principal) {
+    }
+}
@@ -0,0 +1,53 @@
+package org.bitmagic.ifeed.domain.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按（用户、时间桶）分桶存储的行为事件：每个桶最多保存固定数量的事件，写满后同一时间段开新桶。
+ * 读取最近 N 条事件时按 (userId, bucketStart desc) 索引顺序扫描，只需读取少量小文档。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_event_buckets")
+public class UserEventBucketDocument {
+
+    @Id
+    private String id;
+
+    private Integer userId;
+
+    /**
+     * 时间桶起点（按桶长度对齐）。
+     */
+    private Instant bucketStart;
+
+    /**
+     * 桶内事件数，用于写满后切换新桶。
+     */
+    private int count;
+
+    @Builder.Default
+    private List<Event> events = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        private Long articleId;
+        private String articleUid;
+        private String action;
+        private Instant timestamp;
+    }
+}
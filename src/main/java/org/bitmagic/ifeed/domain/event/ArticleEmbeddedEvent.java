@@ -0,0 +1,14 @@
+package org.bitmagic.ifeed.domain.event;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * 文章向量写入 article_embeddings 后发布，供内存向量索引等下游增量同步。
+ */
+public record ArticleEmbeddedEvent(Long articleId, Integer feedId, Instant publishedAt) {
+
+    public ArticleEmbeddedEvent {
+        Objects.requireNonNull(articleId, "articleId");
+    }
+}
@@ -0,0 +1,23 @@
+package org.bitmagic.ifeed.domain.event;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 一批抓取到的文章写入 articles 后发布，供新鲜度索引等内存结构增量同步。
+ */
+public record ArticlesIngestedEvent(List<IngestedArticle> articles) {
+
+    public ArticlesIngestedEvent {
+        articles = articles == null ? List.of() : List.copyOf(articles);
+    }
+
+    public record IngestedArticle(Long id, UUID uid, Integer feedId, Instant publishedAt, String title) {
+
+        public IngestedArticle {
+            Objects.requireNonNull(id, "id");
+        }
+    }
+}
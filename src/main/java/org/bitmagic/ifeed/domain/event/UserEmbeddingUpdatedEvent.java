@@ -0,0 +1,13 @@
+package org.bitmagic.ifeed.domain.event;
+
+import java.util.Objects;
+
+/**
+ * 用户向量增量更新或重建后发布，供依赖用户向量的召回缓存按用户失效。
+ */
+public record UserEmbeddingUpdatedEvent(Integer userId) {
+
+    public UserEmbeddingUpdatedEvent {
+        Objects.requireNonNull(userId, "userId");
+    }
+}
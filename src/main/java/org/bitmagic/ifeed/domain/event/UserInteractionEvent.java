@@ -0,0 +1,36 @@
+package org.bitmagic.ifeed.domain.event;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 用户交互领域事件，在阅读、收藏等行为落库后发布，供向量、画像、缓存等下游增量更新。
+ * <p>
+ * 重复阅读时 {@code previousReadAt} 为本次之前阅读历史中的阅读时间，首次阅读及其它行为为空。
+ */
+public record UserInteractionEvent(Integer userId,
+                                   Long articleId,
+                                   UUID articleUid,
+                                   Integer feedId,
+                                   Action action,
+                                   Instant timestamp,
+                                   Instant previousReadAt) {
+
+    public UserInteractionEvent {
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(action, "action");
+        timestamp = timestamp == null ? Instant.now() : timestamp;
+    }
+
+    public UserInteractionEvent(Integer userId, Long articleId, UUID articleUid, Integer feedId,
+                                Action action, Instant timestamp) {
+        this(userId, articleId, articleUid, feedId, action, timestamp, null);
+    }
+
+    public enum Action {
+        READ,
+        COLLECT,
+        UNCOLLECT
+    }
+}
@@ -32,6 +32,32 @@ public class UserVectorStore {
     @Column(name = "content", columnDefinition = "text")
     private String content;
 
+    /**
+     * 前向衰减累加向量（未归一化），增量更新时直接叠加，读取时再归一化为 {@link #embedding}。
+     */
+    @JdbcTypeCode(SqlTypes.VECTOR)
+    @Array(length = 1024)
+    @Column(name = "decayed_sum")
+    private float[] decayedSum;
+
+    /**
+     * 与 {@link #decayedSum} 同尺度的累计权重。
+     */
+    @Column(name = "total_weight")
+    private Double totalWeight;
+
+    /**
+     * 前向衰减的时间锚点，累加项按 2^((t - anchor) / halfLife) 放大。
+     */
+    @Column(name = "decay_anchor")
+    private Instant decayAnchor;
+
+    /**
+     * 是否存在尚未被全量重建（压缩）吸收的增量更新。
+     */
+    @Column(name = "compaction_pending")
+    private Boolean compactionPending;
+
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
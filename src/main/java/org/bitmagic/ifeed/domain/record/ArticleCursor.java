@@ -0,0 +1,50 @@
+package org.bitmagic.ifeed.domain.record;
+
+import org.bitmagic.ifeed.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 文章列表的游标：按 (publishedAt desc, id desc) 排序时上一页最后一条的位置。
+ * <p>
+ * 对外以不透明的 Base64 令牌传递，下一页只查询排在该位置之后的文章，翻页深度不影响查询耗时。
+ */
+public record ArticleCursor(Instant publishedAt, long id) {
+
+    /**
+     * 首页游标：排在所有文章之前。
+     */
+    public static final ArticleCursor FIRST = new ArticleCursor(Instant.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE);
+
+    public static ArticleCursor of(ArticleSummaryView article) {
+        return new ArticleCursor(article.publishedAt(), article.articleId());
+    }
+
+    public String encode() {
+        String raw = publishedAt.getEpochSecond() + ":" + publishedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传回的令牌，为空时返回首页游标。
+     */
+    public static ArticleCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Instant publishedAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ArticleCursor(publishedAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
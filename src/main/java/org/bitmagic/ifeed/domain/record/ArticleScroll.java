@@ -0,0 +1,24 @@
+package org.bitmagic.ifeed.domain.record;
+
+import java.util.List;
+
+/**
+ * 游标分页结果：当前页文章与下一页游标，没有更多数据时 {@code next} 为空。
+ */
+public record ArticleScroll(List<ArticleSummaryView> items, ArticleCursor next) {
+
+    /**
+     * 由多取一条的查询结果构建：超出 size 的部分说明还有下一页。
+     */
+    public static ArticleScroll of(List<ArticleSummaryView> fetched, int size) {
+        if (fetched.size() <= size) {
+            return new ArticleScroll(fetched, null);
+        }
+        List<ArticleSummaryView> items = fetched.subList(0, size);
+        return new ArticleScroll(items, ArticleCursor.of(items.get(size - 1)));
+    }
+
+    public boolean hasMore() {
+        return next != null;
+    }
+}
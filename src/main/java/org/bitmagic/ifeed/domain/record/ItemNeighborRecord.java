@@ -0,0 +1,19 @@
+package org.bitmagic.ifeed.domain.record;
+
+import lombok.NonNull;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+
+/**
+ * 预计算的物品近邻，neighborIds 与 scores 一一对应并按得分降序排列。
+ */
+@RegisterReflectionForBinding(ItemNeighborRecord.class)
+public record ItemNeighborRecord(
+        @NonNull Long itemId,
+        @NonNull long[] neighborIds,
+        @NonNull float[] scores
+) {
+
+    public int size() {
+        return Math.min(neighborIds.length, scores.length);
+    }
+}
@@ -0,0 +1,21 @@
+package org.bitmagic.ifeed.domain.record;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 用户兴趣画像：按属性维度（feedTitle / tag / category / keyword / entity）保存前向衰减累加得分。
+ * <p>
+ * 得分以 {@code weight * exp(λ * (t - decayAnchor))} 累加，读取时同维度内归一化，衰减因子自然约去。
+ * {@code version} 每次写入递增，既用于乐观锁，也供下游按版本缓存召回结果。
+ */
+public record UserInterestProfileRecord(Integer userId,
+                                        long version,
+                                        Instant decayAnchor,
+                                        Map<String, Map<String, Double>> scores,
+                                        boolean rebuildPending) {
+
+    public UserInterestProfileRecord {
+        scores = scores == null ? Map.of() : scores;
+    }
+}
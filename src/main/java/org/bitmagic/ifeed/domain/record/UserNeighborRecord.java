@@ -0,0 +1,19 @@
+package org.bitmagic.ifeed.domain.record;
+
+import lombok.NonNull;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+
+/**
+ * 预计算的相似用户，neighborIds 与 scores 一一对应并按得分降序排列。
+ */
+@RegisterReflectionForBinding(UserNeighborRecord.class)
+public record UserNeighborRecord(
+        @NonNull Integer userId,
+        @NonNull int[] neighborIds,
+        @NonNull float[] scores
+) {
+
+    public int size() {
+        return Math.min(neighborIds.length, scores.length);
+    }
+}
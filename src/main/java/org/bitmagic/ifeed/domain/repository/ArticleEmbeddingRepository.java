@@ -3,12 +3,16 @@ package org.bitmagic.ifeed.domain.repository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.domain.record.ArticleEmbeddingRecord;
+import org.bitmagic.ifeed.domain.record.ItemNeighborRecord;
+import org.bitmagic.ifeed.infrastructure.vector.PgVectorCodec;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
 
@@ -55,13 +59,10 @@ public class ArticleEmbeddingRepository {
             return Optional.empty();
         }
         var sql = """
-                SELECT id, embedding FROM article_embeddings  WHERE id = ?
+                SELECT id, vector_send(embedding) AS embedding FROM article_embeddings WHERE id = ?
                 """;
-        List<ArticleEmbeddingRecord> results = jdbcTemplate.query(sql, (rs, rowNum) -> {
-            String value = rs.getString("embedding");
-            float[] vector = parseVector(value);
-            return new ArticleEmbeddingRecord(rs.getLong("id"), vector);
-        }, articleId);
+        List<ArticleEmbeddingRecord> results = jdbcTemplate.query(sql, (rs, rowNum) ->
+                new ArticleEmbeddingRecord(rs.getLong("id"), decodeVector(rs.getBytes("embedding"), null)), articleId);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
     }
 
@@ -69,20 +70,160 @@ public class ArticleEmbeddingRepository {
         if (articleIds == null || articleIds.isEmpty()) {
             return Collections.emptyList();
         }
-        var params = articleIds.stream().distinct().toList();
-        var placeholders = params.stream().map(id -> "?").toList();
+        List<ArticleEmbeddingRecord> records = new ArrayList<>(articleIds.size());
+        forEachByIds(articleIds, false, (id, vector) -> records.add(new ArticleEmbeddingRecord(id, vector)));
+        return records;
+    }
+
+    /**
+     * 批量读取向量并逐行回调，全程复用同一个缓冲区，适合只做累加、不持有向量的场景。
+     * 回调中的数组会在下一行被覆盖，需要保留时请自行 clone。
+     */
+    public void forEachByIds(Collection<Long> articleIds, VectorVisitor visitor) {
+        forEachByIds(articleIds, true, visitor);
+    }
+
+    private void forEachByIds(Collection<Long> articleIds, boolean reuseBuffer, VectorVisitor visitor) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return;
+        }
+        var ids = articleIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        var sql = """
+                SELECT id, vector_send(embedding) AS embedding
+                FROM article_embeddings
+                WHERE id = ANY(?)
+                """;
+        float[][] buffer = new float[1][];
+        jdbcTemplate.query(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)), (RowCallbackHandler) rs -> {
+            float[] vector = decodeVector(rs.getBytes("embedding"), reuseBuffer ? buffer[0] : null);
+            buffer[0] = vector;
+            visitor.accept(rs.getLong("id"), vector);
+        });
+    }
+
+    /**
+     * 多个种子的余弦近邻，一次 LATERAL 查询完成：每个种子在数据库内各自走向量索引取 Top-K，无需先取回种子向量。
+     * 没有向量的种子不出现在结果中。
+     */
+    public Map<Long, ItemNeighborRecord> findNearestNeighbors(Collection<Long> seedIds, int k, double minSimilarity) {
+        if (seedIds == null || seedIds.isEmpty() || k <= 0) {
+            return Map.of();
+        }
+        var ids = seedIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        // 多取一条以便排除种子自身
+        var sql = """
+                SELECT seed.id AS seed_id, nn.id AS neighbor_id, 1 - nn.distance AS similarity
+                FROM article_embeddings seed
+                CROSS JOIN LATERAL (
+                    SELECT e.id, e.embedding <=> seed.embedding AS distance
+                    FROM article_embeddings e
+                    ORDER BY e.embedding <=> seed.embedding
+                    LIMIT ?
+                ) nn
+                WHERE seed.id = ANY(?) AND seed.embedding IS NOT NULL
+                  AND nn.id <> seed.id AND nn.distance <= ?
+                ORDER BY seed.id, nn.distance
+                """;
+        Map<Long, List<NeighborRow>> rowsBySeed = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, ps -> {
+            ps.setInt(1, k + 1);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setDouble(3, 1.0 - minSimilarity);
+        }, (RowCallbackHandler) rs -> {
+            List<NeighborRow> rows = rowsBySeed.computeIfAbsent(rs.getLong("seed_id"), key -> new ArrayList<>(k));
+            if (rows.size() < k) {
+                rows.add(new NeighborRow(rs.getLong("neighbor_id"), rs.getFloat("similarity")));
+            }
+        });
+        Map<Long, ItemNeighborRecord> records = new LinkedHashMap<>(rowsBySeed.size() * 2);
+        rowsBySeed.forEach((seedId, rows) -> {
+            long[] neighborIds = new long[rows.size()];
+            float[] scores = new float[rows.size()];
+            for (int i = 0; i < neighborIds.length; i++) {
+                neighborIds[i] = rows.get(i).neighborId();
+                scores[i] = rows.get(i).similarity();
+            }
+            records.put(seedId, new ItemNeighborRecord(seedId, neighborIds, scores));
+        });
+        return records;
+    }
+
+    /**
+     * 按 ID 升序分页遍历向量及 feedId / publishedAt 元数据，供内存索引构建使用，回调中的数组同样会被复用。
+     *
+     * @return 本批最后一条记录的 ID，没有更多数据时返回 afterId
+     */
+    public long forEachAfter(long afterId, int limit, EmbeddingRowVisitor visitor) {
+        return forEachAfter(afterId, null, limit, visitor);
+    }
+
+    /**
+     * 同 {@link #forEachAfter(long, int, EmbeddingRowVisitor)}，updatedSince 不为空时只遍历该时间点之后写入或改写的向量，
+     * 供内存索引从快照位置追平。
+     */
+    public long forEachAfter(long afterId, Instant updatedSince, int limit, EmbeddingRowVisitor visitor) {
         var sql = """
-                SELECT id, embedding
+                SELECT id,
+                       vector_send(embedding) AS embedding,
+                       (metadata->>'feedId')::int AS feed_id,
+                       (metadata->>'publishedAt')::bigint AS published_at
                 FROM article_embeddings
-                WHERE id IN (%s)
-                """.formatted(String.join(",", placeholders));
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            String value = rs.getString("embedding");
-            float[] vector = parseVector(value);
-            return new ArticleEmbeddingRecord(rs.getLong("id"), vector);
-        }, articleIds.toArray(new Long[]{}));
+                WHERE id > ? AND embedding IS NOT NULL %s
+                ORDER BY id
+                LIMIT ?
+                """.formatted(updatedSince == null ? "" : "AND updated_at >= ?");
+        float[][] buffer = new float[1][];
+        long[] lastId = {afterId};
+        jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            ps.setLong(index++, afterId);
+            if (updatedSince != null) {
+                ps.setTimestamp(index++, Timestamp.from(updatedSince));
+            }
+            ps.setInt(index, limit);
+        }, (RowCallbackHandler) rs -> {
+            buffer[0] = decodeVector(rs.getBytes("embedding"), buffer[0]);
+            lastId[0] = rs.getLong("id");
+            int feedId = rs.getInt("feed_id");
+            Integer feed = rs.wasNull() ? null : feedId;
+            long publishedAt = rs.getLong("published_at");
+            Long published = rs.wasNull() ? null : publishedAt;
+            visitor.accept(lastId[0], buffer[0], feed, published);
+        });
+        return lastId[0];
+    }
+
+    /**
+     * since 之后被删除且当前仍不存在的向量 ID（删除记录由 article_embeddings 上的触发器写入）。
+     */
+    public List<Long> findDeletedSince(Instant since) {
+        var sql = """
+                SELECT d.id FROM article_embedding_deletions d
+                WHERE d.deleted_at >= ?
+                  AND NOT EXISTS (SELECT 1 FROM article_embeddings e WHERE e.id = d.id)
+                """;
+        return jdbcTemplate.queryForList(sql, Long.class, Timestamp.from(since));
+    }
+
+    /**
+     * 清理早于 before 的删除记录。
+     */
+    public int purgeDeletionsBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM article_embedding_deletions WHERE deleted_at < ?", Timestamp.from(before));
+    }
+
+    private record NeighborRow(long neighborId, float similarity) {
+    }
+
+    @FunctionalInterface
+    public interface VectorVisitor {
+        void accept(long id, float[] vector);
     }
 
+    @FunctionalInterface
+    public interface EmbeddingRowVisitor {
+        void accept(long id, float[] vector, Integer feedId, Long publishedAt);
+    }
 
     private Map<String, Object> buildMetadata(Integer feedId,
                                               String feedTitle,
@@ -113,18 +254,9 @@ public class ArticleEmbeddingRepository {
         return metadata;
     }
 
-    private float[] parseVector(String vectorStr) {
-        if (vectorStr == null || vectorStr.isEmpty()) {
-            return new float[1024]; // 默认1024维，填充0
-        }
-        // 去掉大括号，分割逗号
-        String cleaned = vectorStr.replace("[", "").replace("]", "");
-        String[] values = cleaned.split(",");
-        float[] embedding = new float[values.length];
-        for (int i = 0; i < values.length; i++) {
-            embedding[i] = Float.parseFloat(values[i].trim());
-        }
-        return embedding;
+    private float[] decodeVector(byte[] bytes, float[] reuse) {
+        float[] vector = PgVectorCodec.decode(bytes, reuse);
+        return vector != null ? vector : new float[1024]; // 默认1024维，填充0
     }
 
 
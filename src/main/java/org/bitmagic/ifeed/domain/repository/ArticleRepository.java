@@ -73,6 +73,74 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
                                                   @Param("start") Instant start,
                                                   Pageable pageable);
 
+    /**
+     * 游标分页：只取排在 (beforePublishedAt, beforeId) 之后的文章，不执行 count 查询。
+     * 调用方传入 {@code size + 1} 的 Pageable 以判断是否还有下一页，排序固定为 (publishedAt desc, id desc)。
+     * 冗余条件 {@code publishedAt <= :beforePublishedAt} 让规划器可以直接在 publishedAt 索引上做范围扫描。
+     */
+    @Query("""
+            select new org.bitmagic.ifeed.domain.record.ArticleSummaryView(
+                a.uid,
+                a.id,
+                a.title,
+                a.link,
+                a.summary,
+                f.title,
+                a.publishedAt,
+                a.tags,
+                a.thumbnail,
+                a.enclosure)
+            from Article a
+            left join a.feed f
+            where (:feedUid is null or f.uid = :feedUid)
+              and (:tagPattern is null or lower(coalesce(a.tags, '')) like :tagPattern)
+              and (:category is null or lower(coalesce(a.category, '')) = :category)
+              and (a.publishedAt > :start)
+              and a.publishedAt <= :beforePublishedAt
+              and (a.publishedAt < :beforePublishedAt
+                   or (a.publishedAt = :beforePublishedAt and a.id < :beforeId))
+              and (:ownerId is null or exists (
+                    select 1
+                    from UserSubscription us
+                    where us.sourceType = 'FEED'
+                      and us.sourceId = f.id
+                      and us.user.id = :ownerId
+                      and us.active = true
+              ))
+            order by a.publishedAt desc, a.id desc
+            """)
+    List<ArticleSummaryView> scrollArticleSummaries(@Param("feedUid") UUID feedUid,
+                                                    @Param("tagPattern") String tagPattern,
+                                                    @Param("category") String category,
+                                                    @Param("ownerId") Integer ownerId,
+                                                    @Param("start") Instant start,
+                                                    @Param("beforePublishedAt") Instant beforePublishedAt,
+                                                    @Param("beforeId") long beforeId,
+                                                    Pageable pageable);
+
+    @Query("""
+            select count(a)
+            from Article a
+            left join a.feed f
+            where (:feedUid is null or f.uid = :feedUid)
+              and (:tagPattern is null or lower(coalesce(a.tags, '')) like :tagPattern)
+              and (:category is null or lower(coalesce(a.category, '')) = :category)
+              and (a.publishedAt > :start)
+              and (:ownerId is null or exists (
+                    select 1
+                    from UserSubscription us
+                    where us.sourceType = 'FEED'
+                      and us.sourceId = f.id
+                      and us.user.id = :ownerId
+                      and us.active = true
+              ))
+            """)
+    long countArticleSummaries(@Param("feedUid") UUID feedUid,
+                               @Param("tagPattern") String tagPattern,
+                               @Param("category") String category,
+                               @Param("ownerId") Integer ownerId,
+                               @Param("start") Instant start);
+
     @Query(value = """
             select new org.bitmagic.ifeed.domain.record.ArticleSummaryView(
                 a.uid,
@@ -120,6 +188,47 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
                                                     @Param("ownerId") Integer ownerId,
                                                     Pageable pageable);
 
+    /**
+     * 关键词搜索的游标分页版本，语义同 {@link #scrollArticleSummaries}。
+     */
+    @Query("""
+            select new org.bitmagic.ifeed.domain.record.ArticleSummaryView(
+                a.uid,
+                a.id,
+                a.title,
+                a.link,
+                a.summary,
+                f.title,
+                a.publishedAt,
+                a.tags,
+                a.thumbnail,
+                a.enclosure)
+            from Article a
+            left join a.feed f
+            where (lower(a.title) like :term
+               or lower(a.author) like :term
+               or lower(a.summary) like :term
+               or lower(a.category) like :term
+               or lower(a.tags) like :term)
+              and a.publishedAt <= :beforePublishedAt
+              and (a.publishedAt < :beforePublishedAt
+                   or (a.publishedAt = :beforePublishedAt and a.id < :beforeId))
+              and (:ownerId is null or exists (
+                    select 1
+                    from UserSubscription us
+                    where us.sourceType = 'FEED'
+                      and us.sourceId = f.id
+                      and us.user.id = :ownerId
+                      and us.active = true
+              ))
+            order by a.publishedAt desc, a.id desc
+            """)
+    List<ArticleSummaryView> scrollSearchArticleSummaries(@Param("term") String term,
+                                                          @Param("ownerId") Integer ownerId,
+                                                          @Param("beforePublishedAt") Instant beforePublishedAt,
+                                                          @Param("beforeId") long beforeId,
+                                                          Pageable pageable);
+
     @Query(value = """
             select new org.bitmagic.ifeed.domain.record.ArticleSummary(
                 a.uid,
@@ -141,44 +250,6 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
 
     Optional<Article> findTopByFeedOrderByPublishedAtDesc(Feed feed);
 
-    /**
-     * Count categories for articles visible to the owner (their active
-     * subscriptions), within time window.
-     */
-    @Query("""
-            select a.category as category, count(a) as cnt
-            from Article a
-            where a.publishedAt between :fromTs and :toTs
-              and (:ownerId is null or exists (
-                    select 1 from UserSubscription us
-                    where us.sourceType = 'FEED' and us.sourceId = a.feed.id and us.user.id = :ownerId and us.active = true
-              ))
-              and (coalesce(a.category, '') <> '')
-            group by a.category
-            order by cnt desc
-            """)
-    List<Object[]> countCategoriesForOwnerWithin(@Param("ownerId") Integer ownerId,
-                                                 @Param("fromTs") Instant fromTs,
-                                                 @Param("toTs") Instant toTs);
-
-    /**
-     * Fetch raw tag JSON strings for later in-memory aggregation, for articles
-     * visible to owner within window.
-     */
-    @Query("""
-            select a.tags
-            from Article a
-            where a.publishedAt between :fromTs and :toTs
-              and (:ownerId is null or exists (
-                    select 1 from UserSubscription us
-                    where us.sourceType = 'FEED' and us.sourceId = a.feed.id and us.user.id = :ownerId and us.active = true
-              ))
-              and (coalesce(a.tags, '') <> '')
-            """)
-    List<String> findTagJsonForOwnerWithin(@Param("ownerId") Integer ownerId,
-                                           @Param("fromTs") Instant fromTs,
-                                           @Param("toTs") Instant toTs);
-
     @Query(value = """
             select new org.bitmagic.ifeed.domain.record.ArticleSummaryView(
                 a.uid,
@@ -212,9 +283,15 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
     @Query("select a.id, a.publishedAt from Article a where a.id in (:ids)")
     List<Object[]> findPublishedAtByIdIn(@Param("ids") Collection<Long> ids);
 
+    @Query("select a.id, a.publishedAt from Article a where a.id > :afterId and a.publishedAt >= :since order by a.id")
+    List<Object[]> findPublishedAtAfter(@Param("afterId") Long afterId, @Param("since") Instant since, Pageable pageable);
+
     @Query("select new org.bitmagic.ifeed.domain.record.ArticleTitle(a.uid, a.id, a.title) from Article a where a.uid in (:ids)")
     List<ArticleTitle> findIdByUIdIn(@Param("ids") Collection<UUID> ids);
 
+    @Query("select new org.bitmagic.ifeed.domain.record.ArticleTitle(a.uid, a.id, a.title) from Article a where a.id in (:ids)")
+    List<ArticleTitle> findTitleByIdIn(@Param("ids") Collection<Long> ids);
+
     // Discovery feature method
     @Query("select a.feed.id, count(a) from Article a where a.feed.id in (:feedIds) group by a.feed.id")
     List<Object[]> countByFeedIdIn(@Param("feedIds") List<Integer> feedIds);
@@ -0,0 +1,200 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.infrastructure.util.JSON;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 文章标签与分类的物化统计：article_tags 为规范化后的（文章, 标签）行，
+ * feed_daily_tag_stats / feed_daily_category_stats 为按订阅源、按天（UTC）预聚合的计数。
+ * <p>
+ * 刷新以受影响的（订阅源, 天）为单位从 articles 删除后重算，重复执行结果不变；article_stats_cursor 记录修复进度。
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ArticleStatsRepository {
+
+    private static final TypeReference<List<String>> TAGS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 为给定文章重写规范化标签，并重算这些文章所在（订阅源, 天）的标签与分类计数：先删除旧行再插入，
+     * 文章去掉的标签与计数归零的分组都会被清除。删除与插入在同一事务中完成。
+     * 标签在应用内解析，不是 JSON 字符串数组的 tags 按无标签处理，不影响同批其它文章。
+     */
+    @Transactional
+    public void refresh(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return;
+        }
+        Long[] ids = articleIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (ids.length == 0) {
+            return;
+        }
+        List<Object[]> tagRows = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT id, tags FROM articles WHERE id = ANY(?) AND coalesce(tags, '') <> ''
+                """, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)), rs -> {
+            long id = rs.getLong(1);
+            parseTags(id, rs.getString(2)).forEach(tag -> tagRows.add(new Object[]{id, tag}));
+        });
+        update("DELETE FROM article_tags WHERE article_id = ANY(?)", ids);
+        if (!tagRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO article_tags (article_id, tag) VALUES (?, ?) ON CONFLICT DO NOTHING", tagRows);
+        }
+        update("""
+                WITH affected AS (
+                    SELECT DISTINCT feed_id, (pub_date AT TIME ZONE 'UTC')::date AS day
+                    FROM articles WHERE id = ANY(?)
+                )
+                DELETE FROM feed_daily_tag_stats s
+                USING affected x
+                WHERE s.feed_id = x.feed_id AND s.day = x.day
+                """, ids);
+        update("""
+                WITH affected AS (
+                    SELECT DISTINCT feed_id, (pub_date AT TIME ZONE 'UTC')::date AS day
+                    FROM articles WHERE id = ANY(?)
+                )
+                DELETE FROM feed_daily_category_stats s
+                USING affected x
+                WHERE s.feed_id = x.feed_id AND s.day = x.day
+                """, ids);
+        update("""
+                WITH affected AS (
+                    SELECT DISTINCT feed_id, (pub_date AT TIME ZONE 'UTC')::date AS day
+                    FROM articles WHERE id = ANY(?)
+                )
+                INSERT INTO feed_daily_tag_stats (feed_id, day, tag, cnt)
+                SELECT a.feed_id, x.day, t.tag, count(*)
+                FROM affected x
+                JOIN articles a ON a.feed_id = x.feed_id
+                    AND a.pub_date >= x.day::timestamp AT TIME ZONE 'UTC'
+                    AND a.pub_date < (x.day + 1)::timestamp AT TIME ZONE 'UTC'
+                JOIN article_tags t ON t.article_id = a.id
+                GROUP BY a.feed_id, x.day, t.tag
+                ON CONFLICT (feed_id, day, tag) DO UPDATE SET cnt = EXCLUDED.cnt
+                """, ids);
+        update("""
+                WITH affected AS (
+                    SELECT DISTINCT feed_id, (pub_date AT TIME ZONE 'UTC')::date AS day
+                    FROM articles WHERE id = ANY(?)
+                )
+                INSERT INTO feed_daily_category_stats (feed_id, day, category, cnt)
+                SELECT a.feed_id, x.day, a.category, count(*)
+                FROM affected x
+                JOIN articles a ON a.feed_id = x.feed_id
+                    AND a.pub_date >= x.day::timestamp AT TIME ZONE 'UTC'
+                    AND a.pub_date < (x.day + 1)::timestamp AT TIME ZONE 'UTC'
+                WHERE coalesce(a.category, '') <> ''
+                GROUP BY a.feed_id, x.day, a.category
+                ON CONFLICT (feed_id, day, category) DO UPDATE SET cnt = EXCLUDED.cnt
+                """, ids);
+    }
+
+    /**
+     * 用户订阅源（ownerId 为空时为全部订阅源）在 [from, to] 天内的分类计数，按数量降序。
+     */
+    public List<Object[]> countCategories(Integer ownerId, LocalDate from, LocalDate to) {
+        var sql = """
+                SELECT s.category, sum(s.cnt)
+                FROM feed_daily_category_stats s
+                WHERE s.day BETWEEN ? AND ?
+                  AND (CAST(? AS INTEGER) IS NULL OR s.feed_id IN (
+                        SELECT us.source_id FROM user_subscriptions us
+                        WHERE us.user_id = ? AND us.source_type = 'FEED' AND us.is_active = true))
+                GROUP BY s.category
+                ORDER BY 2 DESC
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                Date.valueOf(from), Date.valueOf(to), ownerId, ownerId);
+    }
+
+    /**
+     * 用户订阅源在 [from, to] 天内出现最多的标签。
+     */
+    public List<Object[]> topTags(Integer ownerId, LocalDate from, LocalDate to, int limit) {
+        var sql = """
+                SELECT s.tag, sum(s.cnt)
+                FROM feed_daily_tag_stats s
+                WHERE s.day BETWEEN ? AND ?
+                  AND (CAST(? AS INTEGER) IS NULL OR s.feed_id IN (
+                        SELECT us.source_id FROM user_subscriptions us
+                        WHERE us.user_id = ? AND us.source_type = 'FEED' AND us.is_active = true))
+                GROUP BY s.tag
+                ORDER BY 2 DESC, 1
+                LIMIT ?
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                Date.valueOf(from), Date.valueOf(to), ownerId, ownerId, limit);
+    }
+
+    /**
+     * 读取修复游标，尚未建立时返回 0。
+     */
+    public long findCursor(String name) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT last_article_id FROM article_stats_cursor WHERE name = ?", Long.class, name);
+        return values.isEmpty() ? 0L : values.getFirst();
+    }
+
+    /**
+     * 游标仍为 expected 时推进到 next（不存在时新建），被并发回退或推进时返回 false。
+     */
+    public boolean advanceCursor(String name, long expected, long next) {
+        return jdbcTemplate.update("""
+                INSERT INTO article_stats_cursor (name, last_article_id, updated_at)
+                VALUES (?, ?, now())
+                ON CONFLICT (name) DO UPDATE SET last_article_id = EXCLUDED.last_article_id, updated_at = now()
+                WHERE article_stats_cursor.last_article_id = ?
+                """, name, next, expected) > 0;
+    }
+
+    /**
+     * 把游标回退到不超过 articleId，使这之后的文章在下次修复时重新刷新。
+     */
+    public void rewindCursor(String name, long articleId) {
+        jdbcTemplate.update("""
+                UPDATE article_stats_cursor
+                SET last_article_id = least(last_article_id, ?), updated_at = now()
+                WHERE name = ?
+                """, articleId, name);
+    }
+
+    /**
+     * 解析 tags 列（JSON 字符串数组），统一去空白、小写并去重；无法解析时记录日志并视为无标签。
+     */
+    private static Set<String> parseTags(long articleId, String raw) {
+        List<String> tags;
+        try {
+            tags = JSON.fromJson(raw, TAGS_TYPE);
+        } catch (RuntimeException ex) {
+            log.debug("Skip malformed tags of article {}: {}", articleId, raw);
+            return Set.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    normalized.add(tag.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return normalized;
+    }
+
+    private void update(String sql, Long[] ids) {
+        jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+}
@@ -0,0 +1,121 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.domain.record.ItemNeighborRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * item_neighbors 表访问：每个物品一行，近邻 ID 与得分以数组存储，查询即单行点查。
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemNeighborRepository {
+
+    private static final RowMapper<ItemNeighborRecord> ROW_MAPPER = ItemNeighborRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<ItemNeighborRecord> findById(Long itemId) {
+        if (itemId == null) {
+            return Optional.empty();
+        }
+        var sql = """
+                SELECT item_id, neighbor_ids, scores FROM item_neighbors WHERE item_id = ?
+                """;
+        List<ItemNeighborRecord> results = jdbcTemplate.query(sql, ROW_MAPPER, itemId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public Map<Long, ItemNeighborRecord> findAllByIds(Collection<Long> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return Map.of();
+        }
+        var ids = itemIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        var sql = """
+                SELECT item_id, neighbor_ids, scores FROM item_neighbors WHERE item_id = ANY(?)
+                """;
+        List<ItemNeighborRecord> records = jdbcTemplate.query(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)), ROW_MAPPER);
+        Map<Long, ItemNeighborRecord> byId = new HashMap<>(records.size() * 2);
+        records.forEach(record -> byId.put(record.itemId(), record));
+        return byId;
+    }
+
+    /**
+     * 已有向量但尚未计算近邻的物品，新文章优先。
+     */
+    public List<Long> findItemIdsWithoutNeighbors(int limit) {
+        var sql = """
+                SELECT e.id
+                FROM article_embeddings e
+                LEFT JOIN item_neighbors n ON n.item_id = e.id
+                WHERE n.item_id IS NULL AND e.embedding IS NOT NULL
+                ORDER BY e.id DESC
+                LIMIT ?
+                """;
+        return jdbcTemplate.queryForList(sql, Long.class, limit);
+    }
+
+    /**
+     * 近邻计算时间早于 before 的物品，最旧的优先。
+     */
+    public List<Long> findItemIdsUpdatedBefore(Instant before, int limit) {
+        var sql = """
+                SELECT item_id FROM item_neighbors WHERE updated_at < ? ORDER BY updated_at LIMIT ?
+                """;
+        return jdbcTemplate.queryForList(sql, Long.class, Timestamp.from(before), limit);
+    }
+
+    public void saveAll(List<ItemNeighborRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        var sql = """
+                INSERT INTO item_neighbors (item_id, neighbor_ids, scores, updated_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (item_id) DO UPDATE
+                SET neighbor_ids = EXCLUDED.neighbor_ids,
+                    scores = EXCLUDED.scores,
+                    updated_at = EXCLUDED.updated_at
+                """;
+        jdbcTemplate.batchUpdate(sql, records, records.size(), (ps, record) -> {
+            int size = record.size();
+            Long[] neighborIds = new Long[size];
+            Float[] scores = new Float[size];
+            for (int i = 0; i < size; i++) {
+                neighborIds[i] = record.neighborIds()[i];
+                scores[i] = record.scores()[i];
+            }
+            ps.setLong(1, record.itemId());
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", neighborIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("real", scores));
+        });
+    }
+
+    private static ItemNeighborRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long itemId = rs.getLong("item_id");
+        Object[] ids = toArray(rs.getArray("neighbor_ids"));
+        Object[] scores = toArray(rs.getArray("scores"));
+        int size = Math.min(ids.length, scores.length);
+        long[] neighborIds = new long[size];
+        float[] neighborScores = new float[size];
+        for (int i = 0; i < size; i++) {
+            neighborIds[i] = ((Number) ids[i]).longValue();
+            neighborScores[i] = ((Number) scores[i]).floatValue();
+        }
+        return new ItemNeighborRecord(itemId, neighborIds, neighborScores);
+    }
+
+    private static Object[] toArray(Array array) throws SQLException {
+        return array == null ? new Object[0] : (Object[]) array.getArray();
+    }
+}
@@ -0,0 +1,72 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 用户行为文档的原子更新：所有写入都是单条 Mongo 更新语句，不读取整个文档，数组长度按上限截断。
+ */
+public interface UserBehaviorRepositoryCustom {
+
+    /**
+     * 记录一次阅读：同一条管道更新内，文章与订阅源各自过滤掉旧记录再追加到末尾，并只保留最近 limit 条。
+     */
+    void touchReadHistory(String userId,
+                          UserBehaviorDocument.ArticleRef article, int historyLimit,
+                          UserBehaviorDocument.FeedRef feed, int feedLimit);
+
+    /**
+     * 记录订阅源阅读时间，只保留最近 limit 个订阅源。
+     */
+    void touchReadFeed(String userId, UserBehaviorDocument.FeedRef feed, int limit);
+
+    /**
+     * 批量记录多个用户的阅读，作为一次有序 bulk 写入：每个用户一条管道更新，过滤掉本批涉及的旧记录，再按时间顺序追加并截断。
+     */
+    void touchReadHistories(List<ReadBatch> batches, int historyLimit, int feedLimit);
+
+    /**
+     * 追加收藏，已收藏时返回 false。
+     */
+    boolean addCollection(String userId, UserBehaviorDocument.ArticleRef article, int limit);
+
+    /**
+     * 移除收藏，未收藏时返回 false。
+     */
+    boolean removeCollection(String userId, String articleId);
+
+    boolean isCollected(String userId, String articleId);
+
+    List<UserBehaviorDocument.ArticleRef> findReadHistory(String userId);
+
+    List<UserBehaviorDocument.ArticleRef> findCollections(String userId);
+
+    List<UserBehaviorDocument.FeedRef> findReadFeedHistory(String userId);
+
+    /**
+     * 在阅读历史与收藏的 articleId 上建立多键索引，供按文章反查用户使用。
+     */
+    void ensureArticleIndexes();
+
+    /**
+     * 流式读取阅读历史或收藏中包含任一给定文章的用户（只投影这两个数组），调用方负责关闭流。
+     */
+    Stream<UserBehaviorDocument> streamByArticleIds(Collection<String> articleIds);
+
+    /**
+     * 统计每篇文章出现在多少个用户的阅读历史或收藏中，同一用户只计一次。
+     */
+    Map<String, Integer> countUsersByArticleIds(Collection<String> articleIds);
+
+    /**
+     * 单个用户一批合并后的阅读记录，同一文章/订阅源只出现一次。
+     */
+    record ReadBatch(String userId,
+                     List<UserBehaviorDocument.ArticleRef> articles,
+                     List<UserBehaviorDocument.FeedRef> feeds) {
+    }
+}
@@ -0,0 +1,199 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * 基于 {@link MongoTemplate} 的原子更新实现：阅读记录使用单条管道更新（$filter 去重、$concatArrays 追加、$slice 截断），
+ * 收藏使用条件 $push + $each + $slice，读取时只投影所需数组。
+ */
+@RequiredArgsConstructor
+public class UserBehaviorRepositoryCustomImpl implements UserBehaviorRepositoryCustom {
+
+    private static final String READ_HISTORY = "readHistory";
+    private static final String READ_FEED_HISTORY = "readFeedHistory";
+    private static final String COLLECTIONS = "collections";
+    private static final int CURSOR_BATCH_SIZE = 200;
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void touchReadHistory(String userId,
+                                 UserBehaviorDocument.ArticleRef article, int historyLimit,
+                                 UserBehaviorDocument.FeedRef feed, int feedLimit) {
+        Document set = new Document()
+                .append(READ_HISTORY, replaceEntries(READ_HISTORY, "articleId", List.of(article), historyLimit))
+                .append(READ_FEED_HISTORY, replaceEntries(READ_FEED_HISTORY, "feedId", List.of(feed), feedLimit));
+        collection().updateOne(new Document("_id", userId), List.of(new Document("$set", set)), UPSERT);
+    }
+
+    @Override
+    public void touchReadFeed(String userId, UserBehaviorDocument.FeedRef feed, int limit) {
+        Document set = new Document(READ_FEED_HISTORY, replaceEntries(READ_FEED_HISTORY, "feedId", List.of(feed), limit));
+        collection().updateOne(new Document("_id", userId), List.of(new Document("$set", set)), UPSERT);
+    }
+
+    @Override
+    public void touchReadHistories(List<ReadBatch> batches, int historyLimit, int feedLimit) {
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(batches.size());
+        for (ReadBatch batch : batches) {
+            Document set = new Document();
+            if (!batch.articles().isEmpty()) {
+                set.append(READ_HISTORY, replaceEntries(READ_HISTORY, "articleId", batch.articles(), historyLimit));
+            }
+            if (!batch.feeds().isEmpty()) {
+                set.append(READ_FEED_HISTORY, replaceEntries(READ_FEED_HISTORY, "feedId", batch.feeds(), feedLimit));
+            }
+            if (!set.isEmpty()) {
+                updates.add(new UpdateOneModel<>(new Document("_id", batch.userId()), List.of(new Document("$set", set)), UPSERT));
+            }
+        }
+        if (!updates.isEmpty()) {
+            collection().bulkWrite(updates, new BulkWriteOptions().ordered(true));
+        }
+    }
+
+    @Override
+    public boolean addCollection(String userId, UserBehaviorDocument.ArticleRef article, int limit) {
+        // 条件中排除已收藏的文档：已收藏时不匹配，upsert 以相同 _id 插入而触发唯一键冲突
+        Query query = Query.query(where("_id").is(userId).and(COLLECTIONS + ".articleId").ne(article.getArticleId()));
+        Update push = new Update();
+        push.push(COLLECTIONS).slice(-Math.max(1, limit)).each(article);
+        try {
+            mongoTemplate.upsert(query, push, UserBehaviorDocument.class);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean removeCollection(String userId, String articleId) {
+        return mongoTemplate.updateFirst(byId(userId),
+                new Update().pull(COLLECTIONS, new Document("articleId", articleId)),
+                UserBehaviorDocument.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean isCollected(String userId, String articleId) {
+        return mongoTemplate.exists(Query.query(where("_id").is(userId).and(COLLECTIONS + ".articleId").is(articleId)),
+                UserBehaviorDocument.class);
+    }
+
+    @Override
+    public List<UserBehaviorDocument.ArticleRef> findReadHistory(String userId) {
+        return findArray(userId, READ_HISTORY, UserBehaviorDocument::getReadHistory);
+    }
+
+    @Override
+    public List<UserBehaviorDocument.ArticleRef> findCollections(String userId) {
+        return findArray(userId, COLLECTIONS, UserBehaviorDocument::getCollections);
+    }
+
+    @Override
+    public List<UserBehaviorDocument.FeedRef> findReadFeedHistory(String userId) {
+        return findArray(userId, READ_FEED_HISTORY, UserBehaviorDocument::getReadFeedHistory);
+    }
+
+    @Override
+    public void ensureArticleIndexes() {
+        var indexOps = mongoTemplate.indexOps(UserBehaviorDocument.class);
+        indexOps.ensureIndex(new Index().on(READ_HISTORY + ".articleId", Sort.Direction.ASC).named("read_history_article"));
+        indexOps.ensureIndex(new Index().on(COLLECTIONS + ".articleId", Sort.Direction.ASC).named("collections_article"));
+    }
+
+    @Override
+    public Stream<UserBehaviorDocument> streamByArticleIds(Collection<String> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Stream.empty();
+        }
+        Query query = Query.query(containsAnyArticle(articleIds)).cursorBatchSize(CURSOR_BATCH_SIZE);
+        query.fields().include(READ_HISTORY).include(COLLECTIONS);
+        return mongoTemplate.stream(query, UserBehaviorDocument.class);
+    }
+
+    @Override
+    public Map<String, Integer> countUsersByArticleIds(Collection<String> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = List.copyOf(articleIds);
+        // 阅读与收藏先取并集再展开，同一用户对同一文章只计一次
+        List<Document> pipeline = List.of(
+                new Document("$match", containsAnyArticle(ids).getCriteriaObject()),
+                new Document("$project", new Document("articleIds", new Document("$setUnion", List.of(
+                        new Document("$ifNull", List.of("$" + READ_HISTORY + ".articleId", List.of())),
+                        new Document("$ifNull", List.of("$" + COLLECTIONS + ".articleId", List.of())))))),
+                new Document("$unwind", "$articleIds"),
+                new Document("$match", new Document("articleIds", new Document("$in", ids))),
+                new Document("$group", new Document("_id", "$articleIds").append("users", new Document("$sum", 1))));
+        Map<String, Integer> counts = new HashMap<>(ids.size() * 2);
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserBehaviorDocument.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .forEach(document -> counts.put(document.getString("_id"), document.getInteger("users")));
+        return counts;
+    }
+
+    /**
+     * 管道更新表达式：从数组中过滤掉与新记录同键的旧记录，追加新记录后只保留最后 limit 条。
+     * 去重与追加在同一条更新中完成，同一文章的并发阅读不会留下重复记录。
+     */
+    private Document replaceEntries(String field, String key, List<?> entries, int limit) {
+        List<Document> values = entries.stream()
+                .map(entry -> (Document) mongoTemplate.getConverter().convertToMongoType(entry, TypeInformation.of(entry.getClass())))
+                .toList();
+        List<Object> keys = values.stream().map(value -> value.get(key)).toList();
+        Document kept = new Document("$filter", new Document("input", new Document("$ifNull", List.of("$" + field, List.of())))
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this." + key, new Document("$literal", keys)))))));
+        Document appended = new Document("$concatArrays", List.of(kept, new Document("$literal", values)));
+        return new Document("$slice", List.of(appended, -Math.max(1, limit)));
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserBehaviorDocument.class));
+    }
+
+    private static Criteria containsAnyArticle(Collection<String> articleIds) {
+        return new Criteria().orOperator(
+                where(READ_HISTORY + ".articleId").in(articleIds),
+                where(COLLECTIONS + ".articleId").in(articleIds));
+    }
+
+    private <T> List<T> findArray(String userId, String field, Function<UserBehaviorDocument, List<T>> getter) {
+        Query query = byId(userId);
+        query.fields().include(field);
+        return Optional.ofNullable(mongoTemplate.findOne(query, UserBehaviorDocument.class))
+                .map(getter)
+                .orElse(List.of());
+    }
+
+    private static Query byId(String userId) {
+        return Query.query(where("_id").is(userId));
+    }
+}
@@ -0,0 +1,84 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.infrastructure.vector.PgVectorCodec;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * 用户向量只读访问，走 pgvector 二进制协议，避免经由实体做文本解析。
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEmbeddingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<float[]> findVector(Integer userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        var sql = """
+                SELECT vector_send(embedding) AS embedding FROM user_embeddings WHERE user_id = ?
+                """;
+        List<float[]> results = jdbcTemplate.query(sql,
+                (rs, rowNum) -> PgVectorCodec.decode(rs.getBytes("embedding")), userId);
+        return results.stream().filter(Objects::nonNull).findFirst();
+    }
+
+    public Map<Integer, float[]> findVectors(Collection<Integer> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        var ids = userIds.stream().filter(Objects::nonNull).distinct().toArray(Integer[]::new);
+        var sql = """
+                SELECT user_id, vector_send(embedding) AS embedding
+                FROM user_embeddings
+                WHERE user_id = ANY(?)
+                """;
+        Map<Integer, float[]> vectors = new HashMap<>(ids.length);
+        jdbcTemplate.query(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids)), (RowCallbackHandler) rs -> {
+            float[] vector = PgVectorCodec.decode(rs.getBytes("embedding"));
+            if (vector != null) {
+                vectors.put(rs.getInt("user_id"), vector);
+            }
+        });
+        return vectors;
+    }
+
+    /**
+     * 按 user_id 升序分页遍历用户向量，回调中的数组会被复用。
+     *
+     * @return 本批最后一条记录的 user_id，没有更多数据时返回 afterUserId
+     */
+    public int forEachAfter(int afterUserId, int limit, UserVectorVisitor visitor) {
+        var sql = """
+                SELECT user_id, vector_send(embedding) AS embedding
+                FROM user_embeddings
+                WHERE user_id > ? AND embedding IS NOT NULL
+                ORDER BY user_id
+                LIMIT ?
+                """;
+        float[][] buffer = new float[1][];
+        int[] lastId = {afterUserId};
+        jdbcTemplate.query(sql, ps -> {
+            ps.setInt(1, afterUserId);
+            ps.setInt(2, limit);
+        }, (RowCallbackHandler) rs -> {
+            lastId[0] = rs.getInt("user_id");
+            buffer[0] = PgVectorCodec.decode(rs.getBytes("embedding"), buffer[0]);
+            if (buffer[0] != null) {
+                visitor.accept(lastId[0], buffer[0]);
+            }
+        });
+        return lastId[0];
+    }
+
+    @FunctionalInterface
+    public interface UserVectorVisitor {
+        void accept(int userId, float[] vector);
+    }
+}
@@ -0,0 +1,125 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.domain.document.UserEventBucketDocument;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * user_event_buckets 集合访问：追加事件为单条 upsert，读取最近事件按 (userId, bucketStart desc) 索引顺序扫描，
+ * 取满 limit 条即关闭游标。
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEventBucketRepository {
+
+    private static final String USER_ID = "userId";
+    private static final String BUCKET_START = "bucketStart";
+    private static final String COUNT = "count";
+    private static final String EVENTS = "events";
+    private static final int CURSOR_BATCH_SIZE = 16;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * 创建查询索引；retention 为正时在 bucketStart 上建立 TTL 索引，过期桶由 Mongo 自动删除。
+     */
+    public void ensureIndexes(Duration retention) {
+        var indexOps = mongoTemplate.indexOps(UserEventBucketDocument.class);
+        indexOps.ensureIndex(new Index().on(USER_ID, Sort.Direction.ASC).on(BUCKET_START, Sort.Direction.DESC)
+                .named("user_bucket_desc"));
+        if (retention != null && !retention.isZero() && !retention.isNegative()) {
+            indexOps.ensureIndex(new Index().on(BUCKET_START, Sort.Direction.ASC).expire(retention)
+                    .named("bucket_ttl"));
+        }
+    }
+
+    /**
+     * 追加一条事件到用户当前时间桶；桶已写满时条件不匹配，upsert 自动为同一时间段新建一个桶。
+     */
+    public void append(Integer userId, Instant bucketStart, UserEventBucketDocument.Event event, int maxEventsPerBucket) {
+        Query query = Query.query(where(USER_ID).is(userId)
+                .and(BUCKET_START).is(bucketStart)
+                .and(COUNT).lt(Math.max(1, maxEventsPerBucket)));
+        Update update = new Update().push(EVENTS, event).inc(COUNT, 1);
+        mongoTemplate.upsert(query, update, UserEventBucketDocument.class);
+    }
+
+    /**
+     * 读取用户 since 之后最近的 limit 条事件，按时间倒序。since 应按桶长度对齐，以便只按桶起点过滤。
+     */
+    public List<UserEventBucketDocument.Event> findRecent(Integer userId, Instant since, int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
+        Query query = Query.query(bucketCriteria(where(USER_ID).is(userId), since))
+                .with(Sort.by(Sort.Direction.DESC, BUCKET_START))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+        List<UserEventBucketDocument.Event> events = new ArrayList<>();
+        try (Stream<UserEventBucketDocument> buckets = mongoTemplate.stream(query, UserEventBucketDocument.class)) {
+            Iterator<UserEventBucketDocument> iterator = buckets.iterator();
+            Instant boundary = null;
+            while (iterator.hasNext()) {
+                UserEventBucketDocument bucket = iterator.next();
+                // 同一时间段可能有多个桶，需读完该时间段后才能确定最近的 limit 条
+                if (boundary != null && events.size() >= limit && bucket.getBucketStart().isBefore(boundary)) {
+                    break;
+                }
+                boundary = bucket.getBucketStart();
+                collect(bucket, since, events);
+            }
+        }
+        return newestFirst(events, limit);
+    }
+
+    /**
+     * 批量读取多个用户 since 之后的最近事件；没有事件的用户不出现在结果中。
+     * 每个用户单独走 (userId, bucketStart desc) 索引并在取满后关闭游标，不会读到用户更早的桶。
+     */
+    public Map<Integer, List<UserEventBucketDocument.Event>> findRecent(Collection<Integer> userIds, Instant since, int limit) {
+        if (userIds == null || userIds.isEmpty() || limit <= 0) {
+            return Map.of();
+        }
+        List<Integer> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Integer, List<UserEventBucketDocument.Event>> results = new HashMap<>(ids.size() * 2);
+        for (Integer userId : ids) {
+            List<UserEventBucketDocument.Event> events = findRecent(userId, since, limit);
+            if (!events.isEmpty()) {
+                results.put(userId, events);
+            }
+        }
+        return results;
+    }
+
+    private static Criteria bucketCriteria(Criteria criteria, Instant since) {
+        return since == null ? criteria : criteria.and(BUCKET_START).gte(since);
+    }
+
+    private static void collect(UserEventBucketDocument bucket, Instant since, List<UserEventBucketDocument.Event> sink) {
+        if (bucket.getEvents() == null) {
+            return;
+        }
+        for (UserEventBucketDocument.Event event : bucket.getEvents()) {
+            if (event.getTimestamp() != null && (since == null || !event.getTimestamp().isBefore(since))) {
+                sink.add(event);
+            }
+        }
+    }
+
+    private static List<UserEventBucketDocument.Event> newestFirst(List<UserEventBucketDocument.Event> events, int limit) {
+        events.sort(Comparator.comparing(UserEventBucketDocument.Event::getTimestamp).reversed());
+        return events.size() > limit ? new ArrayList<>(events.subList(0, limit)) : events;
+    }
+}
@@ -0,0 +1,99 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.domain.record.UserInterestProfileRecord;
+import org.bitmagic.ifeed.infrastructure.util.JSON;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * user_interest_profiles 表访问：每个用户一行，各维度得分以 jsonb 存储，读取即单行点查。
+ * <p>
+ * 写入基于 version 乐观锁，调用方在冲突时重新读取后重试。
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserInterestProfileRepository {
+
+    private static final TypeReference<Map<String, Map<String, Double>>> SCORES_TYPE = new TypeReference<>() {
+    };
+
+    private static final RowMapper<UserInterestProfileRecord> ROW_MAPPER = UserInterestProfileRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<UserInterestProfileRecord> findById(Integer userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        var sql = """
+                SELECT user_id, version, decay_anchor, scores, rebuild_pending
+                FROM user_interest_profiles WHERE user_id = ?
+                """;
+        List<UserInterestProfileRecord> results = jdbcTemplate.query(sql, ROW_MAPPER, userId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    /**
+     * 画像版本号，不存在时返回 0。
+     */
+    public long findVersion(Integer userId) {
+        var sql = "SELECT version FROM user_interest_profiles WHERE user_id = ?";
+        List<Long> versions = jdbcTemplate.queryForList(sql, Long.class, userId);
+        return versions.isEmpty() ? 0L : versions.getFirst();
+    }
+
+    /**
+     * 写入新画像，仅当库中版本等于 {@code expectedVersion}（0 表示尚不存在）时成功，成功后版本为 expectedVersion + 1。
+     */
+    public boolean save(UserInterestProfileRecord profile, long expectedVersion) {
+        var scores = JSON.toJson(profile.scores());
+        var anchor = Timestamp.from(profile.decayAnchor());
+        if (expectedVersion == 0L) {
+            var sql = """
+                    INSERT INTO user_interest_profiles (user_id, version, decay_anchor, scores, rebuild_pending, updated_at)
+                    VALUES (?, 1, ?, ?::jsonb, ?, now())
+                    ON CONFLICT (user_id) DO NOTHING
+                    """;
+            return jdbcTemplate.update(sql, profile.userId(), anchor, scores, profile.rebuildPending()) == 1;
+        }
+        var sql = """
+                UPDATE user_interest_profiles
+                SET version = version + 1, decay_anchor = ?, scores = ?::jsonb, rebuild_pending = ?, updated_at = now()
+                WHERE user_id = ? AND version = ?
+                """;
+        return jdbcTemplate.update(sql, anchor, scores, profile.rebuildPending(), profile.userId(), expectedVersion) == 1;
+    }
+
+    /**
+     * 标记画像需要从完整行为历史重建（如取消收藏后无法按增量扣减），同时递增版本使下游缓存失效。
+     */
+    public void markRebuildPending(Integer userId) {
+        var sql = """
+                UPDATE user_interest_profiles
+                SET rebuild_pending = TRUE, version = version + 1, updated_at = now()
+                WHERE user_id = ?
+                """;
+        jdbcTemplate.update(sql, userId);
+    }
+
+    private static UserInterestProfileRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp anchor = rs.getTimestamp("decay_anchor");
+        String scores = rs.getString("scores");
+        return new UserInterestProfileRecord(
+                rs.getInt("user_id"),
+                rs.getLong("version"),
+                anchor == null ? null : anchor.toInstant(),
+                scores == null ? Map.of() : JSON.fromJson(scores, SCORES_TYPE),
+                rs.getBoolean("rebuild_pending"));
+    }
+}
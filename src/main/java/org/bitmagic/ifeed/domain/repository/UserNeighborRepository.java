@@ -0,0 +1,99 @@
+package org.bitmagic.ifeed.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.domain.record.UserNeighborRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * user_neighbors 表访问：每个用户一行，相似用户 ID 与得分以数组存储，查询即单行点查。
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserNeighborRepository {
+
+    private static final RowMapper<UserNeighborRecord> ROW_MAPPER = UserNeighborRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<UserNeighborRecord> findById(Integer userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        var sql = """
+                SELECT user_id, neighbor_ids, scores FROM user_neighbors WHERE user_id = ?
+                """;
+        List<UserNeighborRecord> results = jdbcTemplate.query(sql, ROW_MAPPER, userId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    /**
+     * 需要（重新）计算相似用户的用户：尚无结果、用户向量在上次计算后有更新，或结果早于 staleBefore。
+     * 从未计算过的用户优先，其余按计算时间从旧到新。
+     */
+    public List<Integer> findUserIdsToRefresh(Instant staleBefore, int limit) {
+        var sql = """
+                SELECT e.user_id
+                FROM user_embeddings e
+                LEFT JOIN user_neighbors n ON n.user_id = e.user_id
+                WHERE e.embedding IS NOT NULL
+                  AND (n.user_id IS NULL OR n.updated_at < e.updated_at OR n.updated_at < ?)
+                ORDER BY n.updated_at NULLS FIRST
+                LIMIT ?
+                """;
+        return jdbcTemplate.queryForList(sql, Integer.class, Timestamp.from(staleBefore), limit);
+    }
+
+    public void saveAll(List<UserNeighborRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        var sql = """
+                INSERT INTO user_neighbors (user_id, neighbor_ids, scores, updated_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (user_id) DO UPDATE
+                SET neighbor_ids = EXCLUDED.neighbor_ids,
+                    scores = EXCLUDED.scores,
+                    updated_at = EXCLUDED.updated_at
+                """;
+        jdbcTemplate.batchUpdate(sql, records, records.size(), (ps, record) -> {
+            int size = record.size();
+            Integer[] neighborIds = new Integer[size];
+            Float[] scores = new Float[size];
+            for (int i = 0; i < size; i++) {
+                neighborIds[i] = record.neighborIds()[i];
+                scores[i] = record.scores()[i];
+            }
+            ps.setInt(1, record.userId());
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", neighborIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("real", scores));
+        });
+    }
+
+    private static UserNeighborRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        int userId = rs.getInt("user_id");
+        Object[] ids = toArray(rs.getArray("neighbor_ids"));
+        Object[] scores = toArray(rs.getArray("scores"));
+        int size = Math.min(ids.length, scores.length);
+        int[] neighborIds = new int[size];
+        float[] neighborScores = new float[size];
+        for (int i = 0; i < size; i++) {
+            neighborIds[i] = ((Number) ids[i]).intValue();
+            neighborScores[i] = ((Number) scores[i]).floatValue();
+        }
+        return new UserNeighborRecord(userId, neighborIds, neighborScores);
+    }
+
+    private static Object[] toArray(Array array) throws SQLException {
+        return array == null ? new Object[0] : (Object[]) array.getArray();
+    }
+}
@@ -1,9 +1,28 @@
 package org.bitmagic.ifeed.domain.repository;
 
+import jakarta.persistence.LockModeType;
 import org.bitmagic.ifeed.domain.model.UserVectorStore;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface UserVectorRepository extends JpaRepository<UserVectorStore, Integer> {
 
+    /**
+     * 有增量更新但尚未压缩的用户，供定时全量重建使用。
+     */
+    @Query("select u.userId from UserVectorStore u where u.compactionPending = true")
+    List<Integer> findUserIdsPendingCompaction();
+
+    /**
+     * 加行锁读取用户向量（SELECT ... FOR UPDATE），读改写期间阻塞同一用户的其他更新。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserVectorStore u where u.userId = :userId")
+    Optional<UserVectorStore> findByIdForUpdate(@Param("userId") Integer userId);
 
 }
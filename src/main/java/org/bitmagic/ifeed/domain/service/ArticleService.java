@@ -1,20 +1,25 @@
 package org.bitmagic.ifeed.domain.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rometools.utils.Strings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.api.response.UserSubscriptionInsightResponse;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
 import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.model.Feed;
+import org.bitmagic.ifeed.domain.record.ArticleCursor;
+import org.bitmagic.ifeed.domain.record.ArticleScroll;
 import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.bitmagic.ifeed.domain.repository.ArticleStatsRepository;
 import org.bitmagic.ifeed.domain.repository.FeedRepository;
 import org.bitmagic.ifeed.exception.ApiException;
 import org.bitmagic.ifeed.infrastructure.text.search.Document;
 import org.bitmagic.ifeed.infrastructure.text.search.TextSearchStore;
 import org.bitmagic.ifeed.infrastructure.util.JSON;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -29,10 +34,11 @@ import java.util.stream.Collectors;
 public class ArticleService {
 
     private final ArticleRepository articleRepository;
+    private final ArticleStatsRepository articleStatsRepository;
     private final FeedRepository feedRepository;
     private final TextSearchStore textSearchStore;
+    private final ApplicationEventPublisher eventPublisher;
     //    private final ArticleTsvRepository articleTsvRepository;
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final TypeReference<List<String>> TAGS_TYPE = new TypeReference<>() {
     };
 
@@ -50,6 +56,11 @@ public class ArticleService {
             metadata.put("pubDate", a.getPublishedAt() != null ? a.getPublishedAt().getEpochSecond() : 0L);
             return new Document(a.getId(), a.getFeed().getId(), a.getContent(), metadata);
         }).collect(Collectors.toList()));
+        eventPublisher.publishEvent(new ArticlesIngestedEvent(articles.stream()
+                .filter(a -> a.getId() != null)
+                .map(a -> new ArticlesIngestedEvent.IngestedArticle(a.getId(), a.getUid(), a.getFeed().getId(),
+                        a.getPublishedAt(), a.getTitle()))
+                .toList()));
     }
 
     public Page<ArticleSummaryView> listArticles(Integer ownerId,
@@ -57,6 +68,46 @@ public class ArticleService {
                                                  Set<String> tags,
                                                  String category,
                                                  boolean includeGlobal, Pageable pageable) {
+        var filter = resolveFilter(ownerId, feedUid, tags, category, includeGlobal);
+        return articleRepository.findArticleSummaries(filter.feedUid(), filter.tagPattern(), filter.category(),
+                filter.ownerId(), filter.start(), pageable);
+    }
+
+    /**
+     * 游标分页列出文章，筛选条件与 {@link #listArticles} 相同，按 (publishedAt desc, id desc) 排序且不执行 count 查询。
+     */
+    public ArticleScroll scrollArticles(Integer ownerId,
+                                        UUID feedUid,
+                                        Set<String> tags,
+                                        String category,
+                                        boolean includeGlobal,
+                                        ArticleCursor cursor,
+                                        int size) {
+        var filter = resolveFilter(ownerId, feedUid, tags, category, includeGlobal);
+        var fetched = articleRepository.scrollArticleSummaries(filter.feedUid(), filter.tagPattern(), filter.category(),
+                filter.ownerId(), filter.start(), cursor.publishedAt(), cursor.id(), PageRequest.ofSize(size + 1));
+        return ArticleScroll.of(fetched, size);
+    }
+
+    /**
+     * 文章总数的近似值，按筛选条件缓存在 ARTICLE-COUNTS 中，缓存过期前新入库的文章不会计入。
+     */
+    @Cacheable(cacheNames = "ARTICLE-COUNTS", key = "{#ownerId, #feedUid, #tags, #category, #includeGlobal}")
+    public long estimateArticleCount(Integer ownerId,
+                                     UUID feedUid,
+                                     Set<String> tags,
+                                     String category,
+                                     boolean includeGlobal) {
+        var filter = resolveFilter(ownerId, feedUid, tags, category, includeGlobal);
+        return articleRepository.countArticleSummaries(filter.feedUid(), filter.tagPattern(), filter.category(),
+                filter.ownerId(), filter.start());
+    }
+
+    private ArticleFilter resolveFilter(Integer ownerId,
+                                        UUID feedUid,
+                                        Set<String> tags,
+                                        String category,
+                                        boolean includeGlobal) {
         var tagPattern = buildTagPattern(tags);
         var scopeOwnerId = Objects.nonNull(feedUid) || includeGlobal ? null : ownerId;
         Instant start = Instant.ofEpochSecond(0);
@@ -66,7 +117,7 @@ public class ArticleService {
                 start = LocalDate.now().atStartOfDay().atZone(ZoneId.systemDefault()).toInstant();
             }
         }
-        return articleRepository.findArticleSummaries(feedUid, tagPattern, category, scopeOwnerId, start, pageable);
+        return new ArticleFilter(feedUid, tagPattern, category, scopeOwnerId, start);
     }
 
 
@@ -119,6 +170,25 @@ public class ArticleService {
         return articleRepository.searchArticleSummaries(term, scopeOwnerId, pageable);
     }
 
+    /**
+     * 关键词搜索的游标分页版本，按 (publishedAt desc, id desc) 排序。
+     */
+    public ArticleScroll scrollSearchArticles(Integer ownerId,
+                                              String query,
+                                              boolean includeGlobal,
+                                              ArticleCursor cursor,
+                                              int size) {
+        if (query == null || query.isBlank()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+
+        var term = "%" + query.trim().toLowerCase() + "%";
+        var scopeOwnerId = includeGlobal ? null : ownerId;
+        var fetched = articleRepository.scrollSearchArticleSummaries(term, scopeOwnerId,
+                cursor.publishedAt(), cursor.id(), PageRequest.ofSize(size + 1));
+        return ArticleScroll.of(fetched, size);
+    }
+
 
     private String buildTagPattern(Set<String> tags) {
         if (tags == null || tags.isEmpty()) {
@@ -139,12 +209,17 @@ public class ArticleService {
 
     /**
      * Aggregate categories and tags for user's visible articles within window.
+     * Served from the per-feed, per-day materialized stats, so the window is widened to whole UTC days.
      */
     public UserSubscriptionInsightResponse insights(Integer ownerId,
                                                     Instant fromTs,
                                                     Instant toTs,
                                                     Integer topN) {
-        var rows = articleRepository.countCategoriesForOwnerWithin(ownerId, fromTs, toTs);
+        var limit = topN == null || topN <= 0 ? 20 : topN;
+        var fromDay = LocalDate.ofInstant(fromTs, ZoneOffset.UTC);
+        var toDay = LocalDate.ofInstant(toTs, ZoneOffset.UTC);
+
+        var rows = articleStatsRepository.countCategories(ownerId, fromDay, toDay);
         var categories = new ArrayList<UserSubscriptionInsightResponse.CategoryCount>();
         categories.add(new UserSubscriptionInsightResponse.CategoryCount("Today", 0));
         for (var row : rows) {
@@ -153,31 +228,13 @@ public class ArticleService {
             categories.add(new UserSubscriptionInsightResponse.CategoryCount(category, cnt));
         }
 
-        var tagJsonList = articleRepository.findTagJsonForOwnerWithin(ownerId, fromTs, toTs);
-        var tagCounter = new HashMap<String, Long>();
-        for (var raw : tagJsonList) {
-            try {
-                var tags = OBJECT_MAPPER.readValue(raw, TAGS_TYPE);
-                if (tags != null) {
-                    for (var t : tags) {
-                        if (t != null) {
-                            var key = t.trim().toLowerCase();
-                            if (!key.isEmpty()) {
-                                tagCounter.merge(key, 1L, Long::sum);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception ignored) {
-            }
-        }
+        var hotTags = articleStatsRepository.topTags(ownerId, fromDay, toDay, limit).stream()
+                .map(row -> new UserSubscriptionInsightResponse.TagCount((String) row[0], (Long) row[1]))
+                .toList();
 
-        var hotTags = tagCounter.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(topN == null || topN <= 0 ? 20 : topN)
-                .map(e -> new UserSubscriptionInsightResponse.TagCount(e.getKey(), e.getValue()))
-                .collect(java.util.stream.Collectors.toList());
+        return new UserSubscriptionInsightResponse(categories.subList(0, Math.min(categories.size(), limit)), hotTags);
+    }
 
-        return new UserSubscriptionInsightResponse(categories.subList(0, Math.min(categories.size(), topN == null || topN <= 0 ? 20 : topN)), hotTags);
+    private record ArticleFilter(UUID feedUid, String tagPattern, String category, Integer ownerId, Instant start) {
     }
 }
@@ -1,6 +1,7 @@
 package org.bitmagic.ifeed.domain.service;
 
 import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.config.security.SessionTokenCache;
 import org.bitmagic.ifeed.domain.model.User;
 import org.bitmagic.ifeed.domain.model.UserSession;
 import org.bitmagic.ifeed.domain.repository.UserRepository;
@@ -27,6 +28,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserSessionRepository userSessionRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SessionTokenCache sessionTokenCache;
     private final SecureRandom secureRandom = new SecureRandom();
 
     @Transactional
@@ -86,6 +88,7 @@ public class AuthService {
         }
 
         userSessionRepository.findByToken(token).ifPresent(userSessionRepository::delete);
+        sessionTokenCache.invalidate(token);
     }
 
     @Cacheable(cacheNames = "USERS", key = "#p0", unless = "#result == null")
@@ -96,6 +99,7 @@ public class AuthService {
     private AuthToken issueToken(User user) {
         userSessionRepository.findByUser(user).ifPresent(session -> {
             userSessionRepository.deleteByToken(session.getToken());
+            sessionTokenCache.invalidate(session.getToken());
         });
 
         var token = generateToken();
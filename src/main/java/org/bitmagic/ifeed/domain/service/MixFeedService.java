@@ -8,6 +8,8 @@ import org.bitmagic.ifeed.domain.model.MixFeed;
 import org.bitmagic.ifeed.domain.model.SourceType;
 import org.bitmagic.ifeed.domain.model.User;
 import org.bitmagic.ifeed.domain.model.value.MixFeedFilterConfig;
+import org.bitmagic.ifeed.domain.record.ArticleCursor;
+import org.bitmagic.ifeed.domain.record.ArticleScroll;
 import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.domain.repository.MixFeedRepository;
@@ -18,6 +20,7 @@ import org.bitmagic.ifeed.infrastructure.util.JSON;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -162,6 +165,28 @@ public class MixFeedService {
      */
     @Transactional(readOnly = true)
     public Page<ArticleSummaryView> getFilteredArticles(UUID mixFeedUid, Integer userId, Pageable pageable) {
+        // Execute query and map results
+        return articleRepository.findAll(filterSpec(mixFeedUid, userId), pageable).map(this::toSummaryView);
+    }
+
+    /**
+     * Cursor-based variant of {@link #getFilteredArticles}: seeks past the cursor on (publishedAt, id)
+     * and skips the count query.
+     */
+    @Transactional(readOnly = true)
+    public ArticleScroll scrollFilteredArticles(UUID mixFeedUid, Integer userId, ArticleCursor cursor, int size) {
+        Specification<Article> spec = filterSpec(mixFeedUid, userId).and(MixFeedSpecs.publishedBefore(cursor));
+        List<ArticleSummaryView> fetched = articleRepository.findBy(spec, query -> query
+                        .sortBy(Sort.by(Sort.Direction.DESC, "publishedAt", "id"))
+                        .limit(size + 1)
+                        .all())
+                .stream()
+                .map(this::toSummaryView)
+                .toList();
+        return ArticleScroll.of(fetched, size);
+    }
+
+    private Specification<Article> filterSpec(UUID mixFeedUid, Integer userId) {
         MixFeed mixFeed = getById(mixFeedUid);
 
         // Check access
@@ -184,13 +209,9 @@ public class MixFeedService {
         Instant toDate = config.getDateRange() != null ? config.getDateRange().getTo() : null;
 
         // Build Specification
-        Specification<Article> spec = MixFeedSpecs.mixFeedArticles(sourceFeedIds, fromDate, toDate, includeKeywords, excludeKeywords);
-
-        // Execute query and map results
-        return articleRepository.findAll(spec, pageable).map(this::toSummaryView);
+        return MixFeedSpecs.mixFeedArticles(sourceFeedIds, fromDate, toDate, includeKeywords, excludeKeywords);
     }
 
-
     private ArticleSummaryView toSummaryView(org.bitmagic.ifeed.domain.model.Article article) {
         return new ArticleSummaryView(
                 article.getUid(),
@@ -2,14 +2,18 @@ package org.bitmagic.ifeed.domain.service;
 
 import lombok.RequiredArgsConstructor;
 import org.bitmagic.ifeed.api.response.CollectionItemResponse;
+import org.bitmagic.ifeed.config.properties.UserBehaviorProperties;
 import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
 import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.model.User;
 import org.bitmagic.ifeed.domain.record.ArticleSummary;
 import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
+import org.bitmagic.ifeed.domain.record.ArticleTitle;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
 import org.bitmagic.ifeed.exception.ApiException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -28,72 +32,55 @@ public class UserCollectionService {
 
     private final UserBehaviorRepository userBehaviorRepository;
     private final ArticleRepository articleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserBehaviorProperties userBehaviorProperties;
 
     @Transactional
     public void addToCollection(Integer userId, UUID articleId) {
         var article = articleRepository.findOne((root, query, cb) -> cb.equal(root.get("uid"), articleId))
                 .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Article not found"));
 
-        var document = getOrCreateDocument(userId);
-        ensureCollectionsInitialized(document);
-
-        var articleIdValue = article.getUid().toString();
-        var exists = document.getCollections().stream()
-                .anyMatch(item -> articleIdValue.equals(item.getArticleId()));
-
-        if (exists) {
+        var now = Instant.now();
+        var added = userBehaviorRepository.addCollection(userId.toString(), UserBehaviorDocument.ArticleRef.builder()
+                .articleId(article.getUid().toString())
+                .timestamp(now)
+                .build(), userBehaviorProperties.getCollectionLimit());
+        if (!added) {
             throw new ApiException(HttpStatus.CONFLICT, "Article already collected");
         }
 
-        document.getCollections().add(UserBehaviorDocument.ArticleRef.builder()
-                .articleId(articleIdValue)
-                .timestamp(Instant.now())
-                .build());
-
-        userBehaviorRepository.save(document);
+        eventPublisher.publishEvent(new UserInteractionEvent(userId, article.getId(), article.getUid(),
+                article.getFeed().getId(), UserInteractionEvent.Action.COLLECT, now));
     }
 
     @Transactional
     public void removeFromCollection(Integer userId, UUID articleId) {
-        var document = userBehaviorRepository.findById(userId.toString())
-                .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Article not collected"));
-
-        ensureCollectionsInitialized(document);
-
-        var removed = document.getCollections().removeIf(item -> articleId.toString().equals(item.getArticleId()));
-        if (!removed) {
+        if (!userBehaviorRepository.removeCollection(userId.toString(), articleId.toString())) {
             throw new ApiException(HttpStatus.NOT_FOUND, "Article not collected");
         }
 
-        userBehaviorRepository.save(document);
+        // 带上数值 ID，下游按 ID 维护的计数（如热度）才能扣回收藏权重
+        var articleIdValue = articleRepository.findIdByUIdIn(List.of(articleId)).stream()
+                .findFirst()
+                .map(ArticleTitle::id)
+                .orElse(null);
+        eventPublisher.publishEvent(new UserInteractionEvent(userId, articleIdValue, articleId, null,
+                UserInteractionEvent.Action.UNCOLLECT, Instant.now()));
     }
 
     @Transactional(readOnly = true)
     public boolean isCollected(Integer userId, UUID articleId) {
-        var document = userBehaviorRepository.findById(userId.toString()).orElse(null);
-        if (document == null) {
-            return false;
-        }
-
-        ensureCollectionsInitialized(document);
-        var articleIdValue = articleId.toString();
-        return document.getCollections().stream()
-                .anyMatch(item -> articleIdValue.equals(item.getArticleId()));
+        return userBehaviorRepository.isCollected(userId.toString(), articleId.toString());
     }
 
     @Transactional(readOnly = true)
     public Page<CollectionItemResponse> listCollections(Integer userId, Pageable pageable) {
-        var document = userBehaviorRepository.findById(userId.toString()).orElse(null);
-        if (document == null) {
+        var collections = userBehaviorRepository.findCollections(userId.toString());
+        if (collections == null || collections.isEmpty()) {
             return Page.empty(pageable);
         }
 
-        ensureCollectionsInitialized(document);
-        if (document.getCollections().isEmpty()) {
-            return Page.empty(pageable);
-        }
-
-        var sorted = sortCollections(document, pageable);
+        var sorted = sortCollections(collections, pageable);
         var total = sorted.size();
         var fromIndex = Math.min((int) pageable.getOffset(), total);
         var toIndex = Math.min(fromIndex + pageable.getPageSize(), total);
@@ -119,7 +106,7 @@ public class UserCollectionService {
         return new PageImpl<>(content, pageable, total);
     }
 
-    private List<UserBehaviorDocument.ArticleRef> sortCollections(UserBehaviorDocument document, Pageable pageable) {
+    private List<UserBehaviorDocument.ArticleRef> sortCollections(List<UserBehaviorDocument.ArticleRef> collections, Pageable pageable) {
         var comparator = Comparator.comparing(UserBehaviorDocument.ArticleRef::getTimestamp);
         var order = pageable.getSort().getOrderFor("collectedAt");
         if (order == null) {
@@ -128,21 +115,8 @@ public class UserCollectionService {
         if (order == null || order.isDescending()) {
             comparator = comparator.reversed();
         }
-        return new ArrayList<>(document.getCollections()).stream()
+        return collections.stream()
                 .sorted(comparator)
                 .toList();
     }
-
-    private UserBehaviorDocument getOrCreateDocument(Integer userId) {
-        return userBehaviorRepository.findById(userId.toString())
-                .orElseGet(() -> UserBehaviorDocument.builder()
-                        .id(userId.toString())
-                        .build());
-    }
-
-    private void ensureCollectionsInitialized(UserBehaviorDocument document) {
-        if (document.getCollections() == null) {
-            document.setCollections(new ArrayList<>());
-        }
-    }
 }
@@ -1,9 +1,13 @@
 package org.bitmagic.ifeed.domain.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.api.response.CollectionItemResponse;
 import org.bitmagic.ifeed.api.response.ReadHistoryItemResponse;
+import org.bitmagic.ifeed.config.properties.UserBehaviorProperties;
 import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
 import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.model.User;
 import org.bitmagic.ifeed.domain.record.ArticleSummary;
@@ -11,6 +15,8 @@ import org.bitmagic.ifeed.domain.record.ArticleSummaryView;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
 import org.bitmagic.ifeed.exception.ApiException;
+import org.bitmagic.ifeed.infrastructure.behavior.ReadHistoryWriteBuffer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -19,77 +25,112 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserHistoryService {
 
     private final UserBehaviorRepository userBehaviorRepository;
     private final ArticleRepository articleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserBehaviorProperties userBehaviorProperties;
+    private final ReadHistoryWriteBuffer readHistoryWriteBuffer;
+
+    /**
+     * 按用户缓存的文章阅读时间（文章 → 最近一次阅读），未命中时整体加载一次阅读历史，之后随每次阅读更新。
+     */
+    private final Cache<String, Map<String, Instant>> readTimes;
+
+    public UserHistoryService(UserBehaviorRepository userBehaviorRepository,
+                              ArticleRepository articleRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              UserBehaviorProperties userBehaviorProperties,
+                              ReadHistoryWriteBuffer readHistoryWriteBuffer) {
+        this.userBehaviorRepository = userBehaviorRepository;
+        this.articleRepository = articleRepository;
+        this.eventPublisher = eventPublisher;
+        this.userBehaviorProperties = userBehaviorProperties;
+        this.readHistoryWriteBuffer = readHistoryWriteBuffer;
+        this.readTimes = Caffeine.newBuilder()
+                .maximumSize(userBehaviorProperties.getReadAtCacheSize())
+                .expireAfterAccess(userBehaviorProperties.getReadAtCacheTtl())
+                .build();
+    }
 
     @Transactional
     public void recordHistory(Integer userId, UUID articleId, Instant readAt) {
         var article = articleRepository.findOne((root, query, cb) -> cb.equal(root.get("uid"), articleId))
                 .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Article not found"));
 
-        var document = getOrCreateDocument(userId);
-        ensureReadHistoryInitialized(document);
-
-        var articleIdValue = article.getUid().toString();
         var timestamp = readAt != null ? readAt : Instant.now();
-//      添加文章阅读记录
-        var existing = document.getReadHistory().stream()
-                .filter(item -> articleIdValue.equals(item.getArticleId()))
-                .findFirst()
-                .orElse(null);
-
-        if (existing != null) {
-            existing.setTimestamp(timestamp);
-        } else {
-            document.getReadHistory().add(UserBehaviorDocument.ArticleRef.builder()
-                    .articleId(articleIdValue)
-                    .timestamp(timestamp)
-                    .build());
+        var articleUid = article.getUid().toString();
+        var feedUid = article.getFeed().getUid().toString();
+        // 写入前取上一次阅读时间：缓冲区中未落库的阅读优先，其次是按用户缓存的阅读时间，不在每次阅读时查询 Mongo
+        var previousReadAt = previousReadAt(userId.toString(), articleUid);
+        // 优先写入写后缓冲；未启用或缓冲区满载时同步执行单条管道更新（去重、追加、截断在同一次原子写入中完成）
+        if (!readHistoryWriteBuffer.offer(userId.toString(), articleUid, feedUid, timestamp)) {
+            userBehaviorRepository.touchReadHistory(userId.toString(),
+                    UserBehaviorDocument.ArticleRef.builder()
+                            .articleId(articleUid)
+                            .timestamp(timestamp)
+                            .build(),
+                    userBehaviorProperties.getReadHistoryLimit(),
+                    UserBehaviorDocument.FeedRef.builder()
+                            .feedId(feedUid)
+                            .timestamp(timestamp)
+                            .build(),
+                    userBehaviorProperties.getReadFeedHistoryLimit());
         }
+        var cached = readTimes.getIfPresent(userId.toString());
+        if (cached != null) {
+            cached.merge(articleUid, timestamp, (left, right) -> left.isAfter(right) ? left : right);
+        }
+        eventPublisher.publishEvent(new UserInteractionEvent(userId, article.getId(), article.getUid(),
+                article.getFeed().getId(), UserInteractionEvent.Action.READ, timestamp, previousReadAt));
+    }
 
-        //      添加feed阅读记录
-        var feedIdValue = article.getFeed().getUid().toString();
-        var feedExisting = document.getReadFeedHistory().stream()
-                .filter(item -> feedIdValue.equals(item.getFeedId()))
-                .findFirst()
-                .orElse(null);
-
-        if (feedExisting != null) {
-            feedExisting.setTimestamp(timestamp);
-        } else {
-            document.getReadFeedHistory().add(UserBehaviorDocument.FeedRef.builder()
-                    .feedId(feedIdValue)
-                    .timestamp(timestamp)
-                    .build());
+    private Instant previousReadAt(String userId, String articleId) {
+        Instant pending = readHistoryWriteBuffer.pendingReadAt(userId, articleId).orElse(null);
+        Instant cached;
+        try {
+            cached = readTimes.get(userId, this::loadReadTimes).get(articleId);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to load read times for user {}", userId, ex);
+            return pending;
         }
+        if (pending == null || cached == null) {
+            return pending != null ? pending : cached;
+        }
+        return pending.isAfter(cached) ? pending : cached;
+    }
 
-        userBehaviorRepository.save(document);
+    private Map<String, Instant> loadReadTimes(String userId) {
+        Map<String, Instant> times = new ConcurrentHashMap<>();
+        var history = userBehaviorRepository.findReadHistory(userId);
+        if (history != null) {
+            history.stream()
+                    .filter(ref -> ref.getArticleId() != null && ref.getTimestamp() != null)
+                    .forEach(ref -> times.merge(ref.getArticleId(), ref.getTimestamp(),
+                            (left, right) -> left.isAfter(right) ? left : right));
+        }
+        return times;
     }
 
     @Transactional(readOnly = true)
     public Page<ReadHistoryItemResponse> listHistory(Integer userId, Pageable pageable) {
-        var document = userBehaviorRepository.findById(userId.toString()).orElse(null);
-        if (document == null) {
-            return Page.empty(pageable);
-        }
-        ensureReadHistoryInitialized(document);
-        if (document.getReadHistory().isEmpty()) {
+        var history = userBehaviorRepository.findReadHistory(userId.toString());
+        if (history == null || history.isEmpty()) {
             return Page.empty(pageable);
         }
 
-        var sorted = sortHistory(document, pageable);
+        var sorted = sortHistory(history, pageable);
         var total = sorted.size();
         var fromIndex = Math.min((int) pageable.getOffset(), total);
         var toIndex = Math.min(fromIndex + pageable.getPageSize(), total);
@@ -115,7 +156,7 @@ public class UserHistoryService {
         return new PageImpl<>(content, pageable, total);
     }
 
-    private List<UserBehaviorDocument.ArticleRef> sortHistory(UserBehaviorDocument document, Pageable pageable) {
+    private List<UserBehaviorDocument.ArticleRef> sortHistory(List<UserBehaviorDocument.ArticleRef> history, Pageable pageable) {
         var comparator = Comparator.comparing(UserBehaviorDocument.ArticleRef::getTimestamp);
         var order = pageable.getSort().getOrderFor("readAt");
         if (order == null) {
@@ -124,21 +165,8 @@ public class UserHistoryService {
         if (order == null || order.isDescending()) {
             comparator = comparator.reversed();
         }
-        return new ArrayList<>(document.getReadHistory()).stream()
+        return history.stream()
                 .sorted(comparator)
                 .toList();
     }
-
-    private UserBehaviorDocument getOrCreateDocument(Integer userId) {
-        return userBehaviorRepository.findById(userId.toString())
-                .orElseGet(() -> UserBehaviorDocument.builder()
-                        .id(userId.toString())
-                        .build());
-    }
-
-    private void ensureReadHistoryInitialized(UserBehaviorDocument document) {
-        if (document.getReadHistory() == null) {
-            document.setReadHistory(new ArrayList<>());
-        }
-    }
 }
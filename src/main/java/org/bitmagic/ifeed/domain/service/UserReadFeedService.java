@@ -1,6 +1,7 @@
 package org.bitmagic.ifeed.domain.service;
 
 import lombok.RequiredArgsConstructor;
+import org.bitmagic.ifeed.config.properties.UserBehaviorProperties;
 import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
 import org.bitmagic.ifeed.domain.model.Feed;
 import org.bitmagic.ifeed.domain.model.User;
@@ -20,38 +21,14 @@ public class UserReadFeedService {
 
     private final UserBehaviorRepository userBehaviorRepository;
     private final FeedRepository feedRepository;
+    private final UserBehaviorProperties userBehaviorProperties;
 
     // Record that user read a feed at current time. Upsert latest timestamp per feed.
     @Transactional
     public void recordFeedRead(Integer userId, UUID feedUid) {
-
-
-        var document = userBehaviorRepository.findById(userId.toString())
-                .orElseGet(() -> UserBehaviorDocument.builder()
-                        .id(userId.toString())
-                        .build());
-
-        if (document.getReadFeedHistory() == null) {
-            document.setReadFeedHistory(new java.util.ArrayList<>());
-        }
-
-        var feedIdValue = feedUid.toString();
-        var now = Instant.now();
-
-        var existing = document.getReadFeedHistory().stream()
-                .filter(ref -> feedIdValue.equals(ref.getFeedId()))
-                .findFirst()
-                .orElse(null);
-
-        if (existing != null) {
-            existing.setTimestamp(now);
-        } else {
-            document.getReadFeedHistory().add(UserBehaviorDocument.FeedRef.builder()
-                    .feedId(feedIdValue)
-                    .timestamp(now)
-                    .build());
-        }
-
-        userBehaviorRepository.save(document);
+        userBehaviorRepository.touchReadFeed(userId.toString(), UserBehaviorDocument.FeedRef.builder()
+                .feedId(feedUid.toString())
+                .timestamp(Instant.now())
+                .build(), userBehaviorProperties.getReadFeedHistoryLimit());
     }
 }
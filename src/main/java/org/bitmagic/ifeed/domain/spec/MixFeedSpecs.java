@@ -3,6 +3,7 @@ package org.bitmagic.ifeed.domain.spec;
 import jakarta.persistence.criteria.Predicate;
 import org.bitmagic.ifeed.domain.model.Article;
 import org.bitmagic.ifeed.domain.model.MixFeed;
+import org.bitmagic.ifeed.domain.record.ArticleCursor;
 import org.bitmagic.ifeed.infrastructure.spec.Spec;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.domain.Specification;
@@ -62,6 +63,19 @@ public interface MixFeedSpecs {
         return spec;
     }
 
+    /**
+     * 游标条件：按 (publishedAt desc, id desc) 排序时排在游标之后的文章；
+     * 冗余的 {@code publishedAt <= cursor} 条件使 OR 谓词仍能走 publishedAt 索引的范围扫描。
+     */
+    static Specification<Article> publishedBefore(ArticleCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("publishedAt"), cursor.publishedAt()),
+                cb.or(
+                        cb.lessThan(root.get("publishedAt"), cursor.publishedAt()),
+                        cb.and(cb.equal(root.get("publishedAt"), cursor.publishedAt()),
+                                cb.lessThan(root.get("id"), cursor.id()))));
+    }
+
     static Specification<MixFeed> toSpec(Integer userId) {
         return Spec.<MixFeed>on()
                 .and((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user").get("id"), userId)).build();
@@ -1,5 +1,7 @@
 package org.bitmagic.ifeed.infrastructure.ai;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.config.properties.AiProviderProperties;
@@ -347,6 +349,7 @@ public class DefaultAiContentService implements AiContentService {
 
     private final AiProviderProperties properties;
     private final ChatClient chatClient;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public AiContent analyze(String title, String content) {
@@ -384,11 +387,25 @@ public class DefaultAiContentService implements AiContentService {
             return fallbackContent(title, content);
         }
 
-        AiContent result = client
-                .prompt(SYSTEM_PROMPT)
-                .user(USER_PROMPT_TEMPLATE.formatted(title, content))
-                .call()
-                .entity(AiContent.class);
+        AiContent result;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            result = client
+                    .prompt(SYSTEM_PROMPT)
+                    .user(USER_PROMPT_TEMPLATE.formatted(title, content))
+                    .call()
+                    .entity(AiContent.class);
+            outcome = "success";
+        } finally {
+            // 外部 LLM 调用耗时：ai.llm.call{operation,outcome}
+            sample.stop(Timer.builder("ai.llm.call")
+                    .description("External LLM call latency")
+                    .tag("operation", "analyze")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
 
         int summaryLen = result.summary() != null ? result.summary().length() : 0;
         int tagsCount = result.tags() != null ? result.tags().size() : 0;
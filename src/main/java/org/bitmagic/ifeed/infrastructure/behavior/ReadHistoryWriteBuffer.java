@@ -0,0 +1,376 @@
+package org.bitmagic.ifeed.infrastructure.behavior;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.config.properties.UserBehaviorProperties;
+import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
+import org.bitmagic.ifeed.domain.repository.UserBehaviorRepositoryCustom.ReadBatch;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 阅读历史的写后缓冲：阅读请求只做内存入队，后台按固定间隔把同一用户的阅读合并后以有序 bulk 写入 Mongo。
+ * <p>
+ * 入队的同时追加写本地日志，刷写前滚动为封存段，写入成功后删除；启动时重放残留日志。日志按
+ * {@code log-flush-interval} 批量 flush 到操作系统，入队不做逐条 flush，进程崩溃最多丢失该间隔内的阅读
+ * （不保证掉电安全）。待写条目超过上限时入队阻塞等待，超时则由调用方同步写入，
+ * 以此在 Mongo 变慢时对请求施加背压。
+ */
+@Slf4j
+@Component
+public class ReadHistoryWriteBuffer {
+
+    private static final String SEPARATOR = "\t";
+
+    private final UserBehaviorRepository userBehaviorRepository;
+    private final UserBehaviorProperties properties;
+    private final UserBehaviorProperties.WriteBehind settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 按用户合并的待写阅读，受 {@link #lock} 保护。
+     */
+    private Map<String, PendingReads> pending = new LinkedHashMap<>();
+    private int pendingEntries;
+
+    private BufferedWriter logWriter;
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    public ReadHistoryWriteBuffer(UserBehaviorRepository userBehaviorRepository, UserBehaviorProperties properties) {
+        this.userBehaviorRepository = userBehaviorRepository;
+        this.properties = properties;
+        this.settings = properties.getWriteBehind();
+    }
+
+    /**
+     * 入队一次阅读。未启用、缓冲区持续满载或日志写入失败时返回 false，由调用方同步写入。
+     */
+    public boolean offer(String userId, String articleId, String feedId, Instant timestamp) {
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        long remaining = settings.getOfferTimeout().toNanos();
+        lock.lock();
+        try {
+            while (pendingEntries >= Math.max(1, settings.getMaxPendingEntries())) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            if (!appendLog(userId, articleId, feedId, timestamp)) {
+                return false;
+            }
+            merge(userId, articleId, feedId, timestamp);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 缓冲区中尚未落库的该文章阅读时间，供调用方在 Mongo 仍是旧状态时判断重复阅读。
+     */
+    public Optional<Instant> pendingReadAt(String userId, String articleId) {
+        lock.lock();
+        try {
+            PendingReads reads = pending.get(userId);
+            return reads == null ? Optional.empty() : Optional.ofNullable(reads.articles.get(articleId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-behavior.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, PendingReads> drained;
+            List<Path> segments;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                drained = pending;
+                pending = new LinkedHashMap<>();
+                pendingEntries = 0;
+                sealLog();
+                segments = List.copyOf(sealedSegments);
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            write(drained, segments);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 把已追加的日志 flush 到操作系统；多次入队共用一次 flush，不在每次阅读时持锁做系统调用。
+     */
+    @Scheduled(fixedDelayString = "${app.user-behavior.write-behind.log-flush-interval:PT0.1S}")
+    public void flushLog() {
+        lock.lock();
+        try {
+            if (logWriter == null) {
+                return;
+            }
+            logWriter.flush();
+        } catch (IOException ex) {
+            log.warn("Failed to flush read history log {}", settings.getLogPath(), ex);
+            closeLog();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 重放上次运行残留的日志：先把未封存的活动日志改名为封存段，再按名称顺序重放所有封存段，
+     * 封存段在下次刷写成功后删除；活动日志路径本身不会进入封存列表。
+     */
+    @PostConstruct
+    public void recover() {
+        Path logPath = settings.getLogPath();
+        if (logPath == null) {
+            return;
+        }
+        Path directory = logPath.toAbsolutePath().getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        int replayed = 0;
+        if (Files.exists(logPath)) {
+            try {
+                Files.move(logPath, nextSegment(logPath), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                // 改名失败时直接重放活动日志，新的阅读继续追加到其后，随下次刷写一起封存
+                log.warn("Failed to seal leftover read history log {}", logPath, ex);
+                try {
+                    replayed += replay(logPath);
+                } catch (IOException replayEx) {
+                    log.warn("Failed to replay read history log {}", logPath, replayEx);
+                }
+            }
+        }
+        String prefix = logPath.getFileName() + ".";
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList()) {
+                replayed += replay(file);
+                sealedSegments.add(file);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to replay read history log in {}", directory, ex);
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} buffered reads from {}", replayed, directory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        lock.lock();
+        try {
+            closeLog();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Map<String, PendingReads> drained, List<Path> segments) {
+        List<ReadBatch> batches = new ArrayList<>(drained.size());
+        drained.forEach((userId, reads) -> batches.add(reads.toBatch(userId)));
+        int batchSize = Math.max(1, settings.getBatchSize());
+        try {
+            for (int from = 0; from < batches.size(); from += batchSize) {
+                userBehaviorRepository.touchReadHistories(batches.subList(from, Math.min(batches.size(), from + batchSize)),
+                        properties.getReadHistoryLimit(), properties.getReadFeedHistoryLimit());
+            }
+        } catch (RuntimeException ex) {
+            // 写入幂等（过滤旧记录后追加），整批放回缓冲区下次重试；封存日志保留到写入成功
+            log.warn("Failed to flush read history for {} users, will retry", drained.size(), ex);
+            lock.lock();
+            try {
+                drained.forEach((userId, reads) -> {
+                    reads.articles.forEach((articleId, timestamp) -> merge(userId, articleId, null, timestamp));
+                    reads.feeds.forEach((feedId, timestamp) -> merge(userId, null, feedId, timestamp));
+                });
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            sealedSegments.removeAll(segments);
+        } finally {
+            lock.unlock();
+        }
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException ex) {
+                log.warn("Failed to delete read history log segment {}", segment, ex);
+            }
+        }
+    }
+
+    private void merge(String userId, String articleId, String feedId, Instant timestamp) {
+        PendingReads reads = pending.computeIfAbsent(userId, key -> new PendingReads());
+        pendingEntries += track(reads.articles, articleId, timestamp) + track(reads.feeds, feedId, timestamp);
+    }
+
+    /**
+     * 合并同一键的阅读时间取较新者，返回新增的条目数。
+     */
+    private static int track(Map<String, Instant> entries, String key, Instant timestamp) {
+        if (key == null) {
+            return 0;
+        }
+        Instant previous = entries.get(key);
+        if (previous == null) {
+            entries.put(key, timestamp);
+            return 1;
+        }
+        if (timestamp.isAfter(previous)) {
+            entries.put(key, timestamp);
+        }
+        return 0;
+    }
+
+    private boolean appendLog(String userId, String articleId, String feedId, Instant timestamp) {
+        Path logPath = settings.getLogPath();
+        if (logPath == null) {
+            return true;
+        }
+        try {
+            if (logWriter == null) {
+                Path parent = logPath.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                logWriter = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            logWriter.write(String.join(SEPARATOR, userId, Objects.toString(articleId, ""),
+                    Objects.toString(feedId, ""), Long.toString(timestamp.toEpochMilli())));
+            logWriter.newLine();
+            return true;
+        } catch (IOException ex) {
+            log.warn("Failed to append read history log {}", logPath, ex);
+            closeLog();
+            return false;
+        }
+    }
+
+    /**
+     * 关闭当前日志并重命名为封存段，之后的入队写入新日志。
+     */
+    private void sealLog() {
+        Path logPath = settings.getLogPath();
+        if (logPath == null || logWriter == null) {
+            return;
+        }
+        closeLog();
+        Path segment = nextSegment(logPath);
+        try {
+            Files.move(logPath, segment, StandardCopyOption.ATOMIC_MOVE);
+            sealedSegments.add(segment);
+        } catch (IOException ex) {
+            log.warn("Failed to seal read history log {}", logPath, ex);
+        }
+    }
+
+    private Path nextSegment(Path logPath) {
+        return logPath.resolveSibling(logPath.getFileName() + "." + System.currentTimeMillis() + "." + sealedSegments.size());
+    }
+
+    private void closeLog() {
+        if (logWriter == null) {
+            return;
+        }
+        try {
+            logWriter.close();
+        } catch (IOException ex) {
+            log.debug("Failed to close read history log", ex);
+        }
+        logWriter = null;
+    }
+
+    private int replay(Path file) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(SEPARATOR, -1);
+                if (parts.length != 4) {
+                    continue;
+                }
+                try {
+                    Instant timestamp = Instant.ofEpochMilli(Long.parseLong(parts[3]));
+                    merge(parts[0], emptyToNull(parts[1]), emptyToNull(parts[2]), timestamp);
+                    count++;
+                } catch (NumberFormatException ex) {
+                    log.debug("Skip malformed read history log line in {}", file);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 单个用户待写的阅读：文章/订阅源 → 最近一次阅读时间。
+     */
+    private static final class PendingReads {
+
+        private final Map<String, Instant> articles = new HashMap<>();
+        private final Map<String, Instant> feeds = new HashMap<>();
+
+        private ReadBatch toBatch(String userId) {
+            return new ReadBatch(userId,
+                    articles.entrySet().stream()
+                            .sorted(Map.Entry.comparingByValue())
+                            .map(entry -> UserBehaviorDocument.ArticleRef.builder()
+                                    .articleId(entry.getKey())
+                                    .timestamp(entry.getValue())
+                                    .build())
+                            .toList(),
+                    feeds.entrySet().stream()
+                            .sorted(Map.Entry.comparingByValue())
+                            .map(entry -> UserBehaviorDocument.FeedRef.builder()
+                                    .feedId(entry.getKey())
+                                    .timestamp(entry.getValue())
+                                    .build())
+                            .toList());
+        }
+    }
+}
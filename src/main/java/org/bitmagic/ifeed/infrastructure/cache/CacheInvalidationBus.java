@@ -0,0 +1,134 @@
+package org.bitmagic.ifeed.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ItemProvider;
+import org.bitmagic.ifeed.config.properties.CacheProperties;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
+import org.bitmagic.ifeed.domain.event.UserEmbeddingUpdatedEvent;
+import org.bitmagic.ifeed.infrastructure.recall.JpaItemProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 领域事件到缓存键的映射：事件只标记受影响的缓存区域或删除受影响的键，不再整体清空缓存。
+ * <p>
+ * <ul>
+ *     <li>文章入库：ITEMS 的每个条目都包含全站最新文章，标记为过期，由后台任务按热度重算最热的条目并原地覆盖，
+ *     其余条目失效，避免一次抓取后所有请求同时回源；</li>
+ *     <li>用户向量更新：只删除该用户的 U2I / U2I2I 条目，重算需要完整的用户上下文，由下次请求按需加载。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus {
+
+    static final String ITEMS = "ITEMS";
+    static final String U2I = "U2I";
+    static final String U2I2I = "U2I2I";
+
+    private final CacheManager cacheManager;
+    private final JpaItemProvider jpaItemProvider;
+    private final CacheProperties properties;
+
+    private final AtomicBoolean itemsStale = new AtomicBoolean();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        if (!event.articles().isEmpty()) {
+            itemsStale.set(true);
+        }
+    }
+
+    @EventListener
+    public void onUserEmbeddingUpdated(UserEmbeddingUpdatedEvent event) {
+        evict(U2I, event.userId());
+        evict(U2I2I, event.userId());
+    }
+
+    /**
+     * 同一抓取周期内的多次入库合并为一次刷新。
+     */
+    @Scheduled(initialDelayString = "${app.cache.refresh-interval:PT30S}",
+            fixedDelayString = "${app.cache.refresh-interval:PT30S}")
+    public void refreshStaleRegions() {
+        if (itemsStale.getAndSet(false)) {
+            refreshItems();
+        }
+    }
+
+    private void refreshItems() {
+        Cache cache = cacheManager.getCache(ITEMS);
+        if (cache == null) {
+            return;
+        }
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            cache.clear();
+            return;
+        }
+        var nativeCache = caffeineCache.getNativeCache();
+        int limit = Math.max(0, properties.getRefreshLimit());
+        List<Object> hottest = nativeCache.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElseGet(() -> nativeCache.asMap().keySet().stream().limit(limit).toList());
+
+        List<Object> colder = new ArrayList<>(nativeCache.asMap().keySet());
+        colder.removeAll(hottest);
+        nativeCache.invalidateAll(colder);
+
+        long start = System.currentTimeMillis();
+        int refreshed = 0;
+        for (Object key : hottest) {
+            ItemsKey itemsKey = ItemsKey.parse(key);
+            if (itemsKey == null) {
+                cache.evict(key);
+                continue;
+            }
+            try {
+                cache.put(key, jpaItemProvider.load(itemsKey.userId(), itemsKey.type(), itemsKey.k()));
+                refreshed++;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to refresh {} entry {}", ITEMS, key, ex);
+                cache.evict(key);
+            }
+        }
+        log.info("Refreshed {} {} entries and invalidated {} in {} ms",
+                refreshed, ITEMS, colder.size(), System.currentTimeMillis() - start);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    /**
+     * ITEMS 缓存键：{@code userId_TYPE_k}，与 {@link JpaItemProvider#ls} 的 key 表达式一致。
+     */
+    record ItemsKey(Integer userId, ItemProvider.ScoredLsType type, Integer k) {
+
+        static ItemsKey parse(Object key) {
+            String[] parts = String.valueOf(key).split("_");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new ItemsKey(Integer.valueOf(parts[0]), ItemProvider.ScoredLsType.valueOf(parts[1]),
+                        Integer.valueOf(parts[2]));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.bitmagic.ifeed.infrastructure.feed;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 订阅源抓取流水线的 Micrometer 指标。
+ * <p>
+ * 各阶段（fetch/parse/clean/analyze/persist）耗时记录为 {@code feed.ingestion.stage{stage,outcome}}，
+ * 单次 HTTP 请求耗时与响应大小分别记录为 {@code feed.http.request{outcome}} 与 {@code feed.http.response.size}。
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedIngestionMetrics {
+
+    public static final String STAGE_FETCH = "fetch";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_CLEAN = "clean";
+    public static final String STAGE_ANALYZE = "analyze";
+    public static final String STAGE_PERSIST = "persist";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopStage(Timer.Sample sample, String stage, boolean success) {
+        sample.stop(Timer.builder("feed.ingestion.stage")
+                .description("Feed ingestion stage latency")
+                .tag("stage", stage)
+                .tag("outcome", success ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * 记录不抛出受检异常的阶段，异常时按 error 计时后原样抛出。
+     */
+    public <T> T recordStage(String stage, Supplier<T> body) {
+        Timer.Sample sample = start();
+        boolean success = false;
+        try {
+            T result = body.get();
+            success = true;
+            return result;
+        } finally {
+            stopStage(sample, stage, success);
+        }
+    }
+
+    public void recordStage(String stage, Runnable body) {
+        recordStage(stage, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * 记录单次 HTTP 请求（含重试中的每一次），outcome 为 success、http_4xx/http_5xx 或 io_error。
+     */
+    public void stopHttpRequest(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("feed.http.request")
+                .description("Feed HTTP request latency per attempt")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public void recordResponseSize(int bytes) {
+        DistributionSummary.builder("feed.http.response.size")
+                .description("Feed HTTP response body size")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -2,6 +2,7 @@ package org.bitmagic.ifeed.infrastructure.feed;
 
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.FeedException;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.bitmagic.ifeed.infrastructure.feed.fetch.HttpFetcher;
 import org.bitmagic.ifeed.infrastructure.feed.parse.FeedParser;
@@ -9,6 +10,9 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 
+import static org.bitmagic.ifeed.infrastructure.feed.FeedIngestionMetrics.STAGE_FETCH;
+import static org.bitmagic.ifeed.infrastructure.feed.FeedIngestionMetrics.STAGE_PARSE;
+
 /**
  * @author yangrd
  * @date 2025/11/10
@@ -21,8 +25,28 @@ public class RomeFeedFetcher implements FeedFetcher {
 
     private final FeedParser feedParser;
 
+    private final FeedIngestionMetrics metrics;
+
     @Override
     public SyndFeed fetch(String feedUrl) throws IOException, InterruptedException, FeedException {
-        return feedParser.parse(httpFetcher.fetch(feedUrl), feedUrl);
+        byte[] body;
+        Timer.Sample sample = metrics.start();
+        boolean success = false;
+        try {
+            body = httpFetcher.fetch(feedUrl);
+            success = true;
+        } finally {
+            metrics.stopStage(sample, STAGE_FETCH, success);
+        }
+
+        sample = metrics.start();
+        success = false;
+        try {
+            SyndFeed feed = feedParser.parse(body, feedUrl);
+            success = true;
+            return feed;
+        } finally {
+            metrics.stopStage(sample, STAGE_PARSE, success);
+        }
     }
 }
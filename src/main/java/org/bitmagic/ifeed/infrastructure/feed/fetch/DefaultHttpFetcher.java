@@ -1,8 +1,10 @@
 package org.bitmagic.ifeed.infrastructure.feed.fetch;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.config.properties.RssFetcherProperties;
+import org.bitmagic.ifeed.infrastructure.feed.FeedIngestionMetrics;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
@@ -27,6 +29,7 @@ public class DefaultHttpFetcher implements HttpFetcher {
 
     private final HttpClient rssHttpClient;
     private final RssFetcherProperties properties;
+    private final FeedIngestionMetrics metrics;
 
     @Override
     @Cacheable(cacheNames = CACHE_NAME, key = "#feedUrl", unless = "#result == null")
@@ -36,6 +39,8 @@ public class DefaultHttpFetcher implements HttpFetcher {
 
         while (attempt < properties.getMaxRetries()) {
             attempt++;
+            Timer.Sample sample = metrics.start();
+            String outcome = "io_error";
             try {
                 log.debug("Fetching RSS (attempt {}/{}): {}", attempt, properties.getMaxRetries(), feedUrl);
                 HttpRequest request = HttpRequest.newBuilder()
@@ -48,19 +53,24 @@ public class DefaultHttpFetcher implements HttpFetcher {
 
                 HttpResponse<InputStream> response = rssHttpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
                 if (response.statusCode() >= 400) {
+                    outcome = "http_" + response.statusCode() / 100 + "xx";
                     throw new IOException("HTTP " + response.statusCode());
                 }
 
                 byte[] bytes = readAllBytesSafe(response.body());
+                outcome = FeedIngestionMetrics.OUTCOME_SUCCESS;
+                metrics.recordResponseSize(bytes.length);
                 log.debug("Fetched {} bytes from {}", bytes.length, feedUrl);
                 return bytes;
 
             } catch (IOException e) {
                 lastError = e;
                 log.warn("Attempt {}/{} failed for {}: {}", attempt, properties.getMaxRetries(), feedUrl, e.toString());
-                if (attempt < properties.getMaxRetries()) {
-                    backoff(attempt);
-                }
+            } finally {
+                metrics.stopHttpRequest(sample, outcome);
+            }
+            if (attempt < properties.getMaxRetries()) {
+                backoff(attempt);
             }
         }
 
@@ -2,10 +2,9 @@ package org.bitmagic.ifeed.infrastructure.recall;
 
 import lombok.RequiredArgsConstructor;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.EmbeddingStore;
-import org.bitmagic.ifeed.domain.model.UserVectorStore;
 import org.bitmagic.ifeed.domain.record.ArticleEmbeddingRecord;
 import org.bitmagic.ifeed.domain.repository.ArticleEmbeddingRepository;
-import org.bitmagic.ifeed.domain.repository.UserVectorRepository;
+import org.bitmagic.ifeed.domain.repository.UserEmbeddingRepository;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -17,7 +16,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class DatabaseEmbeddingStore implements EmbeddingStore {
 
-    private final UserVectorRepository userVectorRepository;
+    private final UserEmbeddingRepository userEmbeddingRepository;
     private final ArticleEmbeddingRepository articleEmbeddingRepository;
 
     @Override
@@ -25,8 +24,7 @@ public class DatabaseEmbeddingStore implements EmbeddingStore {
         if (userId == null) {
             return Optional.empty();
         }
-        return userVectorRepository.findById(userId)
-                .map(UserVectorStore::getEmbedding)
+        return userEmbeddingRepository.findVector(userId)
                 .filter(vec -> vec.length > 0);
     }
 
@@ -5,69 +5,84 @@ import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.SequenceStore;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.UserNeighborFinder;
-import org.bitmagic.ifeed.domain.model.UserVectorStore;
-import org.bitmagic.ifeed.domain.repository.UserVectorRepository;
+import org.bitmagic.ifeed.domain.record.UserNeighborRecord;
+import org.bitmagic.ifeed.domain.repository.UserEmbeddingRepository;
+import org.bitmagic.ifeed.domain.repository.UserNeighborRepository;
+import org.bitmagic.ifeed.infrastructure.vector.QuantizedVectorSet;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 /**
- * 基于用户向量近似的邻居查找器，使用内积计算相似度并从序列存储抽取候选物品。
+ * 基于用户向量近似的邻居查找器。
+ * <p>
+ * 相似用户优先读取 user_neighbors 表中离线预计算的结果，请求开销与用户总数无关；尚未计算的用户在线两阶段检索并写回：
+ * 先在常驻内存的 int8 量化用户向量上暴力扫描取 {@code k * rescoreFactor} 个候选，再读取候选的 float32 向量精确计算余弦相似度。
+ * 量化用户向量在启动后异步构建，构建完成前在线检索直接返回空结果。
+ * 入选邻居的行为序列通过一次批量查询读取。
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmbeddingUserNeighborFinder implements UserNeighborFinder {
 
-    private final UserVectorRepository userVectorRepository;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final UserEmbeddingRepository userEmbeddingRepository;
+    private final UserNeighborRepository userNeighborRepository;
     private final SequenceStore sequenceStore;
 
+    @Value("${recall.user-neighbors.enabled:true}")
+    private boolean precomputedEnabled;
+
     @Value("${recall.u2u.neighbor-items:30}")
     private int neighborItemLimit;
 
-    //    TODO 需要重构
+    @Value("${recall.u2u.rescore-factor:4}")
+    private int rescoreFactor;
+
+    @Value("${app.ai.provider.embedding.options.dimensions:1024}")
+    private int dimensions;
+
+    private volatile QuantizedVectorSet userVectors;
+
     @Override
     public List<UserNeighbor> topNeighbors(Integer userId, int k) {
         if (userId == null || k <= 0) {
             return List.of();
         }
 
-        Optional<UserVectorStore> targetOpt = userVectorRepository.findById(userId);
-        if (targetOpt.isEmpty() || targetOpt.get().getEmbedding() == null) {
+        // 1. 优先读取离线预计算的相似用户，缺失时（新用户）在线计算一次并写回
+        Optional<UserNeighborRecord> precomputed = precomputedEnabled
+                ? userNeighborRepository.findById(userId)
+                : Optional.empty();
+        UserNeighborRecord record = precomputed.orElseGet(() -> computeOnline(userId, k));
+        if (record == null || record.size() == 0) {
             return List.of();
         }
 
-        float[] targetVector = targetOpt.get().getEmbedding();
-        double targetNorm = norm(targetVector);
-        if (targetNorm == 0.0d) {
-            return List.of();
+        int size = Math.min(k, record.size());
+        List<Integer> neighborIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            neighborIds.add(record.neighborIds()[i]);
         }
 
-        List<UserNeighbor> neighbors = new ArrayList<>();
-        for (UserVectorStore candidate : userVectorRepository.findAll()) {
-            if (candidate.getUserId().equals(userId)) {
-                continue;
-            }
-            float[] candidateVec = candidate.getEmbedding();
-            if (candidateVec == null || candidateVec.length != targetVector.length) {
-                continue;
-            }
-            double similarity = cosine(targetVector, candidateVec, targetNorm);
-            if (similarity <= 0.0d) {
-                continue;
-            }
-
-            List<SequenceStore.UserInteraction> recentItems = sequenceStore.recentInteractions(candidate.getUserId(), neighborItemLimit);
-            if (recentItems.isEmpty()) {
+        // 2. 一次批量读取所有邻居的行为序列
+        Map<Integer, List<SequenceStore.UserInteraction>> histories =
+                sequenceStore.recentInteractions(neighborIds, neighborItemLimit);
+        List<UserNeighbor> neighbors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<SequenceStore.UserInteraction> recentItems = histories.get(record.neighborIds()[i]);
+            if (recentItems == null || recentItems.isEmpty()) {
                 continue;
             }
-
+            double similarity = record.scores()[i];
             List<ScoredId> scoredItems = recentItems.stream()
                     .map(interaction -> {
                         double weight = interaction.weight() > 0 ? interaction.weight() : 1.0;
@@ -77,11 +92,128 @@ public class EmbeddingUserNeighborFinder implements UserNeighborFinder {
                         return new ScoredId(interaction.itemId(), similarity * weight, meta);
                     })
                     .toList();
-            neighbors.add(new UserNeighbor(candidate.getUserId(), similarity, scoredItems));
+            neighbors.add(new UserNeighbor(record.neighborIds()[i], similarity, scoredItems));
         }
+        return neighbors;
+    }
 
-        neighbors.sort(Comparator.comparingDouble(UserNeighbor::similarity).reversed());
-        return neighbors.size() > k ? neighbors.subList(0, k) : neighbors;
+    /**
+     * 在线计算单个用户的相似用户。量化用户向量尚未构建完成时不做计算（返回 null），避免请求线程同步加载全部用户向量；
+     * 启用预计算表时把结果写回，后续请求直接点查，之后由离线任务按有效期刷新。
+     */
+    private UserNeighborRecord computeOnline(Integer userId, int k) {
+        if (userVectors == null) {
+            return null;
+        }
+        UserNeighborRecord record = userEmbeddingRepository.findVector(userId)
+                .map(vector -> computeNeighbors(Map.of(userId, vector), k).get(userId))
+                .orElse(null);
+        if (record != null && precomputedEnabled) {
+            try {
+                userNeighborRepository.saveAll(List.of(record));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to save online user neighbors for user {}", userId, ex);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 为一批用户计算 Top-K 相似用户：先在量化向量上粗排取 {@code k * rescoreFactor} 个候选，
+     * 再一次性读取所有候选的 float32 向量精排。每个目标用户都会返回一条记录（可能为空）。
+     */
+    public Map<Integer, UserNeighborRecord> computeNeighbors(Map<Integer, float[]> targets, int k) {
+        QuantizedVectorSet vectors = userVectors();
+        Map<Integer, List<QuantizedVectorSet.Candidate>> coarseByUser = new HashMap<>(targets.size() * 2);
+        Set<Integer> candidateIds = new HashSet<>();
+        targets.forEach((userId, vector) -> {
+            if (norm(vector) == 0.0d) {
+                return;
+            }
+            List<QuantizedVectorSet.Candidate> coarse = vectors.topK(vector, k * Math.max(1, rescoreFactor), id -> id == userId);
+            coarseByUser.put(userId, coarse);
+            coarse.forEach(candidate -> candidateIds.add((int) candidate.id()));
+        });
+
+        Map<Integer, float[]> exactVectors = userEmbeddingRepository.findVectors(candidateIds);
+        Map<Integer, UserNeighborRecord> records = new HashMap<>(targets.size() * 2);
+        targets.forEach((userId, targetVector) -> {
+            double targetNorm = norm(targetVector);
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>();
+            for (QuantizedVectorSet.Candidate candidate : coarseByUser.getOrDefault(userId, List.of())) {
+                float[] candidateVec = exactVectors.get((int) candidate.id());
+                if (candidateVec == null || candidateVec.length != targetVector.length) {
+                    continue;
+                }
+                double similarity = cosine(targetVector, candidateVec, targetNorm);
+                if (similarity > 0.0d) {
+                    ranked.add(Map.entry((int) candidate.id(), similarity));
+                }
+            }
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+            int size = Math.min(k, ranked.size());
+            int[] neighborIds = new int[size];
+            float[] scores = new float[size];
+            for (int i = 0; i < size; i++) {
+                neighborIds[i] = ranked.get(i).getKey();
+                scores[i] = ranked.get(i).getValue().floatValue();
+            }
+            records.put(userId, new UserNeighborRecord(userId, neighborIds, scores));
+        });
+        return records;
+    }
+
+    /**
+     * 启动后在后台构建量化用户向量，构建完成前在线请求不计算相似用户。
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refreshUserVectors();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build quantized user vectors", ex);
+        }
+    }
+
+    /**
+     * 定期重建量化用户向量，新用户在重建前不会出现在他人的邻居中。
+     */
+    @Scheduled(initialDelayString = "${recall.u2u.index-refresh-interval:PT10M}",
+            fixedDelayString = "${recall.u2u.index-refresh-interval:PT10M}")
+    public void refreshUserVectors() {
+        long start = System.currentTimeMillis();
+        QuantizedVectorSet.Builder builder = QuantizedVectorSet.builder(dimensions);
+        int cursor = Integer.MIN_VALUE;
+        while (true) {
+            int[] rows = {0};
+            cursor = userEmbeddingRepository.forEachAfter(cursor, LOAD_BATCH_SIZE, (id, vector) -> {
+                rows[0]++;
+                builder.add(id, vector);
+            });
+            if (rows[0] < LOAD_BATCH_SIZE) {
+                break;
+            }
+        }
+        userVectors = builder.build();
+        log.debug("Refreshed quantized user vectors: {} users in {} ms",
+                userVectors.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 离线任务使用：尚未构建时在调用线程上同步构建。
+     */
+    private QuantizedVectorSet userVectors() {
+        QuantizedVectorSet current = userVectors;
+        if (current == null) {
+            synchronized (this) {
+                if (userVectors == null) {
+                    refreshUserVectors();
+                }
+                current = userVectors;
+            }
+        }
+        return current;
     }
 
     private double cosine(float[] target, float[] other, double targetNorm) {
@@ -10,7 +10,6 @@ import org.bitmagic.ifeed.config.properties.SearchRetrievalProperties;
 import org.bitmagic.ifeed.infrastructure.FreshnessCalculator;
 import org.bitmagic.ifeed.infrastructure.retrieval.DocScore;
 import org.bitmagic.ifeed.infrastructure.retrieval.RetrievalContext;
-import org.bitmagic.ifeed.infrastructure.retrieval.RetrievalPipeline;
 import org.bitmagic.ifeed.infrastructure.retrieval.impl.MultiChannelRetrievalPipeline;
 import org.bitmagic.ifeed.infrastructure.retrieval.impl.TextSearchRetrievalHandler;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +26,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JpaInvertedIndex implements InvertedIndex {
 
-    private final RetrievalPipeline retrievalPipeline;
+    private final MultiChannelRetrievalPipeline retrievalPipeline;
+
+    private final TextSearchRetrievalHandler textSearchRetrievalHandler;
 
     private final FreshnessCalculator freshnessCalculator;
 
@@ -38,6 +39,7 @@ public class JpaInvertedIndex implements InvertedIndex {
     public JpaInvertedIndex(TextSearchRetrievalHandler textSearchRetrievalHandler, FreshnessCalculator freshnessCalculator, SearchRetrievalProperties properties) {
         this.retrievalPipeline = new MultiChannelRetrievalPipeline(properties.getFreshnessTimeWeight(), properties.getFreshnessLambda())
                 .addHandler(textSearchRetrievalHandler, 1);
+        this.textSearchRetrievalHandler = textSearchRetrievalHandler;
         this.freshnessCalculator = freshnessCalculator;
     }
 
@@ -51,26 +53,31 @@ public class JpaInvertedIndex implements InvertedIndex {
         List<UserPreferenceService.AttributePreference> attrs = attributes.stream().collect(Collectors.groupingBy(UserPreferenceService.AttributePreference::attributeValue)).values().stream().map(vs -> vs.stream().max(Comparator.comparingDouble(UserPreferenceService.AttributePreference::weight)).orElse(null)).filter(Objects::nonNull).toList();
         // 按权重排序，权重高的优先
         List<UserPreferenceService.AttributePreference> sorted = attrs.stream()
+                .filter(attr -> attr.attributeValue() != null && !attr.attributeValue().isBlank())
                 .sorted(Comparator.comparingDouble(UserPreferenceService.AttributePreference::weight).reversed())
                 .toList();
+        if (sorted.isEmpty()) {
+            return List.of();
+        }
 
 
-        // 分别查询每个属性，然后加权合并
+        // 所有属性在一条 SQL 中检索（每个属性各自取 Top-K），然后加权合并
         Map<Long, Double> weightedScores = new HashMap<>();
         Map<Long, Map<String, Object>> metadataMap = new HashMap<>();
 
-        int topK = ((Double) (k / sorted.size() * 1.5)).intValue();
-
-        for (UserPreferenceService.AttributePreference attr : sorted) {
+        int topK = Math.max(1, ((Double) (k / sorted.size() * 1.5)).intValue());
 
-            RetrievalContext context = RetrievalContext.builder()
-                    .includeGlobal(true)
-                    .query(attr.attributeValue())
-                    .topK(topK)
-                    .threshold(0.12)
-                    .build();
+        RetrievalContext context = RetrievalContext.builder()
+                .includeGlobal(true)
+                .topK(topK)
+                .threshold(0.12)
+                .build();
+        List<List<DocScore>> hits = textSearchRetrievalHandler.handleAll(
+                sorted.stream().map(UserPreferenceService.AttributePreference::attributeValue).toList(), context);
 
-            List<DocScore> scores = retrievalPipeline.execute(context);
+        for (int i = 0; i < sorted.size(); i++) {
+            UserPreferenceService.AttributePreference attr = sorted.get(i);
+            List<DocScore> scores = retrievalPipeline.rank(hits.get(i), topK);
 
             for (DocScore score : scores) {
                 double wa = attr.attributeKey().equals("feedTitle") ? 0.4 : 0.1;
@@ -83,8 +90,8 @@ public class JpaInvertedIndex implements InvertedIndex {
                 // 保存元数据
                 metadataMap.putIfAbsent(score.docId(), Map.of("source", attr, "docScore", score));
             }
-            log.debug("search {} time {}ms", attr.attributeValue(), System.currentTimeMillis() - start);
         }
+        log.debug("search {} attributes time {}ms", sorted.size(), System.currentTimeMillis() - start);
 
         // 排序并返回 top-k
         List<ScoredId> topList = weightedScores.entrySet().stream()
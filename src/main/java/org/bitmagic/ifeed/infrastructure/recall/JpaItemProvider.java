@@ -36,10 +36,17 @@ public class JpaItemProvider implements ItemProvider {
     @Cacheable(cacheNames = "ITEMS", key = "#userContext.userId() + '_' + #type.name() + '_' + #k", unless = "#result == null")
     @Override
     public List<ScoredId> ls(UserContext userContext, ScoredLsType type, Integer k) {
+        return load(userContext.getUserId(), type, k);
+    }
+
+    /**
+     * 不经缓存直接查询，供缓存后台刷新使用；缓存键格式为 {@code userId_TYPE_k}。
+     */
+    public List<ScoredId> load(Integer userId, ScoredLsType type, Integer k) {
         long currentTimeMillis = System.currentTimeMillis();
         PageRequest pageable = ScoredLsType.LATEST.equals(type) ? PageRequest.of(0, k, Sort.by(Sort.Order.desc("id"))) : PageRequest.ofSize(k / 2);
         List<ArticleSummaryView> all = new ArrayList<>(articleRepository.searchArticleSummaries("", null, pageable).getContent());
-        all.addAll(articleRepository.searchArticleSummaries("", userContext.getUserId(), pageable).getContent());
+        all.addAll(articleRepository.searchArticleSummaries("", userId, pageable).getContent());
         log.debug("{} time: {}", type.name(), System.currentTimeMillis() - currentTimeMillis);
         List<ScoredId> scoredIds = all.stream().map(article -> new ScoredId(article.articleId(), qualityScorer.score(article.summary(), null), Map.of("title", article.title()))).toList();
         return scoredIds;
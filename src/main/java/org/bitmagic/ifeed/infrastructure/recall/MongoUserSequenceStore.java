@@ -10,10 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * 基于 Mongo 用户行为数据的序列存储
@@ -64,28 +61,54 @@ public class MongoUserSequenceStore implements SequenceStore {
                 });
     }
 
-    private List<UserInteraction> extractRecentInteractions(
-            UserBehaviorDocument document, int limit) {
+    /**
+     * 批量读取多个用户的近期交互：一次 Mongo 查询取行为文档，一次数据库查询完成所有 UUID 映射。
+     */
+    @Override
+    public Map<Integer, List<UserInteraction>> recentInteractions(Collection<Integer> userIds, int limit) {
+        if (userIds == null || userIds.isEmpty() || limit <= 0) {
+            return Map.of();
+        }
 
-        if (document.getReadHistory() == null || document.getReadHistory().isEmpty()) {
-            log.debug("No read history found for user {}", document.getId());
-            return List.of();
+        Map<Integer, UserBehaviorDocument> documents = dataAccessor.getUserBehaviors(userIds);
+        Map<Integer, List<UserBehaviorDocument.ArticleRef>> sortedByUser = new HashMap<>(documents.size() * 2);
+        List<String> articleIds = new ArrayList<>();
+        // 批量场景只映射每个用户前 limit × fetch-multiplier 条，控制单次 IN 查询规模
+        int perUserFetch = limit * Math.max(1, fetchMultiplier);
+        documents.forEach((userId, document) -> {
+            List<UserBehaviorDocument.ArticleRef> history = sortedReadHistory(document, limit);
+            List<UserBehaviorDocument.ArticleRef> sorted = history.subList(0, Math.min(history.size(), perUserFetch));
+            if (!sorted.isEmpty()) {
+                sortedByUser.put(userId, sorted);
+                sorted.forEach(ref -> articleIds.add(ref.getArticleId()));
+            }
+        });
+        if (sortedByUser.isEmpty()) {
+            return Map.of();
         }
 
-        // 使用共享的过滤和排序逻辑
-        int fetchLimit = Math.min(
-                Math.max(limit * fetchMultiplier, lookback),
-                maxFetchLimit);
+        Map<UUID, ArticleTitle> idMapping = dataAccessor.batchMapArticleIds(articleIds);
+        if (idMapping.isEmpty()) {
+            return Map.of();
+        }
 
-        List<UserBehaviorDocument.ArticleRef> sorted =
-                dataAccessor.filterAndSortRefs(
-                        document.getReadHistory(),
-                        windowDays,
-                        fetchLimit);
+        Map<Integer, List<UserInteraction>> results = new HashMap<>(sortedByUser.size() * 2);
+        sortedByUser.forEach((userId, sorted) -> {
+            List<UserInteraction> interactions = buildUserInteractions(sorted, idMapping,
+                    dataAccessor.buildInteractionCountMap(documents.get(userId)), limit);
+            if (!interactions.isEmpty()) {
+                results.put(userId, interactions);
+            }
+        });
+        log.debug("Extracted interactions for {} of {} users in one batch", results.size(), userIds.size());
+        return results;
+    }
+
+    private List<UserInteraction> extractRecentInteractions(
+            UserBehaviorDocument document, int limit) {
 
+        List<UserBehaviorDocument.ArticleRef> sorted = sortedReadHistory(document, limit);
         if (sorted.isEmpty()) {
-            log.debug("No valid timestamped articles in read history for user {}",
-                    document.getId());
             return List.of();
         }
 
@@ -118,6 +141,33 @@ public class MongoUserSequenceStore implements SequenceStore {
         return results;
     }
 
+    /**
+     * 按时间窗口过滤并倒序排列阅读历史。
+     */
+    private List<UserBehaviorDocument.ArticleRef> sortedReadHistory(UserBehaviorDocument document, int limit) {
+        if (document.getReadHistory() == null || document.getReadHistory().isEmpty()) {
+            log.debug("No read history found for user {}", document.getId());
+            return List.of();
+        }
+
+        // 使用共享的过滤和排序逻辑
+        int fetchLimit = Math.min(
+                Math.max(limit * fetchMultiplier, lookback),
+                maxFetchLimit);
+
+        List<UserBehaviorDocument.ArticleRef> sorted =
+                dataAccessor.filterAndSortRefs(
+                        document.getReadHistory(),
+                        windowDays,
+                        fetchLimit);
+
+        if (sorted.isEmpty()) {
+            log.debug("No valid timestamped articles in read history for user {}",
+                    document.getId());
+        }
+        return sorted;
+    }
+
     /**
      * 构建用户交互列表
      *
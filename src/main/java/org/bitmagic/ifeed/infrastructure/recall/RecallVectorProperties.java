@@ -31,7 +31,6 @@ public class RecallVectorProperties {
      * 根据召回上下文中的过滤参数构造向量检索的过滤表达式。
      */
     public Optional<Filter.Expression> buildFilter(Map<String, Object> filters) {
-        // TODO: 根据业务字段构造向量检索过滤条件
-        return Optional.empty();
+        return VectorSearchFilter.from(filters).toExpression();
     }
 }
@@ -5,19 +5,29 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.UserPreferenceService;
 import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
 import org.bitmagic.ifeed.domain.record.ArticleSummary;
+import org.bitmagic.ifeed.domain.record.UserInterestProfileRecord;
 import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.bitmagic.ifeed.domain.repository.UserInterestProfileRepository;
 import org.bitmagic.ifeed.infrastructure.recall.data.UserBehaviorDataAccessor;
 import org.bitmagic.ifeed.infrastructure.util.JSON;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * 用户兴趣画像服务
  * 基于阅读历史和收藏行为，提取用户对 feedTitle、tag、category、keyword、entity 的偏好权重
+ * <p>
+ * 画像物化在 user_interest_profiles 中：阅读/收藏事件到达时只对该文章做一次属性抽取并增量累加，
+ * 推荐请求只做单行点查；首次访问或取消收藏后才从完整行为历史重建。
  */
 @Slf4j
 @Component
@@ -27,10 +37,21 @@ public class UserInterestProfileService implements UserPreferenceService {
     private final UserBehaviorDataAccessor dataAccessor;
     private final ArticleRepository articleRepository;
     private final KeywordExtractor keywordExtractor;
+    private final UserInterestProfileRepository profileRepository;
 
     private static final TypeReference<List<String>> TAGS_TYPE = new TypeReference<>() {
     };
 
+    private static final String FEED_TITLE = "feedTitle";
+    private static final String TAG = "tag";
+    private static final String CATEGORY = "category";
+    private static final String KEYWORD = "keyword";
+    private static final String ENTITY = "entity";
+    private static final List<String> ATTRIBUTES = List.of(FEED_TITLE, TAG, CATEGORY, KEYWORD, ENTITY);
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final double REANCHOR_FACTOR = 1e6;
+
     @Value("${recall.preference.read-window-days:30}")
     private int readWindowDays;
 
@@ -52,22 +73,143 @@ public class UserInterestProfileService implements UserPreferenceService {
     @Value("${recall.preference.extract-entities:true}")
     private boolean extractEntities;
 
+    @Value("${recall.preference.half-life:P14D}")
+    private Duration halfLife;
+
+    @Value("${recall.preference.max-values-per-attribute:200}")
+    private int maxValuesPerAttribute;
+
     @Override
     public List<AttributePreference> topAttributes(Integer userId, int limit) {
         if (userId == null || limit <= 0) {
             return List.of();
         }
 
-        return dataAccessor.getUserBehavior(userId)
-                .map(doc -> computeTopPreferences(doc, limit))
+        UserInterestProfileRecord profile = profileRepository.findById(userId)
+                .filter(existing -> !existing.rebuildPending())
+                .orElseGet(() -> rebuild(userId));
+        return topPreferences(profile, limit);
+    }
+
+    @Override
+    public long profileVersion(Integer userId) {
+        return userId == null ? -1L : profileRepository.findVersion(userId);
+    }
+
+    /**
+     * 交互落库后增量更新画像：只对本次交互的文章做一次属性抽取，按版本乐观锁写回。
+     * 阅读窗口内的重复阅读不再累加，与重建时阅读历史中每篇文章只计一次保持一致。
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        try {
+            if (event.action() == UserInteractionEvent.Action.UNCOLLECT) {
+                profileRepository.markRebuildPending(event.userId());
+                return;
+            }
+            if (event.articleUid() == null || isRepeatRead(event)) {
+                return;
+            }
+            List<ArticleSummary> articles = articleRepository.listArticleSummaries(List.of(event.articleUid()));
+            if (articles.isEmpty()) {
+                return;
+            }
+            double weight = event.action() == UserInteractionEvent.Action.COLLECT ? collectionBonus : 1.0;
+            Map<String, Map<String, Double>> delta = new HashMap<>();
+            accumulate(delta, articles.getFirst(), weight, true);
+
+            for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+                Optional<UserInterestProfileRecord> current = profileRepository.findById(event.userId());
+                if (current.isEmpty() || current.get().rebuildPending()) {
+                    // 重建基于完整行为历史，已包含本次交互
+                    rebuild(event.userId());
+                    return;
+                }
+                if (profileRepository.save(apply(current.get(), delta, event.timestamp()), current.get().version())) {
+                    return;
+                }
+            }
+            log.debug("Gave up updating interest profile for user {} after {} conflicts", event.userId(), MAX_WRITE_ATTEMPTS);
+        } catch (RuntimeException ex) {
+            log.warn("incremental interest profile update failed for user {}", event.userId(), ex);
+        }
+    }
+
+    private boolean isRepeatRead(UserInteractionEvent event) {
+        return event.action() == UserInteractionEvent.Action.READ
+                && event.previousReadAt() != null
+                && event.previousReadAt().isAfter(event.timestamp().minus(Duration.ofDays(readWindowDays)));
+    }
+
+    /**
+     * 将一次交互的属性得分按前向衰减并入画像；衰减因子过大时先把锚点移到交互时间。
+     */
+    private UserInterestProfileRecord apply(UserInterestProfileRecord profile,
+                                            Map<String, Map<String, Double>> delta,
+                                            Instant timestamp) {
+        Instant anchor = profile.decayAnchor() == null ? timestamp : profile.decayAnchor();
+        double factor = decayFactor(timestamp, anchor);
+        double rescale = 1.0;
+        if (factor > REANCHOR_FACTOR) {
+            rescale = 1.0 / factor;
+            factor = 1.0;
+            anchor = timestamp;
+        }
+
+        Map<String, Map<String, Double>> scores = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> entry : profile.scores().entrySet()) {
+            Map<String, Double> values = new HashMap<>();
+            double scale = rescale;
+            entry.getValue().forEach((value, score) -> values.put(value, score * scale));
+            scores.put(entry.getKey(), values);
+        }
+        double weight = factor;
+        delta.forEach((attribute, values) -> {
+            Map<String, Double> target = scores.computeIfAbsent(attribute, key -> new HashMap<>());
+            values.forEach((value, score) -> target.merge(value, score * weight, Double::sum));
+        });
+        return new UserInterestProfileRecord(profile.userId(), profile.version(), anchor, prune(scores), false);
+    }
+
+    /**
+     * 从完整行为历史重建画像并持久化（首次访问、取消收藏后调用）。
+     */
+    private UserInterestProfileRecord rebuild(Integer userId) {
+        Instant anchor = Instant.now();
+        Map<String, Map<String, Double>> scores = dataAccessor.getUserBehavior(userId)
+                .map(doc -> computeScores(doc, anchor))
                 .orElseGet(() -> {
                     log.debug("No user behavior found for userId: {}", userId);
-                    return List.of();
+                    return Map.of();
                 });
+        UserInterestProfileRecord profile = new UserInterestProfileRecord(userId, 0L, anchor, prune(scores), false);
+        long expectedVersion = profileRepository.findVersion(userId);
+        if (!profileRepository.save(profile, expectedVersion)) {
+            log.debug("Interest profile of user {} changed concurrently during rebuild", userId);
+        }
+        return profile;
+    }
+
+    private List<AttributePreference> topPreferences(UserInterestProfileRecord profile, int limit) {
+        if (profile.scores().isEmpty()) {
+            return List.of();
+        }
+        double decay = profile.decayAnchor() == null ? 1.0 : 1.0 / decayFactor(Instant.now(), profile.decayAnchor());
+
+        // 归一化并合并排序
+        List<AttributePreference> result = new ArrayList<>();
+        for (String attribute : ATTRIBUTES) {
+            result.addAll(normalizeAndConvert(profile.scores().getOrDefault(attribute, Map.of()), attribute, decay));
+        }
+
+        return result.stream()
+                .sorted(Comparator.comparingDouble(AttributePreference::weight).reversed())
+                .limit(limit)
+                .toList();
     }
 
-    private List<AttributePreference> computeTopPreferences(
-            UserBehaviorDocument document, int limit) {
+    private Map<String, Map<String, Double>> computeScores(UserBehaviorDocument document, Instant anchor) {
 
         // 使用共享的过滤和排序逻辑
         List<UserBehaviorDocument.ArticleRef> readHistory = dataAccessor.filterAndSortRefs(
@@ -82,7 +224,7 @@ public class UserInterestProfileService implements UserPreferenceService {
 
         if (readHistory.isEmpty() && collections.isEmpty()) {
             log.debug("No valid read history or collections for user {}", document.getId());
-            return List.of();
+            return Map.of();
         }
 
         // 收集所有文章 UUID
@@ -92,7 +234,7 @@ public class UserInterestProfileService implements UserPreferenceService {
 
         if (allArticleIds.isEmpty()) {
             log.debug("No valid article IDs found for user {}", document.getId());
-            return List.of();
+            return Map.of();
         }
 
         // 转换为 UUID 列表
@@ -103,7 +245,7 @@ public class UserInterestProfileService implements UserPreferenceService {
 
         if (uuids.isEmpty()) {
             log.warn("No valid UUIDs parsed for user {}", document.getId());
-            return List.of();
+            return Map.of();
         }
 
         // 直接用 UUID 查询文章详情并建立映射
@@ -114,49 +256,26 @@ public class UserInterestProfileService implements UserPreferenceService {
         if (articleMap.isEmpty()) {
             log.warn("No articles found in repository for user {} with {} UUIDs",
                     document.getId(), uuids.size());
-            return List.of();
+            return Map.of();
         }
 
         // 收藏的文章ID集合
         Set<String> collectedIds = dataAccessor.extractArticleIds(collections);
 
         // 统计各维度权重
-        Map<String, Double> feedScores = new HashMap<>();
-        Map<String, Double> tagScores = new HashMap<>();
-        Map<String, Double> categoryScores = new HashMap<>();
-        Map<String, Double> keywordScores = new HashMap<>();
-        Map<String, Double> entityScores = new HashMap<>();
+        Map<String, Map<String, Double>> scores = new HashMap<>();
         Set<String> processedIds = new HashSet<>();
 
         // 处理阅读历史
-        processArticleRefs(readHistory, articleMap, collectedIds,
-                feedScores, tagScores, categoryScores, keywordScores, entityScores, processedIds);
+        processArticleRefs(readHistory, articleMap, collectedIds, anchor, scores, processedIds);
 
         // 处理仅收藏但未阅读的文章
-        processCollectionOnlyRefs(collections, articleMap, processedIds,
-                feedScores, tagScores, categoryScores, keywordScores, entityScores);
+        processCollectionOnlyRefs(collections, articleMap, processedIds, anchor, scores);
 
-        if (feedScores.isEmpty() && tagScores.isEmpty() && categoryScores.isEmpty()
-                && keywordScores.isEmpty() && entityScores.isEmpty()) {
-            log.debug("No valid scores computed for user {}", document.getId());
-            return List.of();
-        }
+        log.debug("Rebuilt interest profile for user {} (read:{}, collection:{})",
+                document.getId(), readHistory.size(), collections.size());
 
-        // 归一化并合并排序
-        List<AttributePreference> result = new ArrayList<>();
-        result.addAll(normalizeAndConvert(feedScores, "feedTitle"));
-        result.addAll(normalizeAndConvert(tagScores, "tag"));
-        result.addAll(normalizeAndConvert(categoryScores, "category"));
-        result.addAll(normalizeAndConvert(keywordScores, "keyword"));
-        result.addAll(normalizeAndConvert(entityScores, "entity"));
-
-        log.info("Computed {} attribute preferences for user {} (read:{}, collection:{})",
-                result.size(), document.getId(), readHistory.size(), collections.size());
-
-        return result.stream()
-                .sorted(Comparator.comparingDouble(AttributePreference::weight).reversed())
-                .limit(limit)
-                .toList();
+        return scores;
     }
 
     /**
@@ -166,11 +285,8 @@ public class UserInterestProfileService implements UserPreferenceService {
             List<UserBehaviorDocument.ArticleRef> refs,
             Map<UUID, ArticleSummary> articleMap,
             Set<String> collectedIds,
-            Map<String, Double> feedScores,
-            Map<String, Double> tagScores,
-            Map<String, Double> categoryScores,
-            Map<String, Double> keywordScores,
-            Map<String, Double> entityScores,
+            Instant anchor,
+            Map<String, Map<String, Double>> scores,
             Set<String> processedIds) {
 
         for (UserBehaviorDocument.ArticleRef ref : refs) {
@@ -191,11 +307,7 @@ public class UserInterestProfileService implements UserPreferenceService {
                     ? 1.0 + collectionBonus
                     : 1.0;
 
-            accumulateFeedScore(feedScores, article, score);
-            accumulateTagScores(tagScores, article, score);
-            accumulateCategoryScore(categoryScores, article, score);
-            accumulateKeywordScores(keywordScores, article, score);
-            accumulateEntityScores(entityScores, article, score);
+            accumulate(scores, article, score * decayFactor(ref.getTimestamp(), anchor), true);
 
             processedIds.add(articleId);
         }
@@ -208,11 +320,8 @@ public class UserInterestProfileService implements UserPreferenceService {
             List<UserBehaviorDocument.ArticleRef> collections,
             Map<UUID, ArticleSummary> articleMap,
             Set<String> processedIds,
-            Map<String, Double> feedScores,
-            Map<String, Double> tagScores,
-            Map<String, Double> categoryScores,
-            Map<String, Double> keywordScores,
-            Map<String, Double> entityScores) {
+            Instant anchor,
+            Map<String, Map<String, Double>> scores) {
 
         for (UserBehaviorDocument.ArticleRef ref : collections) {
             String articleId = ref.getArticleId();
@@ -233,10 +342,27 @@ public class UserInterestProfileService implements UserPreferenceService {
             // 收藏但未阅读，给予收藏加成分数
             double score = 1.0 + collectionBonus;
 
-            accumulateFeedScore(feedScores, article, score);
-            accumulateTagScores(tagScores, article, score);
-            accumulateCategoryScore(categoryScores, article, score);
+            accumulate(scores, article, score * decayFactor(ref.getTimestamp(), anchor), false);
+        }
+    }
+
+    /**
+     * 按维度累加一篇文章的属性得分，includeText 为 true 时额外抽取关键词与实体
+     */
+    private void accumulate(
+            Map<String, Map<String, Double>> scores,
+            ArticleSummary article,
+            double score,
+            boolean includeText) {
+
+        accumulateFeedScore(scores.computeIfAbsent(FEED_TITLE, key -> new HashMap<>()), article, score);
+        accumulateTagScores(scores.computeIfAbsent(TAG, key -> new HashMap<>()), article, score);
+        accumulateCategoryScore(scores.computeIfAbsent(CATEGORY, key -> new HashMap<>()), article, score);
+        if (includeText) {
+            accumulateKeywordScores(scores.computeIfAbsent(KEYWORD, key -> new HashMap<>()), article, score);
+            accumulateEntityScores(scores.computeIfAbsent(ENTITY, key -> new HashMap<>()), article, score);
         }
+        scores.values().removeIf(Map::isEmpty);
     }
 
     /**
@@ -348,10 +474,13 @@ public class UserInterestProfileService implements UserPreferenceService {
     /**
      * 归一化：将原始分数转换为 0-1 的比例权重
      * 如果总分太低，保留原始分数以避免信息丢失
+     *
+     * @param decay 锚点到当前时间的衰减系数，同维度归一化时会被约去
      */
     private List<AttributePreference> normalizeAndConvert(
             Map<String, Double> scores,
-            String attrKey) {
+            String attrKey,
+            double decay) {
 
         if (scores.isEmpty()) {
             return List.of();
@@ -365,13 +494,45 @@ public class UserInterestProfileService implements UserPreferenceService {
             return List.of();
         }
 
-        boolean shouldNormalize = total >= minTotalScore;
+        boolean shouldNormalize = total * decay >= minTotalScore;
 
         return scores.entrySet().stream()
                 .map(e -> {
-                    double weight = shouldNormalize ? e.getValue() / total : e.getValue();
+                    double weight = shouldNormalize ? e.getValue() / total : e.getValue() * decay;
                     return new AttributePreference(attrKey, e.getKey(), weight);
                 })
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * 每个维度只保留得分最高的若干个取值，避免画像无限增长
+     */
+    private Map<String, Map<String, Double>> prune(Map<String, Map<String, Double>> scores) {
+        int max = Math.max(1, maxValuesPerAttribute);
+        Map<String, Map<String, Double>> pruned = new HashMap<>(scores.size() * 2);
+        scores.forEach((attribute, values) -> {
+            if (values.size() <= max) {
+                pruned.put(attribute, values);
+                return;
+            }
+            Map<String, Double> top = new HashMap<>(max * 2);
+            values.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(max)
+                    .forEach(e -> top.put(e.getKey(), e.getValue()));
+            pruned.put(attribute, top);
+        });
+        return pruned;
+    }
+
+    /**
+     * 前向衰减系数 {@code exp(λ * (t - anchor))}，λ = ln2 / halfLife。
+     */
+    private double decayFactor(Instant timestamp, Instant anchor) {
+        if (timestamp == null || anchor == null) {
+            return 1.0;
+        }
+        double lambda = Math.log(2) / Math.max(1L, halfLife.toSeconds());
+        return Math.exp(lambda * Duration.between(anchor, timestamp).toSeconds());
+    }
+}
@@ -5,19 +5,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.CoOccurIndex;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.EmbeddingStore;
 import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.record.ItemNeighborRecord;
+import org.bitmagic.ifeed.domain.repository.ArticleEmbeddingRepository;
+import org.bitmagic.ifeed.infrastructure.recall.hnsw.HnswAnnIndex;
 import org.bitmagic.ifeed.infrastructure.vector.SearchRequestTurbo;
 import org.bitmagic.ifeed.infrastructure.vector.VectorStoreTurbo;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * 使用向量相似度实现的物品共现索引。
+ * <p>
+ * 批量查询时，HNSW 索引就绪则一次读取全部种子向量后依次在内存图上检索；否则合并为一次 PgVector LATERAL kNN 查询。
+ * 调用方已运行在召回线程池上，内存检索不再另行并行，避免占用公共 ForkJoin 池。
  */
 @Slf4j
 @Component
@@ -27,6 +31,8 @@ public class VectorCoOccurIndex implements CoOccurIndex {
     private final EmbeddingStore embeddingStore;
     private final VectorStoreTurbo vectorStore;
     private final RecallVectorProperties properties;
+    private final ArticleEmbeddingRepository articleEmbeddingRepository;
+    private final ObjectProvider<HnswAnnIndex> hnswAnnIndex;
 
     @Override
     public List<ScoredId> topRelated(Long itemId, int k) {
@@ -39,6 +45,46 @@ public class VectorCoOccurIndex implements CoOccurIndex {
                 .orElse(List.of());
     }
 
+    @Override
+    public Map<Long, List<ScoredId>> topRelatedAll(Collection<Long> itemIds, int k) {
+        if (itemIds == null || itemIds.isEmpty() || k <= 0) {
+            return Map.of();
+        }
+        List<Long> seeds = itemIds.stream().filter(Objects::nonNull).distinct().toList();
+        HnswAnnIndex hnsw = hnswAnnIndex.getIfAvailable();
+        Map<Long, List<ScoredId>> found = hnsw != null && hnsw.isReady()
+                ? searchInMemory(hnsw, seeds, k)
+                : searchInDatabase(seeds, k);
+        Map<Long, List<ScoredId>> results = new LinkedHashMap<>();
+        seeds.forEach(seed -> results.put(seed, found.getOrDefault(seed, List.of())));
+        return results;
+    }
+
+    private Map<Long, List<ScoredId>> searchInMemory(HnswAnnIndex hnsw, List<Long> seeds, int k) {
+        Map<Long, float[]> vectors = new HashMap<>(seeds.size() * 2);
+        articleEmbeddingRepository.forEachByIds(seeds, (id, vector) -> vectors.put(id, vector.clone()));
+        Map<Long, List<ScoredId>> results = new HashMap<>(vectors.size() * 2);
+        vectors.forEach((seed, vector) -> results.put(seed,
+                hnsw.query(vector, k + 1, Map.of()).stream()
+                        .filter(neighbor -> neighbor.id() != seed)
+                        .limit(k)
+                        .toList()));
+        return results;
+    }
+
+    private Map<Long, List<ScoredId>> searchInDatabase(List<Long> seeds, int k) {
+        Map<Long, ItemNeighborRecord> records = articleEmbeddingRepository.findNearestNeighbors(seeds, k, properties.similarityThreshold());
+        Map<Long, List<ScoredId>> results = new HashMap<>(records.size() * 2);
+        records.forEach((seed, record) -> {
+            List<ScoredId> neighbors = new ArrayList<>(record.size());
+            for (int i = 0; i < record.size(); i++) {
+                neighbors.add(ScoredId.of(record.neighborIds()[i], record.scores()[i]));
+            }
+            results.put(seed, neighbors);
+        });
+        return results;
+    }
+
     private List<ScoredId> searchSimilarItems(Long seedId, float[] vector, int topK) {
         var request = SearchRequestTurbo.builder()
                 .embedding(vector)
@@ -0,0 +1,140 @@
+package org.bitmagic.ifeed.infrastructure.recall;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 召回向量检索的元数据过滤条件：订阅源 + 发布时间窗口。
+ * <p>
+ * 同一份条件既可以转换为 PgVector 的过滤表达式，也可以在内存索引中逐条判定，保证两种实现语义一致。
+ *
+ * @param feedIds         允许的订阅源，空集合表示不限制
+ * @param publishedAfter  发布时间下界（epoch 秒，含），null 表示不限制
+ * @param publishedBefore 发布时间上界（epoch 秒，含），null 表示不限制
+ */
+public record VectorSearchFilter(Set<Integer> feedIds, Long publishedAfter, Long publishedBefore) {
+
+    public static final String FEED_ID = "feedId";
+    public static final String FEED_IDS = "feedIds";
+    public static final String PUBLISHED_AFTER = "publishedAfter";
+    public static final String PUBLISHED_BEFORE = "publishedBefore";
+
+    private static final VectorSearchFilter NONE = new VectorSearchFilter(Set.of(), null, null);
+
+    public VectorSearchFilter {
+        feedIds = feedIds == null ? Set.of() : Set.copyOf(feedIds);
+    }
+
+    public static VectorSearchFilter none() {
+        return NONE;
+    }
+
+    /**
+     * 从召回上下文属性中解析，无关字段（如 diversityKey）会被忽略。
+     */
+    public static VectorSearchFilter from(Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return NONE;
+        }
+        Set<Integer> feedIds = new HashSet<>();
+        collectFeedIds(filters.get(FEED_ID), feedIds);
+        collectFeedIds(filters.get(FEED_IDS), feedIds);
+        Long after = toEpochSecond(filters.get(PUBLISHED_AFTER));
+        Long before = toEpochSecond(filters.get(PUBLISHED_BEFORE));
+        if (feedIds.isEmpty() && after == null && before == null) {
+            return NONE;
+        }
+        return new VectorSearchFilter(feedIds, after, before);
+    }
+
+    public boolean isEmpty() {
+        return feedIds.isEmpty() && publishedAfter == null && publishedBefore == null;
+    }
+
+    public boolean matches(int feedId, long publishedAt) {
+        if (!feedIds.isEmpty() && !feedIds.contains(feedId)) {
+            return false;
+        }
+        if (publishedAfter != null && publishedAt < publishedAfter) {
+            return false;
+        }
+        return publishedBefore == null || publishedAt <= publishedBefore;
+    }
+
+    /**
+     * 转换为 PgVector 过滤表达式，字段与 article_embeddings.metadata 中的 feedId / publishedAt 对应。
+     */
+    public Optional<Filter.Expression> toExpression() {
+        if (isEmpty()) {
+            return Optional.empty();
+        }
+        var b = new FilterExpressionBuilder();
+        List<FilterExpressionBuilder.Op> ops = new ArrayList<>(3);
+        if (!feedIds.isEmpty()) {
+            ops.add(b.in(FEED_ID, feedIds.toArray()));
+        }
+        if (publishedAfter != null) {
+            ops.add(b.gte("publishedAt", publishedAfter));
+        }
+        if (publishedBefore != null) {
+            ops.add(b.lte("publishedAt", publishedBefore));
+        }
+        FilterExpressionBuilder.Op combined = ops.getFirst();
+        for (int i = 1; i < ops.size(); i++) {
+            combined = b.and(combined, ops.get(i));
+        }
+        return Optional.of(combined.build());
+    }
+
+    private static void collectFeedIds(Object value, Set<Integer> target) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(item -> collectFeedIds(item, target));
+            return;
+        }
+        if (value instanceof Number number) {
+            target.add(number.intValue());
+            return;
+        }
+        for (String part : value.toString().split(",")) {
+            String trimmed = part.trim();
+            if (!trimmed.isEmpty()) {
+                try {
+                    target.add(Integer.parseInt(trimmed));
+                } catch (NumberFormatException ignored) {
+                    // 非法的订阅源 ID 直接忽略
+                }
+            }
+        }
+    }
+
+    private static Long toEpochSecond(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Instant instant) {
+            return instant.getEpochSecond();
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        String text = value.toString().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException ex) {
+            try {
+                return Instant.parse(text).getEpochSecond();
+            } catch (RuntimeException ignored) {
+                return null;
+            }
+        }
+    }
+}
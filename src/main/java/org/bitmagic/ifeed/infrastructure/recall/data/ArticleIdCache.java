@@ -0,0 +1,105 @@
+package org.bitmagic.ifeed.infrastructure.recall.data;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
+import org.bitmagic.ifeed.domain.record.ArticleTitle;
+import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 文章 UUID ↔ 主键（含标题）的有界双向缓存。
+ * <p>
+ * 文章入库时直接写入，批量解析时先查缓存，未命中的部分合并为一次数据库查询并回填。
+ * 写入后按 TTL 过期，删除或改标题的文章最多在一个 TTL 内仍返回旧映射。
+ * 命中率通过 Micrometer 暴露为 {@code cache.*{cache=article-ids}}。
+ */
+@Slf4j
+@Component
+public class ArticleIdCache {
+
+    private static final String CACHE_NAME = "article-ids";
+
+    private final ArticleRepository articleRepository;
+    private final Cache<UUID, ArticleTitle> byUid;
+    private final Cache<Long, ArticleTitle> byId;
+
+    public ArticleIdCache(ArticleRepository articleRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${recall.article-id-cache.max-size:200000}") long maxSize,
+                          @Value("${recall.article-id-cache.ttl:P1D}") Duration ttl) {
+        this.articleRepository = articleRepository;
+        this.byUid = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUid, CACHE_NAME);
+    }
+
+    /**
+     * 批量解析 UUID，不存在的文章不出现在结果中。
+     */
+    public Map<UUID, ArticleTitle> resolveUids(Collection<UUID> uids) {
+        if (uids == null || uids.isEmpty()) {
+            return Map.of();
+        }
+        return byUid.getAll(new LinkedHashSet<>(uids), missing ->
+                load(missing, articleRepository::findIdByUIdIn, ArticleTitle::uid, article -> byId.put(article.id(), article)));
+    }
+
+    /**
+     * 批量按主键解析，不存在的文章不出现在结果中。
+     */
+    public Map<Long, ArticleTitle> resolveIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return byId.getAll(new LinkedHashSet<>(ids), missing ->
+                load(missing, articleRepository::findTitleByIdIn, ArticleTitle::id, article -> byUid.put(article.uid(), article)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        for (ArticlesIngestedEvent.IngestedArticle article : event.articles()) {
+            if (article.uid() != null) {
+                put(new ArticleTitle(article.uid(), article.id(), article.title()));
+            }
+        }
+    }
+
+    /**
+     * 查询未命中的键；返回值由 Caffeine 写回当前缓存，反向映射通过 reverse 回填另一个缓存。
+     */
+    private <K> Map<K, ArticleTitle> load(Set<? extends K> keys,
+                                          Function<Collection<K>, List<ArticleTitle>> query,
+                                          Function<ArticleTitle, K> keyOf,
+                                          Consumer<ArticleTitle> reverse) {
+        Map<K, ArticleTitle> loaded = new HashMap<>(keys.size() * 2);
+        for (ArticleTitle article : query.apply(new ArrayList<K>(keys))) {
+            loaded.put(keyOf.apply(article), article);
+            reverse.accept(article);
+        }
+        log.debug("Loaded {} of {} article id mappings from database", loaded.size(), keys.size());
+        return loaded;
+    }
+
+    private void put(ArticleTitle article) {
+        byUid.put(article.uid(), article);
+        byId.put(article.id(), article);
+    }
+}
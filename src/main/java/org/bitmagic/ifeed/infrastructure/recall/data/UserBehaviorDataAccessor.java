@@ -4,14 +4,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
 import org.bitmagic.ifeed.domain.record.ArticleTitle;
-import org.bitmagic.ifeed.domain.repository.ArticleRepository;
 import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,7 +22,7 @@ import java.util.stream.Collectors;
 public class UserBehaviorDataAccessor {
 
     private final UserBehaviorRepository userBehaviorRepository;
-    private final ArticleRepository articleRepository;
+    private final ArticleIdCache articleIdCache;
 
     /**
      * 获取用户行为文档
@@ -36,6 +34,27 @@ public class UserBehaviorDataAccessor {
         return userBehaviorRepository.findById(userId.toString());
     }
 
+    /**
+     * 批量获取用户行为文档，一次 Mongo 查询
+     *
+     * @return userId 到行为文档的映射，不存在的用户不出现在结果中
+     */
+    public Map<Integer, UserBehaviorDocument> getUserBehaviors(Collection<Integer> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = userIds.stream().filter(Objects::nonNull).distinct().map(String::valueOf).toList();
+        Map<Integer, UserBehaviorDocument> documents = new HashMap<>(ids.size() * 2);
+        for (UserBehaviorDocument document : userBehaviorRepository.findAllById(ids)) {
+            try {
+                documents.put(Integer.valueOf(document.getId()), document);
+            } catch (NumberFormatException ex) {
+                log.debug("Skip user behavior document with non-numeric id {}", document.getId());
+            }
+        }
+        return documents;
+    }
+
     /**
      * 过滤和排序文章引用列表
      *
@@ -69,7 +88,7 @@ public class UserBehaviorDataAccessor {
     }
 
     /**
-     * 批量转换 articleId (String UUID) 到数据库 ID (Long)
+     * 批量转换 articleId (String UUID) 到数据库 ID (Long)，经 {@link ArticleIdCache} 缓存
      *
      * @param articleIds UUID字符串列表
      * @return UUID到数据库ID的映射
@@ -90,8 +109,7 @@ public class UserBehaviorDataAccessor {
         }
 
         try {
-            return articleRepository.findIdByUIdIn(uuids).stream()
-                    .collect(Collectors.toMap(ArticleTitle::uid, Function.identity()));
+            return articleIdCache.resolveUids(uuids);
         } catch (Exception e) {
             log.error("Failed to batch map article IDs", e);
             return Map.of();
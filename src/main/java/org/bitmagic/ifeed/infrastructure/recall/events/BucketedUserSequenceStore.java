@@ -0,0 +1,255 @@
+package org.bitmagic.ifeed.infrastructure.recall.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.SequenceStore;
+import org.bitmagic.ifeed.domain.document.UserEventBucketDocument;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
+import org.bitmagic.ifeed.domain.record.ArticleTitle;
+import org.bitmagic.ifeed.domain.repository.UserEventBucketRepository;
+import org.bitmagic.ifeed.infrastructure.recall.MongoUserSequenceStore;
+import org.bitmagic.ifeed.infrastructure.recall.data.ArticleIdCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 基于分桶事件的序列存储，开启 {@code recall.user-events.enabled} 后替代 {@link MongoUserSequenceStore}。
+ * <p>
+ * 用户交互事件按（用户、时间桶）追加到 user_event_buckets，读取时按索引倒序只取最近若干条事件，
+ * 事件中直接保存文章主键，无需再做 UUID → Long 映射，标题经 {@link ArticleIdCache} 补齐。
+ * 分桶事件未覆盖整个窗口（开启前的历史数据）且不足 limit 条时，用行为文档中更早的交互补足。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "recall.user-events", name = "enabled", havingValue = "true")
+public class BucketedUserSequenceStore implements SequenceStore {
+
+    private final UserEventProperties properties;
+    private final UserEventBucketRepository bucketRepository;
+    private final ArticleIdCache articleIdCache;
+    private final MongoUserSequenceStore fallback;
+
+    @Value("${recall.sequence.window-days:30}")
+    private int windowDays;
+
+    @Value("${recall.sequence.lookback:200}")
+    private int lookback;
+
+    @Value("${recall.sequence.fetch-multiplier:2}")
+    private int fetchMultiplier;
+
+    @Value("${recall.sequence.max-fetch-limit:1000}")
+    private int maxFetchLimit;
+
+    @Value("${recall.sequence.recency-decay-factor:1.0}")
+    private double recencyDecayFactor;
+
+    @Value("${recall.sequence.interaction-weight-base:0.1}")
+    private double interactionWeightBase;
+
+    @Value("${recall.sequence.estimated-interaction-duration:30.0}")
+    private double estimatedInteractionDuration;
+
+    @Value("${recall.sequence.use-logarithmic-interaction:true}")
+    private boolean useLogarithmicInteraction;
+
+    public BucketedUserSequenceStore(UserEventProperties properties,
+                                     UserEventBucketRepository bucketRepository,
+                                     ArticleIdCache articleIdCache,
+                                     MongoUserSequenceStore fallback) {
+        this.properties = properties;
+        this.bucketRepository = bucketRepository;
+        this.articleIdCache = articleIdCache;
+        this.fallback = fallback;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            bucketRepository.ensureIndexes(properties.getRetention());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to create user event bucket indexes", ex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (event.articleId() == null || event.action() == UserInteractionEvent.Action.UNCOLLECT) {
+            return;
+        }
+        try {
+            bucketRepository.append(event.userId(), bucketStart(event.timestamp()), UserEventBucketDocument.Event.builder()
+                    .articleId(event.articleId())
+                    .articleUid(event.articleUid() == null ? null : event.articleUid().toString())
+                    .action(event.action().name())
+                    .timestamp(event.timestamp())
+                    .build(), properties.getMaxEventsPerBucket());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to append user event for user {}", event.userId(), ex);
+        }
+    }
+
+    @Override
+    public List<UserInteraction> recentInteractions(Integer userId, int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
+        Instant since = since();
+        List<UserEventBucketDocument.Event> events = bucketRepository.findRecent(userId, since, fetchLimit(limit));
+        if (events.isEmpty()) {
+            return fallback.recentInteractions(userId, limit);
+        }
+        Map<Long, ArticleTitle> titles = loadTitles(events);
+        List<UserInteraction> interactions = buildUserInteractions(events, titles, limit);
+        if (needsTopUp(interactions, events, since, limit)) {
+            return topUp(interactions, fallback.recentInteractions(userId, limit), limit);
+        }
+        return interactions;
+    }
+
+    /**
+     * 批量读取：逐个用户读取事件桶，一次主键查询补齐标题；需要补足的用户批量从行为文档读取。
+     */
+    @Override
+    public Map<Integer, List<UserInteraction>> recentInteractions(Collection<Integer> userIds, int limit) {
+        if (userIds == null || userIds.isEmpty() || limit <= 0) {
+            return Map.of();
+        }
+        Instant since = since();
+        Map<Integer, List<UserEventBucketDocument.Event>> eventsByUser =
+                bucketRepository.findRecent(userIds, since, fetchLimit(limit));
+        Map<Long, ArticleTitle> titles = loadTitles(eventsByUser.values().stream().flatMap(List::stream).toList());
+
+        Map<Integer, List<UserInteraction>> results = new HashMap<>(userIds.size() * 2);
+        List<Integer> incomplete = new ArrayList<>();
+        userIds.stream().filter(Objects::nonNull).distinct().forEach(userId -> {
+            List<UserEventBucketDocument.Event> events = eventsByUser.getOrDefault(userId, List.of());
+            List<UserInteraction> interactions = buildUserInteractions(events, titles, limit);
+            if (!interactions.isEmpty()) {
+                results.put(userId, interactions);
+            }
+            if (events.isEmpty() || needsTopUp(interactions, events, since, limit)) {
+                incomplete.add(userId);
+            }
+        });
+        if (!incomplete.isEmpty()) {
+            fallback.recentInteractions(incomplete, limit).forEach((userId, legacy) ->
+                    results.put(userId, topUp(results.getOrDefault(userId, List.of()), legacy, limit)));
+        }
+        return results;
+    }
+
+    /**
+     * 不足 limit 条且最早的事件晚于窗口起点所在的桶时，说明窗口前段的交互只存在于行为文档中。
+     */
+    private boolean needsTopUp(List<UserInteraction> interactions,
+                               List<UserEventBucketDocument.Event> events,
+                               Instant since,
+                               int limit) {
+        if (interactions.size() >= limit || events.isEmpty()) {
+            return false;
+        }
+        Instant oldest = events.getLast().getTimestamp();
+        return since == null || !oldest.isBefore(since.plus(properties.getBucketDuration()));
+    }
+
+    /**
+     * 在分桶结果之后追加行为文档中未出现过的文章，时效权重按追加后的位置重新计算。
+     */
+    private List<UserInteraction> topUp(List<UserInteraction> primary, List<UserInteraction> legacy, int limit) {
+        if (legacy == null || legacy.isEmpty()) {
+            return primary;
+        }
+        List<UserInteraction> results = new ArrayList<>(primary);
+        Set<Long> seen = primary.stream().map(UserInteraction::itemId).collect(Collectors.toSet());
+        for (int i = 0; i < legacy.size() && results.size() < limit; i++) {
+            UserInteraction interaction = legacy.get(i);
+            if (!seen.add(interaction.itemId())) {
+                continue;
+            }
+            // 行为文档按自身位置 i 计算了时效权重，换算到合并后的位置
+            double shift = Math.exp(-(results.size() - i) / (recencyDecayFactor * limit));
+            results.add(new UserInteraction(interaction.itemId(), interaction.itemTitle(), interaction.durationSeconds(),
+                    interaction.weight() * shift, interaction.timestamp()));
+        }
+        return results;
+    }
+
+    /**
+     * 同一文章只保留最近一次事件，重复阅读与收藏计为互动次数；权重计算与 {@link MongoUserSequenceStore} 一致。
+     */
+    private List<UserInteraction> buildUserInteractions(List<UserEventBucketDocument.Event> events,
+                                                        Map<Long, ArticleTitle> titles,
+                                                        int limit) {
+        Map<Long, Long> repeats = events.stream()
+                .collect(Collectors.groupingBy(UserEventBucketDocument.Event::getArticleId, Collectors.counting()));
+        Set<Long> seen = new HashSet<>();
+        List<UserInteraction> results = new ArrayList<>();
+        int index = 0;
+        for (UserEventBucketDocument.Event event : events) {
+            Long articleId = event.getArticleId();
+            if (!seen.add(articleId)) {
+                continue;
+            }
+            ArticleTitle article = titles.get(articleId);
+            if (article == null) {
+                // 文章已删除
+                continue;
+            }
+            double recencyWeight = Math.exp(-index / (recencyDecayFactor * limit));
+            long interactionCount = repeats.getOrDefault(articleId, 1L) - 1;
+            double weight = recencyWeight * (1.0 + interactionWeight(interactionCount));
+            double duration = interactionCount * estimatedInteractionDuration;
+            results.add(new UserInteraction(articleId, article.title(), duration, weight, event.getTimestamp()));
+            index++;
+            if (results.size() >= limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private double interactionWeight(long interactionCount) {
+        if (interactionCount <= 0) {
+            return 0.0;
+        }
+        return useLogarithmicInteraction
+                ? Math.log1p(interactionCount) * interactionWeightBase
+                : interactionCount * interactionWeightBase;
+    }
+
+    private Map<Long, ArticleTitle> loadTitles(List<UserEventBucketDocument.Event> events) {
+        Set<Long> ids = events.stream()
+                .map(UserEventBucketDocument.Event::getArticleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return articleIdCache.resolveIds(ids);
+    }
+
+    private int fetchLimit(int limit) {
+        return Math.min(Math.max(limit * fetchMultiplier, lookback), maxFetchLimit);
+    }
+
+    private Instant since() {
+        return windowDays > 0 ? bucketStart(Instant.now().minus(Duration.ofDays(windowDays))) : null;
+    }
+
+    private Instant bucketStart(Instant timestamp) {
+        long bucketMillis = Math.max(1L, properties.getBucketDuration().toMillis());
+        long millis = timestamp.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, bucketMillis));
+    }
+}
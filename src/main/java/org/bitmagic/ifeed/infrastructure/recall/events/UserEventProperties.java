@@ -0,0 +1,36 @@
+package org.bitmagic.ifeed.infrastructure.recall.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 分桶用户事件存储参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.user-events")
+public class UserEventProperties {
+
+    /**
+     * 是否写入分桶事件并以其作为召回的用户序列来源，关闭时仍读取 user_behavior 文档。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 时间桶长度。
+     */
+    private Duration bucketDuration = Duration.ofDays(1);
+
+    /**
+     * 单个桶最多保存的事件数，写满后同一时间段开新桶，避免出现大文档。
+     */
+    private int maxEventsPerBucket = 200;
+
+    /**
+     * 事件保留时长，通过 TTL 索引自动清理，为 0 时永久保留。
+     */
+    private Duration retention = Duration.ofDays(180);
+}
@@ -0,0 +1,36 @@
+package org.bitmagic.ifeed.infrastructure.recall.freshness;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 文章发布时间内存索引参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.freshness")
+public class FreshnessIndexProperties {
+
+    /**
+     * 是否启用内存索引，关闭时每次融合都查询数据库。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 启动时预热的发布时间窗口，更早的文章在首次查询时从数据库加载。
+     */
+    private Duration warmWindow = Duration.ofDays(30);
+
+    /**
+     * 预热时每批加载的文章数。
+     */
+    private int warmBatchSize = 5000;
+
+    /**
+     * 索引最大条目数，超出后按发布时间淘汰旧文章，保留最新的 80%。
+     */
+    private int maxEntries = 2_000_000;
+}
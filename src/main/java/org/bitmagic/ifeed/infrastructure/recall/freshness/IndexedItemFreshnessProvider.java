@@ -0,0 +1,122 @@
+package org.bitmagic.ifeed.infrastructure.recall.freshness;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ItemFreshnessProvider;
+import org.bitmagic.ifeed.domain.event.ArticleEmbeddedEvent;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
+import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.bitmagic.ifeed.infrastructure.recall.JpaItemFreshnessProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 基于内存索引的新鲜度数据提供器，开启 {@code recall.freshness.enabled} 后替代 {@link JpaItemFreshnessProvider}。
+ * <p>
+ * 启动时按 ID 分页预热 warm-window 内的文章，之后随 {@link ArticlesIngestedEvent} 实时写入；
+ * 未命中的 ID 回落到数据库查询并回填索引，融合阶段通常不再产生数据库往返。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "recall.freshness", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class IndexedItemFreshnessProvider implements ItemFreshnessProvider {
+
+    private final FreshnessIndexProperties properties;
+    private final ArticleRepository articleRepository;
+    private final JpaItemFreshnessProvider fallback;
+
+    /**
+     * 超限淘汰后保留的条目比例，留出余量避免每次写入都触发淘汰。
+     */
+    private static final double LOW_WATER_RATIO = 0.8;
+
+    private final PublishTimeIndex index = new PublishTimeIndex(1 << 16);
+
+    @Override
+    public Map<Long, Instant> publishedAt(Collection<Long> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Instant> result = new HashMap<>(itemIds.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        index.lookup(itemIds, result, misses);
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, Instant> loaded = fallback.publishedAt(misses);
+        result.putAll(loaded);
+        // 索引已满时不再回填旧文章，避免反复淘汰
+        if (!loaded.isEmpty() && index.size() < properties.getMaxEntries()) {
+            index.putAll(loaded);
+        }
+        return result;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        Instant since = Instant.now().minus(properties.getWarmWindow());
+        int batchSize = Math.max(1, properties.getWarmBatchSize());
+        long cursor = 0L;
+        int loaded = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = articleRepository.findPublishedAtAfter(cursor, since, PageRequest.of(0, batchSize));
+                Map<Long, Instant> batch = new HashMap<>(rows.size() * 2);
+                for (Object[] row : rows) {
+                    if (row[0] instanceof Long id && row[1] instanceof Instant publishedAt) {
+                        batch.put(id, publishedAt);
+                        cursor = Math.max(cursor, id);
+                    }
+                }
+                index.putAll(batch);
+                loaded += batch.size();
+                if (rows.size() < batchSize || batch.isEmpty()) {
+                    break;
+                }
+            }
+            ensureCapacity();
+            log.info("Freshness index warmed with {} articles in {} ms", loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to warm freshness index after {} articles, falling back to database lookups", loaded, ex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        for (ArticlesIngestedEvent.IngestedArticle article : event.articles()) {
+            index.put(article.id(), article.publishedAt());
+        }
+        ensureCapacity();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleEmbedded(ArticleEmbeddedEvent event) {
+        index.put(event.articleId(), event.publishedAt());
+    }
+
+    /**
+     * 超过上限时按发布时间淘汰到低水位，之后的写入在重新涨到上限前不再触发淘汰。
+     */
+    private void ensureCapacity() {
+        int maxEntries = properties.getMaxEntries();
+        if (index.size() > maxEntries) {
+            index.retainNewest((int) (maxEntries * LOW_WATER_RATIO));
+            log.info("Freshness index exceeded {} entries, retained {} recent articles", maxEntries, index.size());
+        }
+    }
+}
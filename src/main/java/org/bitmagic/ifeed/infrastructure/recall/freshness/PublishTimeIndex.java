@@ -0,0 +1,197 @@
+package org.bitmagic.ifeed.infrastructure.recall.freshness;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 文章 ID → 发布时间（epoch 秒）的内存索引，开放寻址 + 线性探测，键值都存放在 long 数组中。
+ * <p>
+ * 每个条目约 32 字节（含 50% 装载因子），读多写少，使用读写锁保护。
+ */
+final class PublishTimeIndex {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    PublishTimeIndex(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(long id, Instant publishedAt) {
+        if (id == EMPTY_KEY || publishedAt == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(id, publishedAt.getEpochSecond());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putAll(Map<Long, Instant> publishTimes) {
+        lock.writeLock().lock();
+        try {
+            publishTimes.forEach((id, publishedAt) -> {
+                if (id != null && id != EMPTY_KEY && publishedAt != null) {
+                    insert(id, publishedAt.getEpochSecond());
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量查询：命中写入 found，未命中的 ID 加入 misses。
+     */
+    void lookup(Collection<Long> ids, Map<Long, Instant> found, Collection<Long> misses) {
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                if (id == null) {
+                    continue;
+                }
+                int index = find(id);
+                if (index >= 0) {
+                    found.put(id, Instant.ofEpochSecond(values[index]));
+                } else {
+                    misses.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 只保留发布时间最新的 limit 个条目，用于容量超限时淘汰旧文章（旧文章回落到数据库查询）。
+     * 发布时间相同的条目按槽位顺序保留，保证淘汰后条目数不超过 limit。
+     */
+    void retainNewest(int limit) {
+        lock.writeLock().lock();
+        try {
+            if (size <= limit) {
+                return;
+            }
+            long[] published = new long[size];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY_KEY) {
+                    published[n++] = values[i];
+                }
+            }
+            Arrays.sort(published);
+            long threshold = limit > 0 ? published[size - limit] : Long.MAX_VALUE;
+            int newer = size - lowerBound(published, threshold + 1);
+            int ties = Math.max(0, limit - newer);
+
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            allocate(oldKeys.length);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY_KEY || oldValues[i] < threshold) {
+                    continue;
+                }
+                if (oldValues[i] == threshold) {
+                    if (ties == 0) {
+                        continue;
+                    }
+                    ties--;
+                }
+                insert(oldKeys[i], oldValues[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+
+    private int find(long id) {
+        int index = mix(id) & mask;
+        while (true) {
+            long key = keys[index];
+            if (key == id) {
+                return index;
+            }
+            if (key == EMPTY_KEY) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void insert(long id, long epochSecond) {
+        int index = mix(id) & mask;
+        while (keys[index] != EMPTY_KEY && keys[index] != id) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == EMPTY_KEY) {
+            keys[index] = id;
+            size++;
+        }
+        values[index] = epochSecond;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY_KEY) {
+                continue;
+            }
+            int index = mix(oldKeys[i]) & mask;
+            while (keys[index] != EMPTY_KEY) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        mask = capacity - 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,358 @@
+package org.bitmagic.ifeed.infrastructure.recall.hnsw;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.AnnIndex;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.event.ArticleEmbeddedEvent;
+import org.bitmagic.ifeed.domain.record.ArticleEmbeddingRecord;
+import org.bitmagic.ifeed.domain.repository.ArticleEmbeddingRepository;
+import org.bitmagic.ifeed.infrastructure.recall.RecallVectorProperties;
+import org.bitmagic.ifeed.infrastructure.recall.VectorAnnIndex;
+import org.bitmagic.ifeed.infrastructure.recall.VectorSearchFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 基于进程内 HNSW 图的 ANN 查询实现，开启 {@code recall.hnsw.enabled} 后替代 {@link VectorAnnIndex}。
+ * <p>
+ * 启动时优先加载本地快照，再追平快照之后在 article_embeddings 中新增、改写或删除的向量（按 updated_at 与删除记录）；
+ * 之后随 {@link ArticleEmbeddedEvent} 实时写入，并在每次落盘快照前再对齐一次，弥补丢失的事件。
+ * 索引就绪前的查询回落到 PgVector。
+ * <p>
+ * 量化模式下先在 int8 图上取 {@code k * rescoreFactor} 个候选，再用快照旁内存映射文件（{@link RawVectorFile}）中的
+ * float32 向量精确重排，查询全程不访问数据库。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "recall.hnsw", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class HnswAnnIndex implements AnnIndex {
+
+    /**
+     * 追平时向前多回溯的时长，覆盖提交晚于 updated_at 的长事务以及主机间的时钟偏差。
+     */
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+    private static final String RAW_VECTOR_SUFFIX = ".vec";
+
+    private final HnswIndexProperties properties;
+    private final RecallVectorProperties vectorProperties;
+    private final ArticleEmbeddingRepository articleEmbeddingRepository;
+    private final VectorAnnIndex fallback;
+
+    /**
+     * 索引就绪前或压缩期间到达的增量，完成后回放到新图。
+     */
+    private final Queue<ArticleEmbeddedEvent> pending = new ConcurrentLinkedQueue<>();
+
+    private final Object writeMonitor = new Object();
+
+    private volatile HnswGraph graph;
+    private volatile boolean ready;
+    private volatile boolean compacting;
+
+    @Override
+    public List<ScoredId> query(float[] vector, int k, Map<String, Object> filters) {
+        if (vector == null || vector.length == 0 || k <= 0) {
+            return List.of();
+        }
+        HnswGraph current = graph;
+        if (!ready || current == null) {
+            return fallback.query(vector, k, filters);
+        }
+        int candidates = current.quantized() ? k * Math.max(1, properties.getRescoreFactor()) : k;
+        List<HnswGraph.Neighbor> neighbors = current.search(vector, candidates, properties.getEfSearch(),
+                VectorSearchFilter.from(filters), properties.getFilterVisitLimit());
+        if (current.quantized()) {
+            neighbors = current.rescore(vector, neighbors, k);
+        }
+        double threshold = vectorProperties.similarityThreshold();
+        List<ScoredId> results = new ArrayList<>(neighbors.size());
+        for (HnswGraph.Neighbor neighbor : neighbors) {
+            if (neighbor.score() < threshold) {
+                continue;
+            }
+            results.add(new ScoredId(neighbor.id(), neighbor.score(), Map.of("feedId", neighbor.feedId())));
+        }
+        return results;
+    }
+
+    /**
+     * 索引是否已完成加载，未就绪时查询会回落到 PgVector。
+     */
+    public boolean isReady() {
+        return ready && graph != null;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        try {
+            HnswGraph loaded = loadSnapshot();
+            if (loaded == null) {
+                loaded = new HnswGraph(properties.getDimensions(), properties.getM(), properties.getEfConstruction(), properties.isQuantized());
+                if (loaded.quantized()) {
+                    loaded.attachRawVectors(newRawVectorFile());
+                }
+            }
+            int caughtUp = catchUp(loaded);
+            synchronized (writeMonitor) {
+                graph = loaded;
+                ready = true;
+                replayPending(loaded);
+            }
+            log.info("HNSW index ready: {} vectors ({} loaded from database) in {} ms",
+                    loaded.size(), caughtUp, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            log.error("Failed to build HNSW index, vector queries keep using PgVector", ex);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleEmbedded(ArticleEmbeddedEvent event) {
+        synchronized (writeMonitor) {
+            if (!ready) {
+                pending.add(event);
+                return;
+            }
+            if (compacting) {
+                pending.add(event);
+            }
+            index(graph, event);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recall.hnsw.snapshot-interval:PT30M}",
+            fixedDelayString = "${recall.hnsw.snapshot-interval:PT30M}")
+    public void snapshot() {
+        HnswGraph current = graph;
+        if (!ready || current == null) {
+            return;
+        }
+        try {
+            synchronized (writeMonitor) {
+                catchUp(current);
+            }
+            articleEmbeddingRepository.purgeDeletionsBefore(Instant.now().minus(properties.getDeletionRetention()));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to reconcile HNSW index with article_embeddings before snapshot", ex);
+        }
+        if (current.deletedRatio() > properties.getCompactionThreshold()) {
+            try {
+                current = compact(current);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to compact HNSW index", ex);
+            }
+        }
+        writeSnapshot(current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        HnswGraph current = graph;
+        if (ready && current != null) {
+            writeSnapshot(current);
+        }
+    }
+
+    /**
+     * 在旧图之外重建新图，期间的写入同时记入 pending，切换前回放，查询全程不受影响。
+     */
+    private HnswGraph compact(HnswGraph current) {
+        synchronized (writeMonitor) {
+            compacting = true;
+        }
+        HnswGraph compacted;
+        try {
+            compacted = current.compact(current.quantized() ? newRawVectorFile() : null);
+        } catch (RuntimeException ex) {
+            synchronized (writeMonitor) {
+                compacting = false;
+                pending.clear();
+            }
+            throw ex;
+        }
+        synchronized (writeMonitor) {
+            replayPending(compacted);
+            graph = compacted;
+            compacting = false;
+        }
+        // 映射页在缓冲区回收前仍然有效，仍在旧图上执行的查询不受删除影响
+        if (current.rawVectors() != null) {
+            current.rawVectors().delete();
+        }
+        log.info("HNSW index compacted to {} vectors", compacted.size());
+        return compacted;
+    }
+
+    /**
+     * 为量化图创建新的原始向量文件：与快照同目录、以创建时间区分；未配置快照路径时放在临时目录。
+     */
+    private RawVectorFile newRawVectorFile() {
+        Path path = properties.getSnapshotPath();
+        try {
+            if (path == null) {
+                return RawVectorFile.temporary(properties.getDimensions());
+            }
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return RawVectorFile.open(path.resolveSibling(path.getFileName() + "." + System.currentTimeMillis() + RAW_VECTOR_SUFFIX),
+                    properties.getDimensions());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create HNSW raw vector file", ex);
+        }
+    }
+
+    private void replayPending(HnswGraph target) {
+        ArticleEmbeddedEvent event;
+        while ((event = pending.poll()) != null) {
+            index(target, event);
+        }
+    }
+
+    private void index(HnswGraph target, ArticleEmbeddedEvent event) {
+        long publishedAt = event.publishedAt() == null ? 0L : event.publishedAt().getEpochSecond();
+        int feedId = event.feedId() == null ? -1 : event.feedId();
+        articleEmbeddingRepository.findById(event.articleId())
+                .map(ArticleEmbeddingRecord::embedding)
+                .ifPresent(vector -> target.upsert(event.articleId(), vector, feedId, publishedAt));
+    }
+
+    /**
+     * 把图对齐到 article_embeddings：新图全量加载，已同步过的图只处理 syncedAt 之后的删除与写入，完成后推进 syncedAt。
+     *
+     * @return 本次写入图中的向量数
+     */
+    private int catchUp(HnswGraph target) {
+        Instant syncStart = Instant.now();
+        Instant since = target.syncedAt() > 0 ? Instant.ofEpochMilli(target.syncedAt()).minus(CATCH_UP_OVERLAP) : null;
+        if (since != null) {
+            articleEmbeddingRepository.findDeletedSince(since).forEach(target::remove);
+        }
+        int batchSize = Math.max(1, properties.getLoadBatchSize());
+        long cursor = Long.MIN_VALUE;
+        int loaded = 0;
+        while (true) {
+            int[] rows = {0, 0};
+            cursor = articleEmbeddingRepository.forEachAfter(cursor, since, batchSize, (id, vector, feedId, publishedAt) -> {
+                rows[0]++;
+                if (target.upsert(id, vector, feedId == null ? -1 : feedId, publishedAt == null ? 0L : publishedAt)) {
+                    rows[1]++;
+                } else {
+                    log.debug("Skip article {} with unexpected vector dimension {}", id, vector.length);
+                }
+            });
+            loaded += rows[1];
+            if (rows[0] < batchSize) {
+                target.markSynced(syncStart.toEpochMilli());
+                return loaded;
+            }
+        }
+    }
+
+    private HnswGraph loadSnapshot() {
+        Path path = properties.getSnapshotPath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            HnswGraph loaded = HnswGraph.readFrom(in);
+            if (loaded.dimensions() != properties.getDimensions() || loaded.quantized() != properties.isQuantized()) {
+                log.warn("Ignore HNSW snapshot {} (dimension {}, quantized {}) that does not match current settings",
+                        path, loaded.dimensions(), loaded.quantized());
+                return null;
+            }
+            // 早于删除记录保留期的快照无法确认期间删除了哪些向量，只能重建
+            if (Instant.ofEpochMilli(loaded.syncedAt()).isBefore(Instant.now().minus(properties.getDeletionRetention()))) {
+                log.warn("Ignore HNSW snapshot {} synced at {}, older than deletion retention {}",
+                        path, Instant.ofEpochMilli(loaded.syncedAt()), properties.getDeletionRetention());
+                return null;
+            }
+            if (loaded.quantized()) {
+                Path rawPath = path.resolveSibling(loaded.rawVectorFileName());
+                if (loaded.rawVectorFileName().isEmpty() || !Files.isRegularFile(rawPath)) {
+                    log.warn("Ignore HNSW snapshot {} whose raw vector file {} is missing", path, rawPath);
+                    return null;
+                }
+                RawVectorFile raw = RawVectorFile.open(rawPath, loaded.dimensions());
+                try {
+                    loaded.attachRawVectors(raw);
+                } catch (RuntimeException ex) {
+                    raw.close();
+                    throw ex;
+                }
+            }
+            log.info("Loaded HNSW snapshot {} with {} vectors", path, loaded.size());
+            return loaded;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to load HNSW snapshot {}, rebuilding from database", path, ex);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(HnswGraph current) {
+        Path path = properties.getSnapshotPath();
+        if (path == null) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            current.forceRawVectors();
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                current.writeTo(out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteStaleRawVectorFiles(path, current.rawVectorFileName());
+            log.debug("HNSW snapshot written to {}", path);
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Failed to write HNSW snapshot {}", path, ex);
+        }
+    }
+
+    /**
+     * 清理快照不再引用的原始向量文件（如进程在压缩后、写快照前退出时遗留的文件）。
+     */
+    private void deleteStaleRawVectorFiles(Path snapshot, String keep) throws IOException {
+        Path parent = snapshot.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(parent, snapshot.getFileName() + ".*" + RAW_VECTOR_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package org.bitmagic.ifeed.infrastructure.recall.hnsw;
+
+import org.bitmagic.ifeed.infrastructure.recall.VectorSearchFilter;
+import org.bitmagic.ifeed.infrastructure.vector.QuantizedVector;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内 HNSW（Hierarchical Navigable Small World）图，余弦相似度。
+ * <p>
+ * 向量在写入时归一化，距离取 {@code 1 - dot}；每个节点携带 feedId / publishedAt 以支持带过滤的检索。
+ * 更新采用“标记删除 + 重新插入”，被删除节点仍参与导航但不会出现在结果中，删除比例过高时由调用方触发 {@link #compact(RawVectorFile)}。
+ * 读写通过读写锁隔离：检索并发执行，插入串行。
+ * <p>
+ * 量化模式下节点只保存 int8 {@link QuantizedVector}，内存约为 float32 的 1/4，得分为近似值；
+ * 原始向量按槽位写入挂载的 {@link RawVectorFile}，由 {@link #rescore} 精排。
+ */
+final class HnswGraph {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int VERSION = 4;
+    private static final int MAX_LEVEL_CAP = 16;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final boolean quantized;
+    private final double levelLambda;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Random random = new Random(42);
+
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+    private volatile long syncedAt;
+    private RawVectorFile rawVectors;
+    private String rawVectorFileName = "";
+
+    HnswGraph(int dimensions, int m, int efConstruction, boolean quantized) {
+        if (dimensions <= 0 || m < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dim=%d, m=%d, efConstruction=%d"
+                    .formatted(dimensions, m, efConstruction));
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.quantized = quantized;
+        this.levelLambda = 1.0 / Math.log(m);
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    boolean quantized() {
+        return quantized;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return nodes.isEmpty() ? 0d : (double) deletedCount / nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 图已与 article_embeddings 对齐到的时间点（epoch 毫秒），随快照持久化，重启后从这里追平之后的变更。
+     */
+    long syncedAt() {
+        return syncedAt;
+    }
+
+    void markSynced(long epochMillis) {
+        this.syncedAt = epochMillis;
+    }
+
+    /**
+     * 快照中记录的原始向量文件名（与快照同目录），非量化图为空串。
+     */
+    String rawVectorFileName() {
+        return rawVectorFileName;
+    }
+
+    /**
+     * 挂载原始向量文件，之后写入的向量同时按槽位写入文件；文件容量不足以覆盖已有节点时说明与图不匹配。
+     */
+    void attachRawVectors(RawVectorFile file) {
+        lock.writeLock().lock();
+        try {
+            if (file.capacity() < nodes.size()) {
+                throw new IllegalStateException("Raw vector file %s holds fewer than %d vectors"
+                        .formatted(file.path(), nodes.size()));
+            }
+            this.rawVectors = file;
+            this.rawVectorFileName = file.path().getFileName().toString();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    RawVectorFile rawVectors() {
+        return rawVectors;
+    }
+
+    /**
+     * 写入或替换向量，维度不一致时返回 false。
+     */
+    boolean upsert(long id, float[] vector, int feedId, long publishedAt) {
+        if (vector == null || vector.length != dimensions) {
+            return false;
+        }
+        float[] normalized = normalize(vector);
+        QuantizedVector codes = quantized ? QuantizedVector.quantize(normalized) : null;
+        upsert(id, Query.of(normalized), quantized ? null : normalized, codes, normalized, feedId, publishedAt);
+        return true;
+    }
+
+    private void upsert(long id, Query query, float[] vector, QuantizedVector codes, float[] raw, int feedId, long publishedAt) {
+        lock.writeLock().lock();
+        try {
+            if (rawVectors != null) {
+                rawVectors.write(nodes.size(), raw);
+            }
+            markDeleted(id);
+            insert(new Node(id, vector, codes, feedId, publishedAt, randomLevel(), m, maxM0), query);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return markDeleted(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * kNN 检索。
+     *
+     * @param filter     元数据过滤，过滤后候选不足时退化为对匹配节点的线性扫描
+     * @param visitLimit 带过滤检索时的最大访问节点数，避免选择性很强的过滤条件遍历整张图
+     */
+    List<Neighbor> search(float[] query, int k, int ef, VectorSearchFilter filter, int visitLimit) {
+        if (query == null || query.length != dimensions || k <= 0) {
+            return List.of();
+        }
+        Query normalized = Query.of(normalize(query));
+        VectorSearchFilter effective = filter == null ? VectorSearchFilter.none() : filter;
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || slots.isEmpty()) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            float epDist = nodes.get(ep).distance(normalized);
+            for (int level = maxLevel; level > 0; level--) {
+                Candidate closest = greedyClosest(normalized, ep, epDist, level);
+                ep = closest.slot();
+                epDist = closest.distance();
+            }
+            int beam = Math.max(ef, k);
+            PriorityQueue<Candidate> results = searchLayer(normalized, ep, epDist, beam, 0,
+                    effective, false, effective.isEmpty() ? 0 : visitLimit);
+            // 候选队列没填满说明匹配节点稀疏、在访问上限内没找够，改为线性扫描保证召回
+            if (!effective.isEmpty() && results.size() < beam) {
+                results = scan(normalized, k, effective);
+            }
+            return toNeighbors(results, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 用原始 float32 向量重算候选得分并按得分取前 k 个；未挂载原始向量时按近似得分截断。
+     */
+    List<Neighbor> rescore(float[] query, List<Neighbor> candidates, int k) {
+        if (rawVectors == null || query == null || query.length != dimensions || candidates.isEmpty()) {
+            return candidates.size() > k ? candidates.subList(0, k) : candidates;
+        }
+        float[] normalized = normalize(query);
+        float[] buffer = new float[dimensions];
+        List<Neighbor> rescored = new ArrayList<>(candidates.size());
+        lock.readLock().lock();
+        try {
+            for (Neighbor candidate : candidates) {
+                Integer slot = slots.get(candidate.id());
+                if (slot == null) {
+                    continue;
+                }
+                float score = dot(rawVectors.read(slot, buffer), normalized);
+                rescored.add(new Neighbor(candidate.id(), score, candidate.feedId(), candidate.publishedAt()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        rescored.sort(Comparator.comparingDouble(Neighbor::score).reversed());
+        return rescored.size() > k ? rescored.subList(0, k) : rescored;
+    }
+
+    /**
+     * 将原始向量刷盘，写快照前调用。
+     */
+    void forceRawVectors() {
+        lock.readLock().lock();
+        try {
+            if (rawVectors != null) {
+                rawVectors.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 基于存活节点重建一张新图，清理标记删除的节点；量化模式下直接沿用原有编码，不重复量化，
+     * 原始向量复制到 target（非量化图传 null）。
+     */
+    HnswGraph compact(RawVectorFile target) {
+        List<Integer> live = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < nodes.size(); slot++) {
+                if (!nodes.get(slot).deleted) {
+                    live.add(slot);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        HnswGraph rebuilt = new HnswGraph(dimensions, m, efConstruction, quantized);
+        rebuilt.syncedAt = syncedAt;
+        if (target != null) {
+            rebuilt.attachRawVectors(target);
+        }
+        for (int slot : live) {
+            Node node;
+            float[] raw;
+            lock.readLock().lock();
+            try {
+                node = nodes.get(slot);
+                raw = rawVectors != null ? rawVectors.read(slot, new float[dimensions]) : node.floatVector();
+            } finally {
+                lock.readLock().unlock();
+            }
+            rebuilt.upsert(node.id, Query.of(raw), node.vector, node.codes, raw, node.feedId, node.publishedAt);
+        }
+        return rebuilt;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        lock.readLock().lock();
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeBoolean(quantized);
+            out.writeLong(syncedAt);
+            out.writeUTF(rawVectors != null ? rawVectors.path().getFileName().toString() : "");
+            out.writeInt(nodes.size());
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (Node node : nodes) {
+                out.writeLong(node.id);
+                out.writeInt(node.feedId);
+                out.writeLong(node.publishedAt);
+                out.writeBoolean(node.deleted);
+                out.writeInt(node.level());
+                if (quantized) {
+                    out.writeFloat(node.codes.scale());
+                    out.writeFloat(node.codes.offset());
+                    out.writeInt(node.codes.codeSum());
+                    out.write(node.codes.codes());
+                } else {
+                    for (float value : node.vector) {
+                        out.writeFloat(value);
+                    }
+                }
+                for (int level = 0; level <= node.level(); level++) {
+                    int count = node.linkCounts[level];
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(node.links[level][i]);
+                    }
+                }
+            }
+            out.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static HnswGraph readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an HNSW snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported HNSW snapshot version " + version);
+        }
+        HnswGraph graph = new HnswGraph(in.readInt(), in.readInt(), in.readInt(), in.readBoolean());
+        graph.syncedAt = in.readLong();
+        graph.rawVectorFileName = in.readUTF();
+        int count = in.readInt();
+        graph.entryPoint = in.readInt();
+        graph.maxLevel = in.readInt();
+        for (int slot = 0; slot < count; slot++) {
+            long id = in.readLong();
+            int feedId = in.readInt();
+            long publishedAt = in.readLong();
+            boolean deleted = in.readBoolean();
+            int level = in.readInt();
+            float[] vector = null;
+            QuantizedVector codes = null;
+            if (graph.quantized) {
+                float scale = in.readFloat();
+                float offset = in.readFloat();
+                int codeSum = in.readInt();
+                byte[] bytes = new byte[graph.dimensions];
+                in.readFully(bytes);
+                codes = new QuantizedVector(bytes, scale, offset, codeSum);
+            } else {
+                vector = new float[graph.dimensions];
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] = in.readFloat();
+                }
+            }
+            Node node = new Node(id, vector, codes, feedId, publishedAt, level, graph.m, graph.maxM0);
+            node.deleted = deleted;
+            for (int l = 0; l <= level; l++) {
+                int linkCount = in.readInt();
+                if (linkCount > node.links[l].length) {
+                    throw new IOException("Corrupted HNSW snapshot at slot " + slot);
+                }
+                for (int i = 0; i < linkCount; i++) {
+                    node.links[l][i] = in.readInt();
+                }
+                node.linkCounts[l] = linkCount;
+            }
+            graph.nodes.add(node);
+            if (deleted) {
+                graph.deletedCount++;
+            } else {
+                graph.slots.put(id, slot);
+            }
+        }
+        return graph;
+    }
+
+    private boolean markDeleted(long id) {
+        Integer existing = slots.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        nodes.get(existing).deleted = true;
+        deletedCount++;
+        return true;
+    }
+
+    private void insert(Node node, Query query) {
+        int slot = nodes.size();
+        nodes.add(node);
+        slots.put(node.id, slot);
+        int level = node.level();
+        if (entryPoint < 0) {
+            entryPoint = slot;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        float epDist = nodes.get(ep).distance(query);
+        for (int l = maxLevel; l > level; l--) {
+            Candidate closest = greedyClosest(query, ep, epDist, l);
+            ep = closest.slot();
+            epDist = closest.distance();
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            PriorityQueue<Candidate> found = searchLayer(query, ep, epDist, efConstruction, l,
+                    VectorSearchFilter.none(), true, 0);
+            List<Candidate> sorted = sortAscending(found);
+            List<Candidate> selected = selectNeighbors(sorted, m);
+            for (Candidate neighbor : selected) {
+                node.addLink(l, neighbor.slot());
+                connect(neighbor.slot(), slot, l);
+            }
+            Candidate closest = sorted.getFirst();
+            ep = closest.slot();
+            epDist = closest.distance();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = slot;
+        }
+    }
+
+    private void connect(int from, int to, int level) {
+        Node node = nodes.get(from);
+        int capacity = node.links[level].length;
+        if (node.linkCounts[level] < capacity) {
+            node.addLink(level, to);
+            return;
+        }
+        // 邻居已满，按启发式重新挑选
+        List<Candidate> candidates = new ArrayList<>(capacity + 1);
+        for (int i = 0; i < node.linkCounts[level]; i++) {
+            int neighbor = node.links[level][i];
+            candidates.add(new Candidate(neighbor, node.distance(nodes.get(neighbor))));
+        }
+        candidates.add(new Candidate(to, node.distance(nodes.get(to))));
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        List<Candidate> selected = selectNeighbors(candidates, capacity);
+        node.linkCounts[level] = 0;
+        for (Candidate candidate : selected) {
+            node.addLink(level, candidate.slot());
+        }
+    }
+
+    /**
+     * 启发式邻居选择：候选点只有在离基准点比离已选邻居更近时才入选，以保留不同方向的连边；名额不足时用被裁剪的候选补齐。
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> sortedCandidates, int limit) {
+        if (sortedCandidates.size() <= limit) {
+            return sortedCandidates;
+        }
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : sortedCandidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            Node candidateNode = nodes.get(candidate.slot());
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (candidateNode.distance(nodes.get(chosen.slot())) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private Candidate greedyClosest(Query query, int ep, float epDist, int level) {
+        int current = ep;
+        float currentDist = epDist;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Node node = nodes.get(current);
+            if (node.level() < level) {
+                break;
+            }
+            for (int i = 0; i < node.linkCounts[level]; i++) {
+                int neighbor = node.links[level][i];
+                float d = nodes.get(neighbor).distance(query);
+                if (d < currentDist) {
+                    currentDist = d;
+                    current = neighbor;
+                    changed = true;
+                }
+            }
+        }
+        return new Candidate(current, currentDist);
+    }
+
+    /**
+     * 单层 beam search，返回按距离倒序的大顶堆（堆顶为当前最远结果）。
+     * 结果集只保留满足过滤条件的节点，但导航会穿过所有节点。
+     */
+    private PriorityQueue<Candidate> searchLayer(Query query, int ep, float epDist, int ef, int level,
+                                                 VectorSearchFilter filter, boolean includeDeleted, int visitLimit) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+        visited.set(ep);
+        Candidate start = new Candidate(ep, epDist);
+        candidates.add(start);
+        if (accept(ep, filter, includeDeleted)) {
+            results.add(start);
+        }
+        int visits = 1;
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.distance() > results.peek().distance()) {
+                break;
+            }
+            Node node = nodes.get(current.slot());
+            if (node.level() < level) {
+                continue;
+            }
+            for (int i = 0; i < node.linkCounts[level]; i++) {
+                int neighbor = node.links[level][i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                visits++;
+                float d = nodes.get(neighbor).distance(query);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate next = new Candidate(neighbor, d);
+                    candidates.add(next);
+                    if (accept(neighbor, filter, includeDeleted)) {
+                        results.add(next);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+            if (visitLimit > 0 && visits >= visitLimit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private PriorityQueue<Candidate> scan(Query query, int k, VectorSearchFilter filter) {
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+        for (int slot = 0; slot < nodes.size(); slot++) {
+            if (!accept(slot, filter, false)) {
+                continue;
+            }
+            float d = nodes.get(slot).distance(query);
+            if (results.size() < k) {
+                results.add(new Candidate(slot, d));
+            } else if (d < results.peek().distance()) {
+                results.poll();
+                results.add(new Candidate(slot, d));
+            }
+        }
+        return results;
+    }
+
+    private boolean accept(int slot, VectorSearchFilter filter, boolean includeDeleted) {
+        Node node = nodes.get(slot);
+        if (node.deleted && !includeDeleted) {
+            return false;
+        }
+        return filter.isEmpty() || filter.matches(node.feedId, node.publishedAt);
+    }
+
+    private List<Neighbor> toNeighbors(PriorityQueue<Candidate> results, int k) {
+        List<Candidate> sorted = sortAscending(results);
+        List<Neighbor> neighbors = new ArrayList<>(Math.min(k, sorted.size()));
+        for (int i = 0; i < sorted.size() && neighbors.size() < k; i++) {
+            Candidate candidate = sorted.get(i);
+            Node node = nodes.get(candidate.slot());
+            neighbors.add(new Neighbor(node.id, 1f - candidate.distance(), node.feedId, node.publishedAt));
+        }
+        return neighbors;
+    }
+
+    private static List<Candidate> sortAscending(PriorityQueue<Candidate> heap) {
+        List<Candidate> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingDouble(Candidate::distance));
+        return sorted;
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - random.nextDouble();
+        return Math.min(MAX_LEVEL_CAP, (int) Math.floor(-Math.log(r) * levelLambda));
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float dot = 0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0d;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = vector.clone();
+        if (norm == 0d) {
+            return normalized;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] *= scale;
+        }
+        return normalized;
+    }
+
+    record Neighbor(long id, float score, int feedId, long publishedAt) {
+    }
+
+    private record Candidate(int slot, float distance) {
+    }
+
+    /**
+     * 归一化后的查询向量及其分量和（量化内积需要）。
+     */
+    private record Query(float[] vector, float sum) {
+
+        private static Query of(float[] normalized) {
+            return new Query(normalized, QuantizedVector.sum(normalized));
+        }
+    }
+
+    private static final class Node {
+        private final long id;
+        private final float[] vector;
+        private final QuantizedVector codes;
+        private final int feedId;
+        private final long publishedAt;
+        private final int[][] links;
+        private final int[] linkCounts;
+        private boolean deleted;
+
+        private Node(long id, float[] vector, QuantizedVector codes, int feedId, long publishedAt, int level, int m, int maxM0) {
+            this.id = id;
+            this.vector = vector;
+            this.codes = codes;
+            this.feedId = feedId;
+            this.publishedAt = publishedAt;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[l == 0 ? maxM0 : m];
+            }
+        }
+
+        private int level() {
+            return links.length - 1;
+        }
+
+        private float distance(Query query) {
+            return 1f - (codes != null ? codes.dot(query.vector(), query.sum()) : dot(vector, query.vector()));
+        }
+
+        private float distance(Node other) {
+            return 1f - (codes != null ? codes.dot(other.codes) : dot(vector, other.vector));
+        }
+
+        private float[] floatVector() {
+            return vector != null ? vector : codes.decode();
+        }
+
+        private void addLink(int level, int slot) {
+            links[level][linkCounts[level]++] = slot;
+        }
+    }
+}
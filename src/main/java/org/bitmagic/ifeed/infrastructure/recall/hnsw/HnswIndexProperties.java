@@ -0,0 +1,82 @@
+package org.bitmagic.ifeed.infrastructure.recall.hnsw;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 进程内 HNSW 向量索引参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.hnsw")
+public class HnswIndexProperties {
+
+    /**
+     * 是否启用内存索引，关闭时召回直接查询 PgVector。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 向量维度，需与 article_embeddings 一致。
+     */
+    private int dimensions = 1024;
+
+    /**
+     * 每个节点在上层的最大连边数，第 0 层为其 2 倍。
+     */
+    private int m = 16;
+
+    /**
+     * 构建时的候选队列大小，越大图质量越高、构建越慢。
+     */
+    private int efConstruction = 200;
+
+    /**
+     * 检索时的候选队列大小，实际取 max(efSearch, k)。
+     */
+    private int efSearch = 100;
+
+    /**
+     * 是否以 int8 标量量化存储向量，堆内存约为 float32 的 1/4；精排用的 float32 原始向量存放在快照旁的内存映射文件中。
+     */
+    private boolean quantized = true;
+
+    /**
+     * 量化模式下粗排候选数相对 k 的倍数，取回后按 float32 向量重算相似度。
+     */
+    private int rescoreFactor = 3;
+
+    /**
+     * 带过滤检索时最多访问的节点数，超出后对匹配节点线性扫描兜底。
+     */
+    private int filterVisitLimit = 4096;
+
+    /**
+     * 启动时从数据库分页加载的批大小。
+     */
+    private int loadBatchSize = 1000;
+
+    /**
+     * 快照文件路径，为空时不做持久化（量化模式下的原始向量文件改放临时目录）。
+     */
+    private Path snapshotPath = Path.of("data", "recall", "hnsw-articles.bin");
+
+    /**
+     * 快照落盘间隔。
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(30);
+
+    /**
+     * 标记删除节点占比超过该值时，在快照前重建索引。
+     */
+    private double compactionThreshold = 0.2d;
+
+    /**
+     * article_embedding_deletions 中删除记录的保留时长，同步时间早于该时长的快照会被丢弃并全量重建。
+     */
+    private Duration deletionRetention = Duration.ofDays(7);
+}
@@ -0,0 +1,135 @@
+package org.bitmagic.ifeed.infrastructure.recall.hnsw;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 量化图的 float32 原始向量，按节点槽位顺序存放在快照旁的文件中，以内存映射方式读写。
+ * <p>
+ * 精排直接读映射页，不占用堆内存，也不需要回库；文件按固定大小分段映射，写入新槽位时按需扩展。
+ * 并发由所属的 {@link HnswGraph} 读写锁保证：写入在写锁内，读取在读锁内。
+ */
+final class RawVectorFile implements Closeable {
+
+    private static final int VECTORS_PER_SEGMENT = 1 << 14;
+
+    private final Path path;
+    private final int dimensions;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> mapped = new ArrayList<>();
+    private final List<FloatBuffer> segments = new ArrayList<>();
+
+    private RawVectorFile(Path path, int dimensions, FileChannel channel) {
+        this.path = path;
+        this.dimensions = dimensions;
+        this.channel = channel;
+    }
+
+    /**
+     * 打开（不存在时创建）向量文件，并映射已有的全部分段。
+     */
+    static RawVectorFile open(Path path, int dimensions) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RawVectorFile file = new RawVectorFile(path, dimensions, channel);
+        try {
+            long segmentBytes = file.segmentBytes();
+            long existing = (channel.size() + segmentBytes - 1) / segmentBytes;
+            for (int i = 0; i < existing; i++) {
+                file.mapSegment(i);
+            }
+        } catch (IOException | RuntimeException ex) {
+            file.close();
+            throw ex;
+        }
+        return file;
+    }
+
+    /**
+     * 在临时目录创建向量文件，未配置快照路径时使用，进程退出时删除。
+     */
+    static RawVectorFile temporary(int dimensions) throws IOException {
+        Path path = Files.createTempFile("hnsw-", ".vec");
+        path.toFile().deleteOnExit();
+        return open(path, dimensions);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * 文件中已分配空间可容纳的槽位数，用于校验快照与向量文件是否匹配。
+     */
+    long capacity() {
+        return (long) segments.size() * VECTORS_PER_SEGMENT;
+    }
+
+    void write(int slot, float[] vector) {
+        int segment = slot / VECTORS_PER_SEGMENT;
+        while (segments.size() <= segment) {
+            try {
+                mapSegment(segments.size());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to extend raw vector file " + path, ex);
+            }
+        }
+        segments.get(segment).put((slot % VECTORS_PER_SEGMENT) * dimensions, vector, 0, dimensions);
+    }
+
+    /**
+     * 读取槽位向量到 target，返回 target。
+     */
+    float[] read(int slot, float[] target) {
+        segments.get(slot / VECTORS_PER_SEGMENT).get((slot % VECTORS_PER_SEGMENT) * dimensions, target, 0, dimensions);
+        return target;
+    }
+
+    /**
+     * 将已写入的向量刷到磁盘，写快照前调用，保证快照引用的槽位都已落盘。
+     */
+    void force() {
+        mapped.forEach(MappedByteBuffer::force);
+    }
+
+    /**
+     * 关闭文件通道并删除文件；映射页在缓冲区被回收前仍可读，正在进行的查询不受影响。
+     */
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to delete raw vector file " + path, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to close raw vector file " + path, ex);
+        }
+    }
+
+    private long segmentBytes() {
+        return (long) VECTORS_PER_SEGMENT * dimensions * Float.BYTES;
+    }
+
+    private void mapSegment(int index) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, index * segmentBytes(), segmentBytes());
+        buffer.order(ByteOrder.nativeOrder());
+        mapped.add(buffer);
+        segments.add(buffer.asFloatBuffer());
+    }
+}
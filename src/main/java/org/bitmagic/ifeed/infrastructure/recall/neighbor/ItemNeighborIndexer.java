@@ -0,0 +1,190 @@
+package org.bitmagic.ifeed.infrastructure.recall.neighbor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.AnnIndex;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.record.ArticleEmbeddingRecord;
+import org.bitmagic.ifeed.domain.record.ArticleTitle;
+import org.bitmagic.ifeed.domain.record.ItemNeighborRecord;
+import org.bitmagic.ifeed.domain.repository.ArticleEmbeddingRepository;
+import org.bitmagic.ifeed.domain.repository.ItemNeighborRepository;
+import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
+import org.bitmagic.ifeed.infrastructure.recall.data.ArticleIdCache;
+import org.bitmagic.ifeed.infrastructure.recall.data.UserBehaviorDataAccessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 物品近邻预计算任务：为新入库和过期的物品计算 Top-N 相似物品写入 item_neighbors。
+ * <p>
+ * 相似度来自向量检索（{@link AnnIndex}），可选融合用户共同阅读/收藏的共现得分 {@code c(a,b) / sqrt(c(a) * c(b))}。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "recall.item-neighbors", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemNeighborIndexer {
+
+    private static final int CHUNK_SIZE = 100;
+    private static final int COUNT_CHUNK_SIZE = 1000;
+
+    private final ItemNeighborProperties properties;
+    private final ItemNeighborRepository itemNeighborRepository;
+    private final ArticleEmbeddingRepository articleEmbeddingRepository;
+    private final AnnIndex annIndex;
+    private final UserBehaviorRepository userBehaviorRepository;
+    private final UserBehaviorDataAccessor dataAccessor;
+    private final ArticleIdCache articleIdCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            userBehaviorRepository.ensureArticleIndexes();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to create user behavior article indexes", ex);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recall.item-neighbors.initial-delay:PT5M}",
+            fixedDelayString = "${recall.item-neighbors.fixed-delay:PT30M}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            int limit = Math.max(1, properties.getBatchLimit());
+            LinkedHashSet<Long> itemIds = new LinkedHashSet<>(itemNeighborRepository.findItemIdsWithoutNeighbors(limit));
+            if (itemIds.size() < limit) {
+                Instant staleBefore = Instant.now().minus(properties.getRefreshAfter());
+                itemIds.addAll(itemNeighborRepository.findItemIdsUpdatedBefore(staleBefore, limit - itemIds.size()));
+            }
+            if (itemIds.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Map<Long, Double>> coClick = properties.getCoClickWeight() > 0
+                    ? coClickSimilarity(itemIds)
+                    : Map.of();
+
+            List<Long> ids = new ArrayList<>(itemIds);
+            int written = 0;
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+                List<ItemNeighborRecord> records = new ArrayList<>(chunk.size());
+                for (ArticleEmbeddingRecord embedding : articleEmbeddingRepository.findAllByIds(chunk)) {
+                    records.add(computeNeighbors(embedding, coClick.getOrDefault(embedding.id(), Map.of())));
+                }
+                itemNeighborRepository.saveAll(records);
+                written += records.size();
+            }
+            log.info("Refreshed item neighbors for {} items in {} ms", written, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh item neighbors", ex);
+        }
+    }
+
+    private ItemNeighborRecord computeNeighbors(ArticleEmbeddingRecord embedding, Map<Long, Double> coClickScores) {
+        int size = Math.max(1, properties.getSize());
+        double coClickWeight = Math.min(1d, Math.max(0d, properties.getCoClickWeight()));
+        Map<Long, Double> scores = new HashMap<>();
+        for (ScoredId neighbor : annIndex.query(embedding.embedding(), size + 1, Map.of())) {
+            if (neighbor.id() != embedding.id()) {
+                scores.merge(neighbor.id(), (1 - coClickWeight) * neighbor.score(), Double::sum);
+            }
+        }
+        coClickScores.forEach((neighborId, score) -> scores.merge(neighborId, coClickWeight * score, Double::sum));
+
+        List<Map.Entry<Long, Double>> top = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(size)
+                .toList();
+        long[] neighborIds = new long[top.size()];
+        float[] neighborScores = new float[top.size()];
+        for (int i = 0; i < top.size(); i++) {
+            neighborIds[i] = top.get(i).getKey();
+            neighborScores[i] = top.get(i).getValue().floatValue();
+        }
+        return new ItemNeighborRecord(embedding.id(), neighborIds, neighborScores);
+    }
+
+    /**
+     * 统计目标物品与其它物品的共现次数并做余弦归一化：只读取阅读历史或收藏中包含目标物品的用户（走 articleId 多键索引），
+     * 各物品的出现次数 c(x) 由 Mongo 聚合得出，耗时随目标物品的受众规模增长，与用户总数无关。
+     */
+    private Map<Long, Map<Long, Double>> coClickSimilarity(Set<Long> targets) {
+        Map<String, Long> targetByUid = new HashMap<>(targets.size() * 2);
+        articleIdCache.resolveIds(targets).forEach((id, title) -> targetByUid.put(title.uid().toString(), id));
+        if (targetByUid.isEmpty()) {
+            return Map.of();
+        }
+        int historyLimit = Math.max(1, properties.getCoClickHistoryLimit());
+
+        Map<String, Map<String, Integer>> pairCounts = new HashMap<>();
+        try (Stream<UserBehaviorDocument> documents = userBehaviorRepository.streamByArticleIds(targetByUid.keySet())) {
+            documents.forEach(document -> {
+                List<UserBehaviorDocument.ArticleRef> refs = new ArrayList<>();
+                Optional.ofNullable(document.getReadHistory()).ifPresent(refs::addAll);
+                Optional.ofNullable(document.getCollections()).ifPresent(refs::addAll);
+                List<String> session = dataAccessor.filterAndSortRefs(refs, 0, historyLimit).stream()
+                        .map(UserBehaviorDocument.ArticleRef::getArticleId)
+                        .distinct()
+                        .toList();
+                for (String item : session) {
+                    if (!targetByUid.containsKey(item)) {
+                        continue;
+                    }
+                    Map<String, Integer> row = pairCounts.computeIfAbsent(item, key -> new HashMap<>());
+                    for (String other : session) {
+                        if (!other.equals(item)) {
+                            row.merge(other, 1, Integer::sum);
+                        }
+                    }
+                }
+            });
+        }
+        if (pairCounts.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<String> uids = new HashSet<>(pairCounts.keySet());
+        pairCounts.values().forEach(row -> uids.addAll(row.keySet()));
+        List<String> uidList = new ArrayList<>(uids);
+        Map<String, Integer> itemCounts = new HashMap<>(uidList.size() * 2);
+        Map<UUID, ArticleTitle> mapping = new HashMap<>(uidList.size() * 2);
+        for (int from = 0; from < uidList.size(); from += COUNT_CHUNK_SIZE) {
+            List<String> chunk = uidList.subList(from, Math.min(uidList.size(), from + COUNT_CHUNK_SIZE));
+            itemCounts.putAll(userBehaviorRepository.countUsersByArticleIds(chunk));
+            mapping.putAll(dataAccessor.batchMapArticleIds(chunk));
+        }
+
+        Map<Long, Map<Long, Double>> similarity = new HashMap<>(pairCounts.size() * 2);
+        pairCounts.forEach((item, row) -> {
+            double itemCount = Math.max(1, itemCounts.getOrDefault(item, 1));
+            Map<Long, Double> scores = new HashMap<>(row.size() * 2);
+            row.forEach((other, count) -> {
+                UUID uid = safeUuid(other);
+                ArticleTitle title = uid == null ? null : mapping.get(uid);
+                if (title != null) {
+                    scores.put(title.id(), count / Math.sqrt(itemCount * Math.max(1, itemCounts.getOrDefault(other, 1))));
+                }
+            });
+            similarity.put(targetByUid.get(item), scores);
+        });
+        return similarity;
+    }
+
+    private static UUID safeUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.bitmagic.ifeed.infrastructure.recall.neighbor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 物品近邻预计算参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.item-neighbors")
+public class ItemNeighborProperties {
+
+    /**
+     * 是否使用 item_neighbors 表作为 I2I 共现索引，关闭时每次实时向量检索。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个物品保存的近邻数量。
+     */
+    private int size = 50;
+
+    /**
+     * 共同点击得分的融合权重，0 表示只使用向量相似度。
+     */
+    private double coClickWeight = 0.0d;
+
+    /**
+     * 统计共同点击时每个用户参与的最近阅读/收藏条数。
+     */
+    private int coClickHistoryLimit = 50;
+
+    /**
+     * 近邻计算结果的有效期，过期后由后台任务重算。
+     */
+    private Duration refreshAfter = Duration.ofDays(1);
+
+    /**
+     * 每轮任务最多处理的物品数。
+     */
+    private int batchLimit = 2000;
+}
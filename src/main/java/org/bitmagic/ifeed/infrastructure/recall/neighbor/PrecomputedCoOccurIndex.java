@@ -0,0 +1,88 @@
+package org.bitmagic.ifeed.infrastructure.recall.neighbor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.CoOccurIndex;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.record.ItemNeighborRecord;
+import org.bitmagic.ifeed.domain.repository.ItemNeighborRepository;
+import org.bitmagic.ifeed.infrastructure.recall.VectorCoOccurIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 基于 item_neighbors 预计算表的共现索引，topRelated 退化为单行点查，topRelatedAll 为一次批量读取。
+ * 尚未计算近邻的新物品回落到实时向量检索 {@link VectorCoOccurIndex}。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "recall.item-neighbors", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PrecomputedCoOccurIndex implements CoOccurIndex {
+
+    private final ItemNeighborRepository itemNeighborRepository;
+    private final VectorCoOccurIndex fallback;
+
+    @Override
+    public List<ScoredId> topRelated(Long itemId, int k) {
+        if (itemId == null || k <= 0) {
+            return List.of();
+        }
+        try {
+            Optional<ItemNeighborRecord> record = itemNeighborRepository.findById(itemId);
+            if (record.isPresent()) {
+                return toScoredIds(record.get(), k);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read precomputed neighbors for item {}, fallback to vector search", itemId, ex);
+        }
+        return fallback.topRelated(itemId, k);
+    }
+
+    /**
+     * 一次读取所有已预计算的行，缺失的种子合并为一次向量批量检索。
+     */
+    @Override
+    public Map<Long, List<ScoredId>> topRelatedAll(Collection<Long> itemIds, int k) {
+        if (itemIds == null || itemIds.isEmpty() || k <= 0) {
+            return Map.of();
+        }
+        Map<Long, ItemNeighborRecord> records;
+        try {
+            records = itemNeighborRepository.findAllByIds(itemIds);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to batch read precomputed neighbors, fallback to vector search", ex);
+            records = Map.of();
+        }
+        Map<Long, List<ScoredId>> results = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (itemId == null || results.containsKey(itemId)) {
+                continue;
+            }
+            ItemNeighborRecord record = records.get(itemId);
+            if (record == null) {
+                misses.add(itemId);
+            }
+            results.put(itemId, record != null ? toScoredIds(record, k) : List.of());
+        }
+        if (!misses.isEmpty()) {
+            results.putAll(fallback.topRelatedAll(misses, k));
+        }
+        return results;
+    }
+
+    private static List<ScoredId> toScoredIds(ItemNeighborRecord record, int k) {
+        int size = Math.min(k, record.size());
+        List<ScoredId> neighbors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            neighbors.add(ScoredId.of(record.neighborIds()[i], record.scores()[i]));
+        }
+        return neighbors;
+    }
+}
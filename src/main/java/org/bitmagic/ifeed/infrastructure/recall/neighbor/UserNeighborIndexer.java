@@ -0,0 +1,59 @@
+package org.bitmagic.ifeed.infrastructure.recall.neighbor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.domain.record.UserNeighborRecord;
+import org.bitmagic.ifeed.domain.repository.UserEmbeddingRepository;
+import org.bitmagic.ifeed.domain.repository.UserNeighborRepository;
+import org.bitmagic.ifeed.infrastructure.recall.EmbeddingUserNeighborFinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相似用户预计算任务：为新用户、向量已更新和结果过期的用户计算 Top-K 相似用户写入 user_neighbors。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "recall.user-neighbors", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class UserNeighborIndexer {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final UserNeighborProperties properties;
+    private final UserNeighborRepository userNeighborRepository;
+    private final UserEmbeddingRepository userEmbeddingRepository;
+    private final EmbeddingUserNeighborFinder neighborFinder;
+
+    @Scheduled(initialDelayString = "${recall.user-neighbors.initial-delay:PT5M}",
+            fixedDelayString = "${recall.user-neighbors.fixed-delay:PT30M}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            Instant staleBefore = Instant.now().minus(properties.getRefreshAfter());
+            List<Integer> userIds = userNeighborRepository.findUserIdsToRefresh(staleBefore, Math.max(1, properties.getBatchLimit()));
+            if (userIds.isEmpty()) {
+                return;
+            }
+
+            int size = Math.max(1, properties.getSize());
+            int written = 0;
+            for (int from = 0; from < userIds.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = userIds.subList(from, Math.min(userIds.size(), from + CHUNK_SIZE));
+                Map<Integer, float[]> vectors = userEmbeddingRepository.findVectors(chunk);
+                List<UserNeighborRecord> records = new ArrayList<>(neighborFinder.computeNeighbors(vectors, size).values());
+                userNeighborRepository.saveAll(records);
+                written += records.size();
+            }
+            log.info("Refreshed user neighbors for {} users in {} ms", written, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh user neighbors", ex);
+        }
+    }
+}
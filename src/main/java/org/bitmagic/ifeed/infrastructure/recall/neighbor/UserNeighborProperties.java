@@ -0,0 +1,36 @@
+package org.bitmagic.ifeed.infrastructure.recall.neighbor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 相似用户预计算参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.user-neighbors")
+public class UserNeighborProperties {
+
+    /**
+     * 是否使用 user_neighbors 表作为 U2U 邻居来源，关闭时每次请求在线计算。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个用户保存的相似用户数量。
+     */
+    private int size = 50;
+
+    /**
+     * 计算结果的有效期，过期后由后台任务重算；用户向量更新后也会重算。
+     */
+    private Duration refreshAfter = Duration.ofDays(1);
+
+    /**
+     * 每轮任务最多处理的用户数。
+     */
+    private int batchLimit = 5000;
+}
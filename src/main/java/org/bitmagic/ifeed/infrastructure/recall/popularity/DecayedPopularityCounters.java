@@ -0,0 +1,237 @@
+package org.bitmagic.ifeed.infrastructure.recall.popularity;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 按多个时间窗口（半衰期）指数衰减的物品热度计数器。
+ * <p>
+ * 采用前向衰减：事件按 {@code weight * exp(λ * (t - anchor))} 累加，同一窗口内所有物品共享衰减因子，
+ * 排序无需逐条衰减。{@link #refresh} 定期把锚点推进到当前时间、淘汰冷门物品并预计算各窗口的 Top-N，
+ * 查询只读取预计算结果。
+ */
+final class DecayedPopularityCounters {
+
+    private static final int MAGIC = 0x504F5055; // "POPU"
+    private static final int VERSION = 1;
+    private static final double MIN_SCORE = 1e-6;
+
+    private final long[] halfLifeSeconds;
+    private final double[] lambdas;
+    private final ConcurrentHashMap<Long, double[]> counters = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long anchor;
+    private volatile Ranking[] rankings;
+
+    DecayedPopularityCounters(List<Duration> halfLives, Instant anchor) {
+        this.halfLifeSeconds = halfLives.stream().mapToLong(d -> Math.max(1L, d.toSeconds())).toArray();
+        this.lambdas = Arrays.stream(halfLifeSeconds).mapToDouble(h -> Math.log(2) / h).toArray();
+        this.anchor = anchor.getEpochSecond();
+        this.rankings = new Ranking[halfLifeSeconds.length];
+        Arrays.fill(rankings, Ranking.EMPTY);
+    }
+
+    int windows() {
+        return halfLifeSeconds.length;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * 选择半衰期与 window 最接近的窗口下标。
+     */
+    int windowOf(Duration window) {
+        long target = window.toSeconds();
+        int best = 0;
+        for (int i = 1; i < halfLifeSeconds.length; i++) {
+            if (Math.abs(halfLifeSeconds[i] - target) < Math.abs(halfLifeSeconds[best] - target)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 记录一次事件，weight 可为负（如取消收藏），计数不低于 0。
+     */
+    void add(long itemId, double weight, Instant timestamp) {
+        lock.readLock().lock();
+        try {
+            long delta = timestamp.getEpochSecond() - anchor;
+            counters.compute(itemId, (id, scores) -> {
+                double[] values = scores == null ? new double[lambdas.length] : scores;
+                for (int i = 0; i < lambdas.length; i++) {
+                    values[i] = Math.max(0d, values[i] + weight * Math.exp(lambdas[i] * delta));
+                }
+                return values;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 推进锚点、淘汰衰减殆尽或超出容量的物品，并重建各窗口的 Top-N。
+     */
+    void refresh(Instant now, int topSize, int maxItems) {
+        lock.writeLock().lock();
+        try {
+            long nowSeconds = now.getEpochSecond();
+            double[] factors = new double[lambdas.length];
+            for (int i = 0; i < lambdas.length; i++) {
+                factors[i] = Math.exp(-lambdas[i] * (nowSeconds - anchor));
+            }
+            anchor = nowSeconds;
+            counters.values().removeIf(values -> {
+                boolean alive = false;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] *= factors[i];
+                    alive |= values[i] >= MIN_SCORE;
+                }
+                return !alive;
+            });
+
+            int longest = longestWindow();
+            if (counters.size() > maxItems) {
+                List<Map.Entry<Long, double[]>> coldest = new ArrayList<>(counters.entrySet());
+                coldest.sort(Comparator.comparingDouble(entry -> entry.getValue()[longest]));
+                for (int i = 0; i < coldest.size() - maxItems; i++) {
+                    counters.remove(coldest.get(i).getKey());
+                }
+            }
+
+            Ranking[] rebuilt = new Ranking[lambdas.length];
+            for (int i = 0; i < lambdas.length; i++) {
+                rebuilt[i] = rank(i, topSize);
+            }
+            rankings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取预计算的 Top-N，得分按窗口内最高分归一化到 (0, 1]。
+     */
+    List<Hit> top(int window, int k, LongPredicate exclude) {
+        Ranking ranking = rankings[window];
+        List<Hit> hits = new ArrayList<>(Math.min(k, ranking.ids.length));
+        double max = ranking.ids.length == 0 ? 1d : ranking.scores[0];
+        for (int i = 0; i < ranking.ids.length && hits.size() < k; i++) {
+            if (exclude == null || !exclude.test(ranking.ids[i])) {
+                hits.add(new Hit(ranking.ids[i], ranking.scores[i] / max));
+            }
+        }
+        return hits;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        lock.writeLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(halfLifeSeconds.length);
+            for (long halfLife : halfLifeSeconds) {
+                out.writeLong(halfLife);
+            }
+            out.writeLong(anchor);
+            out.writeInt(counters.size());
+            for (Map.Entry<Long, double[]> entry : counters.entrySet()) {
+                out.writeLong(entry.getKey());
+                for (double value : entry.getValue()) {
+                    out.writeDouble(value);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从检查点恢复计数；窗口配置不一致时返回 false 且不修改当前状态。
+     */
+    boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a popularity checkpoint");
+        }
+        int windows = in.readInt();
+        long[] savedHalfLives = new long[windows];
+        for (int i = 0; i < windows; i++) {
+            savedHalfLives[i] = in.readLong();
+        }
+        if (!Arrays.equals(savedHalfLives, halfLifeSeconds)) {
+            return false;
+        }
+        long savedAnchor = in.readLong();
+        int size = in.readInt();
+        Map<Long, double[]> loaded = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            long id = in.readLong();
+            double[] values = new double[windows];
+            for (int w = 0; w < windows; w++) {
+                values[w] = in.readDouble();
+            }
+            loaded.put(id, values);
+        }
+        lock.writeLock().lock();
+        try {
+            counters.clear();
+            counters.putAll(loaded);
+            anchor = savedAnchor;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    private Ranking rank(int window, int topSize) {
+        PriorityQueue<Map.Entry<Long, double[]>> heap = new PriorityQueue<>(topSize + 1,
+                Comparator.comparingDouble(entry -> entry.getValue()[window]));
+        for (Map.Entry<Long, double[]> entry : counters.entrySet()) {
+            if (entry.getValue()[window] < MIN_SCORE) {
+                continue;
+            }
+            heap.add(entry);
+            if (heap.size() > topSize) {
+                heap.poll();
+            }
+        }
+        int size = heap.size();
+        long[] ids = new long[size];
+        double[] scores = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            Map.Entry<Long, double[]> entry = heap.poll();
+            ids[i] = entry.getKey();
+            scores[i] = entry.getValue()[window];
+        }
+        return new Ranking(ids, scores);
+    }
+
+    private int longestWindow() {
+        int longest = 0;
+        for (int i = 1; i < halfLifeSeconds.length; i++) {
+            if (halfLifeSeconds[i] > halfLifeSeconds[longest]) {
+                longest = i;
+            }
+        }
+        return longest;
+    }
+
+    record Hit(long itemId, double score) {
+    }
+
+    private record Ranking(long[] ids, double[] scores) {
+        private static final Ranking EMPTY = new Ranking(new long[0], new double[0]);
+    }
+}
@@ -0,0 +1,82 @@
+package org.bitmagic.ifeed.infrastructure.recall.popularity;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * 物品蓄水池抽样（Algorithm R）：对入库物品流维护固定大小的均匀样本，供 RANDOM 召回使用。
+ */
+final class ItemReservoir {
+
+    private final long[] items;
+    private int size;
+    private long seen;
+
+    ItemReservoir(int capacity) {
+        this.items = new long[Math.max(1, capacity)];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void offer(long itemId) {
+        seen++;
+        if (size < items.length) {
+            items[size++] = itemId;
+            return;
+        }
+        long slot = ThreadLocalRandom.current().nextLong(seen);
+        if (slot < items.length) {
+            items[(int) slot] = itemId;
+        }
+    }
+
+    /**
+     * 无放回地随机取 k 个样本（部分 Fisher-Yates 洗牌）。
+     */
+    List<Long> sample(int k, LongPredicate exclude) {
+        long[] copy;
+        synchronized (this) {
+            copy = java.util.Arrays.copyOf(items, size);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> picked = new ArrayList<>(Math.min(k, copy.length));
+        for (int i = 0; i < copy.length && picked.size() < k; i++) {
+            int j = i + random.nextInt(copy.length - i);
+            long chosen = copy[j];
+            copy[j] = copy[i];
+            copy[i] = chosen;
+            if (exclude == null || !exclude.test(chosen)) {
+                picked.add(chosen);
+            }
+        }
+        return picked;
+    }
+
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(seen);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(items[i]);
+        }
+    }
+
+    synchronized void readFrom(DataInputStream in) throws IOException {
+        long savedSeen = in.readLong();
+        int savedSize = in.readInt();
+        size = 0;
+        for (int i = 0; i < savedSize; i++) {
+            long id = in.readLong();
+            if (size < items.length) {
+                items[size++] = id;
+            }
+        }
+        seen = Math.max(savedSeen, size);
+    }
+}
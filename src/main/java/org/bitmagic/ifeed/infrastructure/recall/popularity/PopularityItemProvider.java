@@ -0,0 +1,184 @@
+package org.bitmagic.ifeed.infrastructure.recall.popularity;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.application.recommendation.recall.model.UserContext;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ItemProvider;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
+import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.bitmagic.ifeed.infrastructure.recall.JpaItemProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于流式计数的物品提供器，开启 {@code recall.popularity.enabled} 后替代 {@link JpaItemProvider}。
+ * <p>
+ * HOT：按用户阅读/收藏事件累加多窗口衰减热度，定期预计算热门榜单，召回时只读内存；
+ * RANDOM：对入库文章做蓄水池抽样，每次请求随机取样；LATEST 仍走数据库。
+ * 计数与样本定期写入检查点，重启后恢复；内存数据为空时回落到 {@link JpaItemProvider}。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "recall.popularity", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PopularityItemProvider implements ItemProvider {
+
+    private static final int WARM_BATCH_SIZE = 5000;
+
+    private final PopularityProperties properties;
+    private final ArticleRepository articleRepository;
+    private final JpaItemProvider fallback;
+
+    private final DecayedPopularityCounters counters;
+    private final ItemReservoir reservoir;
+    private final int hotWindow;
+
+    public PopularityItemProvider(PopularityProperties properties, ArticleRepository articleRepository, JpaItemProvider fallback) {
+        this.properties = properties;
+        this.articleRepository = articleRepository;
+        this.fallback = fallback;
+        this.counters = new DecayedPopularityCounters(properties.getHalfLives(), Instant.now());
+        this.reservoir = new ItemReservoir(properties.getReservoirSize());
+        this.hotWindow = counters.windowOf(properties.getHotWindow());
+    }
+
+    @Override
+    public List<ScoredId> ls(UserContext userContext, ScoredLsType type, Integer k) {
+        Set<Long> recent = userContext.recentItemIds();
+        List<ScoredId> items = switch (type) {
+            case HOT -> counters.top(hotWindow, k, recent::contains).stream()
+                    .map(hit -> ScoredId.of(hit.itemId(), hit.score()))
+                    .toList();
+            case RANDOM -> reservoir.sample(k, recent::contains).stream()
+                    .map(id -> ScoredId.of(id, 1.0))
+                    .toList();
+            case LATEST -> List.of();
+        };
+        return items.isEmpty() ? fallback.ls(userContext, type, k) : items;
+    }
+
+    @EventListener
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (event.articleId() == null) {
+            return;
+        }
+        double weight = switch (event.action()) {
+            case READ -> properties.getReadWeight();
+            case COLLECT -> properties.getCollectWeight();
+            case UNCOLLECT -> -properties.getCollectWeight();
+        };
+        counters.add(event.articleId(), weight, event.timestamp() == null ? Instant.now() : event.timestamp());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        for (ArticlesIngestedEvent.IngestedArticle article : event.articles()) {
+            reservoir.offer(article.id());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recall.popularity.refresh-interval:PT10S}")
+    public void refreshRankings() {
+        counters.refresh(Instant.now(), Math.max(1, properties.getTopSize()), Math.max(1, properties.getMaxItems()));
+    }
+
+    @Scheduled(initialDelayString = "${recall.popularity.checkpoint-interval:PT5M}",
+            fixedDelayString = "${recall.popularity.checkpoint-interval:PT5M}")
+    public void checkpoint() {
+        writeCheckpoint();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!loadCheckpoint()) {
+            fillReservoir();
+        }
+        refreshRankings();
+        log.info("Popularity counters ready with {} items, reservoir {} items", counters.size(), reservoir.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeCheckpoint();
+    }
+
+    private void fillReservoir() {
+        Instant since = Instant.now().minus(properties.getReservoirWindow());
+        long cursor = 0L;
+        try {
+            while (true) {
+                List<Object[]> rows = articleRepository.findPublishedAtAfter(cursor, since, PageRequest.of(0, WARM_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    if (row[0] instanceof Long id) {
+                        reservoir.offer(id);
+                        cursor = Math.max(cursor, id);
+                    }
+                }
+                if (rows.size() < WARM_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to fill random reservoir, RANDOM recall falls back to database", ex);
+        }
+    }
+
+    private boolean loadCheckpoint() {
+        Path path = properties.getCheckpointPath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (!counters.readFrom(in)) {
+                log.warn("Ignore popularity checkpoint {} written with different half-lives", path);
+                return false;
+            }
+            reservoir.readFrom(in);
+            log.info("Loaded popularity checkpoint {}", path);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to load popularity checkpoint {}", path, ex);
+            return false;
+        }
+    }
+
+    private void writeCheckpoint() {
+        Path path = properties.getCheckpointPath();
+        if (path == null) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                counters.writeTo(out);
+                reservoir.writeTo(out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Popularity checkpoint written to {}", path);
+        } catch (IOException ex) {
+            log.warn("Failed to write popularity checkpoint {}", path, ex);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.bitmagic.ifeed.infrastructure.recall.popularity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式热度计数与随机蓄水池参数。
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recall.popularity")
+public class PopularityProperties {
+
+    /**
+     * 是否启用内存热度计数，关闭时 HOT / RANDOM 召回回落到数据库查询。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 各统计窗口的衰减半衰期。
+     */
+    private List<Duration> halfLives = new ArrayList<>(List.of(Duration.ofHours(6), Duration.ofDays(1), Duration.ofDays(7)));
+
+    /**
+     * HOT 召回使用的窗口，取半衰期最接近的一个。
+     */
+    private Duration hotWindow = Duration.ofDays(1);
+
+    /**
+     * 阅读事件权重。
+     */
+    private double readWeight = 1.0;
+
+    /**
+     * 收藏事件权重，取消收藏时扣减同样的权重。
+     */
+    private double collectWeight = 3.0;
+
+    /**
+     * 计数器最多跟踪的物品数，超出后淘汰最长窗口中得分最低的物品。
+     */
+    private int maxItems = 50_000;
+
+    /**
+     * 每个窗口预计算的热门物品数。
+     */
+    private int topSize = 1_000;
+
+    /**
+     * 热门榜单重建间隔。
+     */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /**
+     * RANDOM 召回蓄水池容量。
+     */
+    private int reservoirSize = 2_000;
+
+    /**
+     * 启动时填充蓄水池的发布时间窗口（无检查点时）。
+     */
+    private Duration reservoirWindow = Duration.ofDays(30);
+
+    /**
+     * 检查点文件路径，为空时不持久化。
+     */
+    private Path checkpointPath = Path.of("data", "recall", "popularity.bin");
+
+    /**
+     * 检查点写入间隔。
+     */
+    private Duration checkpointInterval = Duration.ofMinutes(5);
+}
@@ -1,6 +1,8 @@
 package org.bitmagic.ifeed.infrastructure.retrieval.impl;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bitmagic.ifeed.infrastructure.retrieval.DocScore;
@@ -12,6 +14,7 @@ import org.springframework.ai.document.Document;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -20,7 +23,6 @@ import java.util.stream.Collectors;
  * @date 2025/11/3
  **/
 @Slf4j
-@AllArgsConstructor
 @NoArgsConstructor
 public class MultiChannelRetrievalPipeline implements RetrievalPipeline {
 
@@ -28,6 +30,22 @@ public class MultiChannelRetrievalPipeline implements RetrievalPipeline {
     private double freshnessLambda = 0.5; // 指数衰减
     private final Duration halfLife = Duration.ofHours(48); // 时间半衰期，默认2天 ;2天内权重衰减到50%
     private final List<WeightedHandler> handlers = new ArrayList<>();
+    private MeterRegistry meterRegistry; // 为空时不记录指标
+    private String name = "default";
+
+    public MultiChannelRetrievalPipeline(double freshnessWeight, double freshnessLambda) {
+        this.freshnessWeight = freshnessWeight;
+        this.freshnessLambda = freshnessLambda;
+    }
+
+    /**
+     * 开启指标：各通道耗时与召回数量记录为 retrieval.handler.latency / retrieval.handler.yield{pipeline,handler}
+     */
+    public MultiChannelRetrievalPipeline metrics(MeterRegistry meterRegistry, String name) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        return this;
+    }
 
     public MultiChannelRetrievalPipeline addHandler(RetrievalHandler handler, double weight) {
         this.handlers.add(new WeightedHandler(handler, weight));
@@ -42,7 +60,10 @@ public class MultiChannelRetrievalPipeline implements RetrievalPipeline {
             double weight = wh.weight();
             if (handler.supports(context)) {
                 log.debug("Handler [{}] applicable, executing...", handler.getClass().getSimpleName());
-                Map<Long, DocScore> results = handler.handle(context).stream().collect(Collectors.toMap(DocScore::docId, Function.identity()));
+                long start = System.nanoTime();
+                List<DocScore> hits = handler.handle(context);
+                record(handler, System.nanoTime() - start, hits.size());
+                Map<Long, DocScore> results = hits.stream().collect(Collectors.toMap(DocScore::docId, Function.identity()));
                 normalizeScores(results);
                 for (var entry : results.entrySet()) {
                     Long id = entry.getKey();
@@ -52,6 +73,39 @@ public class MultiChannelRetrievalPipeline implements RetrievalPipeline {
             }
         }
 
+        return rank(merged, context.getTopK());
+    }
+
+    private void record(RetrievalHandler handler, long elapsedNanos, int size) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String handlerName = handler.getClass().getSimpleName();
+        Timer.builder("retrieval.handler.latency")
+                .tag("pipeline", name)
+                .tag("handler", handlerName)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("retrieval.handler.yield")
+                .baseUnit("items")
+                .tag("pipeline", name)
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * 对已召回的结果做 freshness 修正、同标题去重并按综合得分截取 Top-K，
+     * 供已在外部完成检索（如批量查询）的调用方复用排序逻辑
+     */
+    public List<DocScore> rank(List<DocScore> results, int topK) {
+        Map<Long, DocScore> merged = new LinkedHashMap<>();
+        results.forEach(doc -> merged.merge(doc.docId(), doc, DocScore::combine));
+        return rank(merged, topK);
+    }
+
+    private List<DocScore> rank(Map<Long, DocScore> merged, int topK) {
         // Step 2️⃣: 统一计算 freshness 修正
         Map<Long, DocScore> adjusted = new LinkedHashMap<>();
         for (var entry : merged.entrySet()) {
@@ -74,7 +128,7 @@ public class MultiChannelRetrievalPipeline implements RetrievalPipeline {
 
 
         // 排序：按综合得分降序
-        return docScores.stream().sorted((a, b) -> Double.compare(b.score(), a.score())).limit(context.getTopK()).collect(Collectors.toList());
+        return docScores.stream().sorted((a, b) -> Double.compare(b.score(), a.score())).limit(topK).collect(Collectors.toList());
     }
 
     Map<Long, DocScore> normalizeScores(Map<Long, DocScore> scores) {
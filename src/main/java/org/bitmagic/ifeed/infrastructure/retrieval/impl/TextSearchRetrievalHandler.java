@@ -6,6 +6,7 @@ import org.apache.logging.log4j.util.Strings;
 import org.bitmagic.ifeed.infrastructure.retrieval.DocScore;
 import org.bitmagic.ifeed.infrastructure.retrieval.RetrievalContext;
 import org.bitmagic.ifeed.infrastructure.retrieval.RetrievalHandler;
+import org.bitmagic.ifeed.infrastructure.text.search.ScoredDocument;
 import org.bitmagic.ifeed.infrastructure.text.search.pg.PgTextSearchStore;
 
 import java.time.Instant;
@@ -43,14 +44,7 @@ public class TextSearchRetrievalHandler implements RetrievalHandler {
         try {
             List<DocScore> results = Collections.emptyList();
             if (Strings.isNotBlank(context.getQuery())) {
-                results = pgTextSearchStore.searchWithFilter(buildChineseQuery(context.getQuery()), context.getTopK(), context.getUserId(), context.isIncludeGlobal(), context.getThreshold()).stream().map(doc -> {
-                    Map<String, Object> metadata = doc.document().metadata();
-                    Object pubDate = metadata.get("pubDate");
-                    if (pubDate instanceof Integer) {
-                        pubDate = ((Integer) pubDate).longValue();
-                    }
-                    return new DocScore(doc.document().id(), doc.score(), Instant.ofEpochSecond((Long) pubDate), "tsv_tf_idf_chinese", metadata);
-                }).toList();
+                results = pgTextSearchStore.searchWithFilter(buildChineseQuery(context.getQuery()), context.getTopK(), context.getUserId(), context.isIncludeGlobal(), context.getThreshold()).stream().map(this::toDocScore).toList();
             }
 
             long duration = System.currentTimeMillis() - startTime;
@@ -64,6 +58,41 @@ public class TextSearchRetrievalHandler implements RetrievalHandler {
         }
     }
 
+    /**
+     * 批量检索：多个查询共用同一组参数（topK、用户、阈值），一次数据库往返
+     *
+     * @return 与 queries 顺序一致的结果列表
+     */
+    public List<List<DocScore>> handleAll(List<String> queries, RetrievalContext context) {
+        long startTime = System.currentTimeMillis();
+
+        validateContext(context);
+
+        try {
+            List<String> tsQueries = queries.stream().map(this::buildChineseQuery).toList();
+            List<List<DocScore>> results = pgTextSearchStore.searchWithFilterBatch(tsQueries, context.getTopK(), context.getUserId(), context.isIncludeGlobal(), context.getThreshold()).stream()
+                    .map(docs -> docs.stream().map(this::toDocScore).toList())
+                    .toList();
+
+            log.debug("Chinese Text Search batch retrieval completed: {} queries in {}ms",
+                    queries.size(), System.currentTimeMillis() - startTime);
+            return results;
+
+        } catch (Exception e) {
+            log.error("Chinese Text Search batch retrieval failed for queries: {}", queries, e);
+            throw new RuntimeException("Chinese full-text search failed", e);
+        }
+    }
+
+    private DocScore toDocScore(ScoredDocument doc) {
+        Map<String, Object> metadata = doc.document().metadata();
+        Object pubDate = metadata.get("pubDate");
+        if (pubDate instanceof Integer) {
+            pubDate = ((Integer) pubDate).longValue();
+        }
+        return new DocScore(doc.document().id(), doc.score(), Instant.ofEpochSecond((Long) pubDate), "tsv_tf_idf_chinese", metadata);
+    }
+
     /**
      * 构建中文查询，支持多词组合
      */
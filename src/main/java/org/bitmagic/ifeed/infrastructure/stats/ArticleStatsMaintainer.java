@@ -0,0 +1,114 @@
+package org.bitmagic.ifeed.infrastructure.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bitmagic.ifeed.domain.event.ArticlesIngestedEvent;
+import org.bitmagic.ifeed.domain.repository.ArticleRepository;
+import org.bitmagic.ifeed.domain.repository.ArticleStatsRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 维护文章标签/分类的物化统计：文章入库事务提交后异步刷新，失败只记录日志，不影响入库。
+ * <p>
+ * 修复游标之前的文章均已刷新：启动时及按 {@code repair-interval} 从游标之后按批补刷并推进游标，
+ * 首次上线即为全量回填；入库后刷新失败时把游标回退到该批之前，由下次修复重刷。刷新幂等，重复执行结果不变。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleStatsMaintainer {
+
+    private static final String CURSOR = "article_stats";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final ArticleStatsRepository statsRepository;
+    private final ArticleRepository articleRepository;
+
+    private final AtomicBoolean repairing = new AtomicBoolean();
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        List<Long> ids = event.articles().stream()
+                .map(ArticlesIngestedEvent.IngestedArticle::id)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            statsRepository.refresh(ids);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh tag/category stats for {} articles, will repair from cursor", ids.size(), ex);
+            try {
+                statsRepository.rewindCursor(CURSOR, Collections.min(ids) - 1);
+            } catch (RuntimeException rewindEx) {
+                log.warn("Failed to rewind tag/category stats cursor", rewindEx);
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        repair();
+    }
+
+    @Scheduled(fixedDelayString = "${app.article-stats.repair-interval:PT10M}",
+            initialDelayString = "${app.article-stats.repair-interval:PT10M}")
+    public void repair() {
+        if (!repairing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long cursor = statsRepository.findCursor(CURSOR);
+            int total = 0;
+            while (true) {
+                List<Object[]> rows = articleRepository.findPublishedAtAfter(cursor, Instant.EPOCH, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(rows.size());
+                long next = cursor;
+                for (Object[] row : rows) {
+                    if (row[0] instanceof Long id) {
+                        ids.add(id);
+                        next = Math.max(next, id);
+                    }
+                }
+                statsRepository.refresh(ids);
+                total += ids.size();
+                if (!statsRepository.advanceCursor(CURSOR, cursor, next)) {
+                    // 游标被入库失败回退或被其它实例推进，下次修复从新位置继续
+                    log.debug("Tag/category stats cursor moved concurrently, stop at {}", cursor);
+                    break;
+                }
+                cursor = next;
+                if (rows.size() < BACKFILL_BATCH_SIZE) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Refreshed tag/category stats for {} articles up to {} in {} ms", total, cursor, System.currentTimeMillis() - start);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to repair tag/category stats", ex);
+        } finally {
+            repairing.set(false);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.bitmagic.ifeed.infrastructure.text.search.ScoredDocument;
 import org.bitmagic.ifeed.infrastructure.text.search.SearchRequest;
 import org.bitmagic.ifeed.infrastructure.text.search.TextSearchStore;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -291,6 +293,66 @@ public class PgTextSearchStore implements TextSearchStore {
         return namedJdbcTemplate.query(sql, params, this::mapScoredDocument);
     }
 
+    /**
+     * {@link #searchWithFilter} 的批量版本：多个查询在一条 SQL 中执行，
+     * 每个查询通过 LATERAL 子查询各自按 catalog_tsv 检索并取 Top-K，只需一次数据库往返
+     *
+     * @return 与 queries 顺序一致的结果列表
+     */
+    public List<List<ScoredDocument>> searchWithFilterBatch(
+            List<String> queries, int topK, Integer userId, boolean includeGlobal, double threshold) {
+
+        List<List<ScoredDocument>> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            results.add(new ArrayList<>());
+        }
+        if (queries.isEmpty()) {
+            return results;
+        }
+
+        String sql = String.format("""
+                WITH queries AS (
+                    SELECT t.ord, websearch_to_tsquery('%s', t.term) AS q
+                    FROM jsonb_array_elements_text(CAST(:terms AS jsonb)) WITH ORDINALITY AS t(term, ord)
+                )
+                SELECT queries.ord, hit.id, hit.content, hit.feed_id, hit.metadata, hit.score
+                FROM queries
+                CROSS JOIN LATERAL (
+                    SELECT
+                        d.id,
+                        d.content,
+                        d.feed_id,
+                        d.metadata,
+                        ts_rank_cd(d.catalog_tsv, queries.q, 33)
+                            * EXP(-0.02 * EXTRACT(EPOCH FROM (NOW() - d.pub_date)) / 86400.0) AS score
+                    FROM %s d
+                    WHERE queries.q @@ d.catalog_tsv
+                      AND d.pub_date > NOW() - INTERVAL '90 days'
+                      AND d.pub_date IS NOT NULL
+                      AND ts_rank_cd(d.catalog_tsv, queries.q, 33) > :scoreThreshold
+                      AND (:includeGlobal = TRUE
+                        OR EXISTS (
+                            SELECT 1 FROM user_subscriptions us
+                            WHERE us.feed_id = d.feed_id AND us.user_id = :userId AND us.is_active = TRUE
+                        ))
+                    ORDER BY score DESC
+                    LIMIT :topK
+                ) hit
+                ORDER BY queries.ord, hit.score DESC
+                """, textSearchConfig, tableName);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("terms", toJson(queries.stream().map(TermUtils::segmentStr).toList()))
+                .addValue("topK", topK)
+                .addValue("userId", userId)
+                .addValue("includeGlobal", includeGlobal)
+                .addValue("scoreThreshold", threshold);
+
+        namedJdbcTemplate.query(sql, params, (RowCallbackHandler) rs ->
+                results.get(rs.getInt("ord") - 1).add(mapScoredDocument(rs, rs.getRow())));
+        return results;
+    }
+
     // /**
     // * 带用户订阅过滤的搜索 - 仅搜索 feedTitle, category, tags 字段
     // * 使用预先构建的 catalog_tsv 索引提升性能
@@ -508,9 +570,9 @@ public class PgTextSearchStore implements TextSearchStore {
         return new Document(rs.getLong("id"), rs.getInt("feed_id"), rs.getString("content"), enriched);
     }
 
-    private String toJson(Map<String, Object> map) {
+    private String toJson(Object value) {
         try {
-            return objectMapper.writeValueAsString(map);
+            return objectMapper.writeValueAsString(value);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize metadata", e);
         }
@@ -0,0 +1,66 @@
+package org.bitmagic.ifeed.infrastructure.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * pgvector 二进制协议编解码（{@code vector_send} / {@code vector_recv}）。
+ * <p>
+ * 格式：int16 维度 + int16 保留位 + 维度个 float4，均为网络字节序。
+ * 相比文本格式 {@code [0.1,0.2,...]} 无需字符串切分与逐个 parseFloat。
+ *
+ * @author yangrd
+ * @date 2025/12/20
+ **/
+public final class PgVectorCodec {
+
+    private static final int HEADER_BYTES = 4;
+
+    private PgVectorCodec() {
+    }
+
+    /**
+     * 解析维度
+     */
+    public static int dimensions(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES) {
+            return 0;
+        }
+        return ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF);
+    }
+
+    public static float[] decode(byte[] bytes) {
+        return decode(bytes, null);
+    }
+
+    /**
+     * 解码到 float 数组
+     *
+     * @param bytes  vector_send 输出
+     * @param reuse  可复用的缓冲区，维度一致时直接写入并返回该数组
+     * @return 向量，bytes 为空时返回 null
+     */
+    public static float[] decode(byte[] bytes, float[] reuse) {
+        int dim = dimensions(bytes);
+        if (dim == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_BYTES + dim * Float.BYTES) {
+            throw new IllegalArgumentException("Truncated vector payload: dim=%d, bytes=%d".formatted(dim, bytes.length));
+        }
+        float[] target = reuse != null && reuse.length == dim ? reuse : new float[dim];
+        ByteBuffer.wrap(bytes, HEADER_BYTES, dim * Float.BYTES)
+                .order(ByteOrder.BIG_ENDIAN)
+                .asFloatBuffer()
+                .get(target, 0, dim);
+        return target;
+    }
+
+    public static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + vector.length * Float.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putShort((short) vector.length);
+        buffer.putShort((short) 0);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,93 @@
+package org.bitmagic.ifeed.infrastructure.vector;
+
+/**
+ * int8 标量量化向量：每个分量按 {@code x ≈ offset + scale * code} 还原，code 取 0~255，以 byte 存储。
+ * <p>
+ * 每个向量独立计算 scale / offset（min-max），相比 float32 内存与带宽降为 1/4。
+ * 内积在量化域展开计算，避免逐分量反量化：
+ * <pre>
+ * q·x = offset * Σq + scale * Σ(q_i * code_i)
+ * a·b = n * oa * ob + oa * sb * Σcb + ob * sa * Σca + sa * sb * Σ(ca_i * cb_i)
+ * </pre>
+ * 量化误差只适合用于候选粗排，最终排序需要使用原始 float32 向量重算。
+ *
+ * @author yangrd
+ * @date 2025/12/21
+ **/
+public record QuantizedVector(byte[] codes, float scale, float offset, int codeSum) {
+
+    private static final int LEVELS = 255;
+
+    public static QuantizedVector quantize(float[] vector) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float value : vector) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        byte[] codes = new byte[vector.length];
+        if (vector.length == 0) {
+            return new QuantizedVector(codes, 0f, 0f, 0);
+        }
+        float scale = (max - min) / LEVELS;
+        int sum = 0;
+        if (scale > 0f) {
+            float inverse = 1f / scale;
+            for (int i = 0; i < vector.length; i++) {
+                int code = Math.round((vector[i] - min) * inverse);
+                code = Math.max(0, Math.min(LEVELS, code));
+                codes[i] = (byte) code;
+                sum += code;
+            }
+        }
+        return new QuantizedVector(codes, scale, min, sum);
+    }
+
+    public int dimensions() {
+        return codes.length;
+    }
+
+    /**
+     * 非对称内积：float 查询向量与量化向量。
+     *
+     * @param querySum 查询向量分量之和，同一查询对多个向量打分时只需计算一次
+     */
+    public float dot(float[] query, float querySum) {
+        float acc = 0f;
+        for (int i = 0; i < codes.length; i++) {
+            acc += query[i] * (codes[i] & 0xFF);
+        }
+        return offset * querySum + scale * acc;
+    }
+
+    /**
+     * 对称内积：两个量化向量，整数累加。
+     */
+    public float dot(QuantizedVector other) {
+        long acc = 0L;
+        byte[] otherCodes = other.codes;
+        for (int i = 0; i < codes.length; i++) {
+            acc += (codes[i] & 0xFF) * (otherCodes[i] & 0xFF);
+        }
+        return codes.length * offset * other.offset
+                + offset * other.scale * other.codeSum
+                + other.offset * scale * codeSum
+                + scale * other.scale * acc;
+    }
+
+    public float[] decode() {
+        float[] vector = new float[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            vector[i] = offset + scale * (codes[i] & 0xFF);
+        }
+        return vector;
+    }
+
+    public static float sum(float[] vector) {
+        float sum = 0f;
+        for (float value : vector) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,121 @@
+package org.bitmagic.ifeed.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * 只读的 int8 量化向量集合，用于暴力扫描的候选粗排。
+ * <p>
+ * 向量在加入时归一化后量化，扫描得分近似余弦相似度；调用方应对返回的候选用 float32 原始向量重算。
+ *
+ * @author yangrd
+ * @date 2025/12/21
+ **/
+public final class QuantizedVectorSet {
+
+    private final int dimensions;
+    private final long[] ids;
+    private final QuantizedVector[] vectors;
+
+    private QuantizedVectorSet(int dimensions, long[] ids, QuantizedVector[] vectors) {
+        this.dimensions = dimensions;
+        this.ids = ids;
+        this.vectors = vectors;
+    }
+
+    public static Builder builder(int dimensions) {
+        return new Builder(dimensions);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 近似 Top-K。
+     *
+     * @param exclude 需要跳过的 ID（如查询者自身）
+     */
+    public List<Candidate> topK(float[] query, int k, LongPredicate exclude) {
+        if (query == null || query.length != dimensions || k <= 0 || ids.length == 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        if (normalized == null) {
+            return List.of();
+        }
+        float querySum = QuantizedVector.sum(normalized);
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Candidate::score));
+        for (int i = 0; i < ids.length; i++) {
+            if (exclude != null && exclude.test(ids[i])) {
+                continue;
+            }
+            float score = vectors[i].dot(normalized, querySum);
+            if (heap.size() < k) {
+                heap.add(new Candidate(ids[i], score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Candidate(ids[i], score));
+            }
+        }
+        List<Candidate> results = new ArrayList<>(heap);
+        results.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return results;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0d;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0d) {
+            return null;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    public record Candidate(long id, float score) {
+    }
+
+    public static final class Builder {
+
+        private final int dimensions;
+        private final List<Long> ids = new ArrayList<>();
+        private final List<QuantizedVector> vectors = new ArrayList<>();
+
+        private Builder(int dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        /**
+         * 加入一个向量，传入的数组可以被调用方复用；维度不符或零向量时忽略。
+         */
+        public Builder add(long id, float[] vector) {
+            if (vector == null || vector.length != dimensions) {
+                return this;
+            }
+            float[] normalized = normalize(vector);
+            if (normalized != null) {
+                ids.add(id);
+                vectors.add(QuantizedVector.quantize(normalized));
+            }
+            return this;
+        }
+
+        public QuantizedVectorSet build() {
+            long[] idArray = new long[ids.size()];
+            for (int i = 0; i < idArray.length; i++) {
+                idArray[i] = ids.get(i);
+            }
+            return new QuantizedVectorSet(dimensions, idArray, vectors.toArray(QuantizedVector[]::new));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.bitmagic.ifeed.application.recommendation.recall.core;
+
+import org.bitmagic.ifeed.application.recommendation.recall.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultRecallFusionTest {
+
+    private final DefaultRecallFusion fusion = new DefaultRecallFusion(null, 0.0d, null);
+
+    @Test
+    void fuseMergesChannelsByReciprocalRank() {
+        Map<StrategyId, List<ItemCandidate>> channels = new LinkedHashMap<>();
+        channels.put(StrategyId.U2I, List.of(
+                candidate(1L, 0.9, StrategyId.U2I, "兴趣"),
+                candidate(2L, 0.8, StrategyId.U2I, null)));
+        channels.put(StrategyId.HOT, List.of(
+                candidate(2L, 0.5, StrategyId.HOT, null),
+                candidate(3L, 0.4, StrategyId.HOT, "热门")));
+
+        List<ItemCandidate> fused = fusion.fuse(channels, context(10, DiversityConfig.disabled()));
+
+        assertEquals(List.of(2L, 1L, 3L), fused.stream().map(ItemCandidate::itemId).toList());
+        ItemCandidate mixed = fused.getFirst();
+        assertEquals(StrategyId.MIX, mixed.source());
+        assertEquals(List.of("U2I", "HOT"), mixed.attributes().get("_sources"));
+        assertEquals(2, mixed.attributes().get("_sourceCount"));
+        assertEquals(0.8, mixed.attributes().get("_originalScore"));
+        assertEquals("多通道召回: U2I, HOT", mixed.reason());
+        assertEquals(1.0 / 62 + 1.0 / 61, mixed.score(), 1e-12);
+        assertEquals("兴趣", fused.get(1).reason());
+        assertEquals(StrategyId.HOT, fused.get(2).source());
+    }
+
+    @Test
+    void fuseAppliesDiversityAndTopK() {
+        List<ItemCandidate> items = List.of(
+                new ItemCandidate(1L, 1, StrategyId.U2I, null, Map.of("feedId", 1)),
+                new ItemCandidate(2L, 1, StrategyId.U2I, null, Map.of("feedId", 1)),
+                new ItemCandidate(3L, 1, StrategyId.U2I, null, Map.of("feedId", 2)),
+                new ItemCandidate(4L, 1, StrategyId.U2I, null, Map.of("feedId", 3)));
+
+        List<ItemCandidate> fused = fusion.fuse(Map.of(StrategyId.U2I, items),
+                context(2, new DiversityConfig("feedId", 1, true)));
+
+        assertEquals(List.of(1L, 3L), fused.stream().map(ItemCandidate::itemId).toList());
+    }
+
+    private static ItemCandidate candidate(long id, double score, StrategyId source, String reason) {
+        return new ItemCandidate(id, score, source, reason, Map.of());
+    }
+
+    private static FusionContext context(int topK, DiversityConfig diversity) {
+        return new FusionContext(RecallRequest.of(1, "home", topK),
+                new FusionConfig(topK, true, Map.of(), false, diversity));
+    }
+}
@@ -0,0 +1,135 @@
+package org.bitmagic.ifeed.infrastructure.behavior;
+
+import org.bitmagic.ifeed.config.properties.UserBehaviorProperties;
+import org.bitmagic.ifeed.domain.document.UserBehaviorDocument;
+import org.bitmagic.ifeed.domain.repository.UserBehaviorRepository;
+import org.bitmagic.ifeed.domain.repository.UserBehaviorRepositoryCustom.ReadBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReadHistoryWriteBufferTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<ReadBatch> written = new ArrayList<>();
+
+    @Test
+    void recoverReplaysCrashLeftoversOnceInOrder() throws IOException {
+        Path logPath = dir.resolve("read-history.log");
+        // 上次运行留下的两个封存段与一个未封存的活动日志，另有一个前缀相近的无关文件
+        Files.writeString(dir.resolve("read-history.log.1700000000000.0"), line("1", "a1", "f1", 1000) + line("1", "a2", "f1", 2000));
+        Files.writeString(dir.resolve("read-history.log.1700000001000.1"), line("1", "a1", "f1", 3000) + line("2", "b1", "f2", 1500));
+        Files.writeString(logPath, line("1", "a3", "f2", 4000) + line("2", "b1", "f2", 1200));
+        Files.writeString(dir.resolve("read-history.logx"), line("9", "x", "x", 1));
+
+        UserBehaviorRepository repository = recordingRepository();
+        ReadHistoryWriteBuffer buffer = new ReadHistoryWriteBuffer(repository, properties(logPath, 1000));
+        buffer.recover();
+        buffer.flush();
+
+        assertEquals(2, written.size());
+        ReadBatch first = batch("1");
+        assertEquals(List.of("a2", "a1", "a3"), first.articles().stream().map(UserBehaviorDocument.ArticleRef::getArticleId).toList());
+        assertEquals(Instant.ofEpochMilli(3000), first.articles().get(1).getTimestamp());
+        assertEquals(List.of("f1", "f2"), first.feeds().stream().map(UserBehaviorDocument.FeedRef::getFeedId).toList());
+        ReadBatch second = batch("2");
+        assertEquals(1, second.articles().size());
+        assertEquals(Instant.ofEpochMilli(1500), second.articles().getFirst().getTimestamp());
+        assertEquals(List.of("read-history.logx"), files());
+
+        // 再次刷写与重启重放都不应重复写入
+        buffer.flush();
+        ReadHistoryWriteBuffer restarted = new ReadHistoryWriteBuffer(repository, properties(logPath, 1000));
+        restarted.recover();
+        restarted.flush();
+        verify(repository, times(1)).touchReadHistories(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void failedFlushKeepsSegmentsAndRetries() throws IOException {
+        Path logPath = dir.resolve("read-history.log");
+        UserBehaviorRepository repository = mock(UserBehaviorRepository.class);
+        doThrow(new IllegalStateException("mongo down"))
+                .doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(repository).touchReadHistories(anyList(), anyInt(), anyInt());
+        ReadHistoryWriteBuffer buffer = new ReadHistoryWriteBuffer(repository, properties(logPath, 1000));
+
+        assertTrue(buffer.offer("1", "a1", "f1", Instant.ofEpochMilli(1000)));
+        buffer.flush();
+        // 写入失败：条目放回缓冲区，封存段保留
+        assertTrue(written.isEmpty());
+        assertEquals(1, files().size());
+        assertTrue(files().getFirst().startsWith("read-history.log."));
+
+        buffer.flush();
+
+        assertEquals(1, written.size());
+        assertEquals("a1", batch("1").articles().getFirst().getArticleId());
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void offerReturnsFalseWhenBufferStaysFull() {
+        ReadHistoryWriteBuffer buffer = new ReadHistoryWriteBuffer(recordingRepository(), properties(null, 2));
+
+        assertTrue(buffer.offer("1", "a1", "f1", Instant.ofEpochMilli(1000)));
+        assertFalse(buffer.offer("1", "a2", "f1", Instant.ofEpochMilli(2000)));
+
+        buffer.flush();
+        assertTrue(buffer.offer("1", "a2", "f1", Instant.ofEpochMilli(2000)));
+    }
+
+    @Test
+    void offerReturnsFalseWhenDisabled() {
+        UserBehaviorProperties properties = properties(null, 1000);
+        properties.getWriteBehind().setEnabled(false);
+        ReadHistoryWriteBuffer buffer = new ReadHistoryWriteBuffer(recordingRepository(), properties);
+
+        assertFalse(buffer.offer("1", "a1", "f1", Instant.ofEpochMilli(1000)));
+    }
+
+    private UserBehaviorRepository recordingRepository() {
+        UserBehaviorRepository repository = mock(UserBehaviorRepository.class);
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(repository).touchReadHistories(anyList(), anyInt(), anyInt());
+        return repository;
+    }
+
+    private static UserBehaviorProperties properties(Path logPath, int maxPendingEntries) {
+        UserBehaviorProperties properties = new UserBehaviorProperties();
+        UserBehaviorProperties.WriteBehind settings = properties.getWriteBehind();
+        settings.setLogPath(logPath);
+        settings.setMaxPendingEntries(maxPendingEntries);
+        settings.setOfferTimeout(Duration.ofMillis(10));
+        return properties;
+    }
+
+    private ReadBatch batch(String userId) {
+        return written.stream().filter(batch -> batch.userId().equals(userId)).findFirst().orElseThrow();
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static String line(String userId, String articleId, String feedId, long epochMilli) {
+        return String.join("\t", userId, articleId, feedId, Long.toString(epochMilli)) + "\n";
+    }
+}
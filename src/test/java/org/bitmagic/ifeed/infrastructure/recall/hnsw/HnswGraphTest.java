@@ -0,0 +1,125 @@
+package org.bitmagic.ifeed.infrastructure.recall.hnsw;
+
+import org.bitmagic.ifeed.infrastructure.recall.VectorSearchFilter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswGraphTest {
+
+    private static final int DIM = 16;
+
+    @Test
+    void searchFindsExactVector() {
+        float[][] vectors = randomVectors(2000);
+        HnswGraph graph = build(vectors, false);
+
+        for (int i = 0; i < 50; i++) {
+            List<HnswGraph.Neighbor> neighbors = graph.search(vectors[i], 1, 64, VectorSearchFilter.none(), 0);
+            assertEquals(i, neighbors.getFirst().id());
+            assertEquals(1f, neighbors.getFirst().score(), 1e-4);
+        }
+    }
+
+    @Test
+    void searchHonoursFeedAndTimeFilter() {
+        HnswGraph graph = build(randomVectors(2000), false);
+        VectorSearchFilter filter = new VectorSearchFilter(Set.of(3), 500L, 1500L);
+
+        List<HnswGraph.Neighbor> neighbors = graph.search(randomVectors(1)[0], 10, 64, filter, 256);
+
+        assertEquals(10, neighbors.size());
+        neighbors.forEach(neighbor -> {
+            assertEquals(3, neighbor.feedId());
+            assertTrue(neighbor.publishedAt() >= 500 && neighbor.publishedAt() <= 1500);
+        });
+    }
+
+    @Test
+    void upsertReplacesAndSnapshotRoundTrips() throws IOException {
+        float[][] vectors = randomVectors(500);
+        HnswGraph graph = build(vectors, true);
+        graph.upsert(7L, vectors[8], 7 % 10, 7L);
+        graph.markSynced(1_700_000_000_000L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        graph.writeTo(out);
+        HnswGraph restored = HnswGraph.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(500, restored.size());
+        assertEquals(1_700_000_000_000L, restored.syncedAt());
+        assertTrue(restored.deletedRatio() > 0);
+        List<Long> ids = restored.search(vectors[8], 2, 64, VectorSearchFilter.none(), 0).stream()
+                .map(HnswGraph.Neighbor::id)
+                .toList();
+        assertTrue(ids.containsAll(List.of(7L, 8L)));
+        assertEquals(0d, restored.compact(null).deletedRatio());
+    }
+
+    @Test
+    void quantizedSearchKeepsNearestInCandidates() {
+        float[][] vectors = randomVectors(2000);
+        HnswGraph graph = build(vectors, true);
+
+        for (int i = 0; i < 50; i++) {
+            List<Long> ids = graph.search(vectors[i], 3, 64, VectorSearchFilter.none(), 0).stream()
+                    .map(HnswGraph.Neighbor::id)
+                    .toList();
+            assertTrue(ids.contains((long) i));
+        }
+    }
+
+    @Test
+    void rescoreUsesRawVectorsAndSurvivesCompaction() throws IOException {
+        float[][] vectors = randomVectors(1000);
+        RawVectorFile raw = RawVectorFile.temporary(DIM);
+        RawVectorFile compactedRaw = RawVectorFile.temporary(DIM);
+        try {
+            HnswGraph graph = new HnswGraph(DIM, 8, 64, true);
+            graph.attachRawVectors(raw);
+            for (int i = 0; i < vectors.length; i++) {
+                graph.upsert(i, vectors[i], i % 10, i);
+            }
+            graph.upsert(3L, vectors[4], 3, 3L);
+            HnswGraph compacted = graph.compact(compactedRaw);
+
+            for (HnswGraph target : List.of(graph, compacted)) {
+                for (int i = 10; i < 40; i++) {
+                    List<HnswGraph.Neighbor> candidates = target.search(vectors[i], 9, 64, VectorSearchFilter.none(), 0);
+                    List<HnswGraph.Neighbor> rescored = target.rescore(vectors[i], candidates, 3);
+                    assertEquals(i, rescored.getFirst().id());
+                    assertEquals(1f, rescored.getFirst().score(), 1e-5);
+                }
+            }
+        } finally {
+            raw.delete();
+            compactedRaw.delete();
+        }
+    }
+
+    private static HnswGraph build(float[][] vectors, boolean quantized) {
+        HnswGraph graph = new HnswGraph(DIM, 8, 64, quantized);
+        for (int i = 0; i < vectors.length; i++) {
+            graph.upsert(i, vectors[i], i % 10, i);
+        }
+        return graph;
+    }
+
+    private static float[][] randomVectors(int count) {
+        Random random = new Random(count);
+        float[][] vectors = new float[count][DIM];
+        for (float[] vector : vectors) {
+            for (int j = 0; j < DIM; j++) {
+                vector[j] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,64 @@
+package org.bitmagic.ifeed.infrastructure.recall.popularity;
+
+import org.bitmagic.ifeed.application.recommendation.recall.model.UserContext;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ItemProvider;
+import org.bitmagic.ifeed.application.recommendation.recall.spi.ScoredId;
+import org.bitmagic.ifeed.domain.event.UserInteractionEvent;
+import org.bitmagic.ifeed.infrastructure.recall.JpaItemProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularityItemProviderTest {
+
+    private static final UserContext CONTEXT = new UserContext(1, null, List.of(), Map.of(), null);
+
+    @Test
+    void collectFollowedByUncollectNetsToZero() {
+        PopularityItemProvider provider = provider();
+        Instant now = Instant.now();
+
+        provider.onUserInteraction(event(10L, UserInteractionEvent.Action.COLLECT, now));
+        provider.onUserInteraction(event(10L, UserInteractionEvent.Action.UNCOLLECT, now));
+        provider.refreshRankings();
+
+        assertTrue(provider.ls(CONTEXT, ItemProvider.ScoredLsType.HOT, 10).isEmpty());
+    }
+
+    @Test
+    void uncollectOnlyRemovesTheCollectWeight() {
+        PopularityItemProvider provider = provider();
+        Instant now = Instant.now();
+
+        provider.onUserInteraction(event(10L, UserInteractionEvent.Action.READ, now));
+        provider.onUserInteraction(event(20L, UserInteractionEvent.Action.READ, now));
+        provider.onUserInteraction(event(10L, UserInteractionEvent.Action.COLLECT, now));
+        provider.onUserInteraction(event(10L, UserInteractionEvent.Action.UNCOLLECT, now));
+        provider.refreshRankings();
+
+        List<ScoredId> hot = provider.ls(CONTEXT, ItemProvider.ScoredLsType.HOT, 10);
+        assertEquals(2, hot.size());
+        assertEquals(hot.get(0).score(), hot.get(1).score(), 1e-9);
+    }
+
+    private static PopularityItemProvider provider() {
+        PopularityProperties properties = new PopularityProperties();
+        properties.setCheckpointPath(null);
+        JpaItemProvider fallback = new JpaItemProvider(null) {
+            @Override
+            public List<ScoredId> ls(UserContext userContext, ScoredLsType type, Integer k) {
+                return List.of();
+            }
+        };
+        return new PopularityItemProvider(properties, null, fallback);
+    }
+
+    private static UserInteractionEvent event(long articleId, UserInteractionEvent.Action action, Instant timestamp) {
+        return new UserInteractionEvent(1, articleId, UUID.randomUUID(), 1, action, timestamp);
+    }
+}